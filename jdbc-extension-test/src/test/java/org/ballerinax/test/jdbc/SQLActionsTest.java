@@ -38,7 +38,15 @@ import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 import static org.ballerinax.test.utils.SQLDBUtils.DBType.H2;
 import static org.ballerinax.test.utils.SQLDBUtils.DBType.HSQLDB;
@@ -292,6 +300,22 @@ public class SQLActionsTest {
         Assert.assertEquals(retValue.intValue(), 10);
     }
 
+    @Test(groups = CONNECTOR_TEST)
+    public void testPaddedArrayofQueryParameters() {
+        BValue[] returns = BRunUtil.invoke(result, "testPaddedArrayofQueryParameters", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testArrayBindingWithChangedParameterTypes() {
+        BValue[] returns = BRunUtil.invoke(result, "testArrayBindingWithChangedParameterTypes", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 2);
+    }
+
     // This is rather doesn't make sense to test for postgresql than not being supported. Because, in official
     // postgresql driver when setting a blob value while preparing a statement, an OID is created so as it will
     // always be a new one, IN clause would never be evaluated to true
@@ -543,6 +567,246 @@ public class SQLActionsTest {
         Assert.assertEquals(retValue.getInt(1), 1);
     }
 
+    @Test(groups = CONNECTOR_TEST)
+    public void testCoalescedUpdates() {
+        BValue[] returns = BRunUtil.invoke(result, "testCoalescedUpdates", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 20);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 20);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 20);
+        Assert.assertTrue(((BInteger) returns[3]).intValue() > 1);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testCoalescedUpdateFailure() {
+        BValue[] returns = BRunUtil.invoke(result, "testCoalescedUpdateFailure", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 4);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testBufferedWriter() {
+        BValue[] returns = BRunUtil.invoke(result, "testBufferedWriter", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 12);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 12);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 0);
+        Assert.assertTrue(((BBoolean) returns[3]).booleanValue());
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testPollingSource() {
+        BValue[] returns = BRunUtil.invoke(result, "testPollingSource", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 0);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 3);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testReconfigure() {
+        BValue[] returns = BRunUtil.invoke(result, "testReconfigure", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+        Assert.assertTrue(((BBoolean) returns[2]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 2);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testReconfigureWithStreamedTable() {
+        BValue[] returns = BRunUtil.invoke(result, "testReconfigureWithStreamedTable", connectionArgs);
+        Assert.assertTrue(((BBoolean) returns[0]).booleanValue());
+        Assert.assertEquals(returns[1].stringValue(), "Manuri,Devni,");
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testSlowQueryExplain() {
+        BValue[] returns = BRunUtil.invoke(result, "testSlowQueryExplain", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(returns[1].stringValue(), "select count(*) as countval from employeeitr where id = ?");
+        Assert.assertTrue(((BBoolean) returns[2]).booleanValue());
+    }
+
+    // MySQL has no schemas within a database and PostgreSQL folds the unquoted schema name to lower case.
+    @Test(groups = {CONNECTOR_TEST, MYSQL_NOT_SUPPORTED, POSTGRES_NOT_SUPPORTED})
+    public void testTenantClients() {
+        BValue[] returns = BRunUtil.invoke(result, "testTenantClients", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 2);
+        Assert.assertTrue(((BBoolean) returns[3]).booleanValue());
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testWorkloadClasses() {
+        BValue[] returns = BRunUtil.invoke(result, "testWorkloadClasses", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertTrue(((BBoolean) returns[3]).booleanValue());
+        Assert.assertEquals(returns[4].stringValue(), "default");
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testShardedClient() {
+        BValue[] returns = BRunUtil.invoke(result, "testShardedClient", connectionArgs);
+        BValueArray updateCounts = (BValueArray) returns[0];
+        Assert.assertEquals(updateCounts.size(), 3);
+        Assert.assertEquals(updateCounts.getInt(0), 1);
+        Assert.assertEquals(updateCounts.getInt(1), 1);
+        Assert.assertEquals(updateCounts.getInt(2), 1);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
+        // Each shard returns all the rows, since both shards are the same database.
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 6);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testHedgedReads() {
+        BValue[] returns = BRunUtil.invoke(result, "testHedgedReads", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
+        Assert.assertTrue(((BInteger) returns[2]).intValue() > 0);
+        Assert.assertTrue(((BBoolean) returns[3]).booleanValue());
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testExportTo() throws IOException {
+        BValue[] returns = BRunUtil.invoke(result, "testExportTo", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 2);
+        List<String> csvLines = Files.readAllLines(Paths.get("./target/export/employees.csv"));
+        Assert.assertEquals(csvLines.size(), 3);
+        Assert.assertEquals(csvLines.get(0).toUpperCase(Locale.ENGLISH), "ID,NAME");
+        Assert.assertEquals(csvLines.get(1), "1,Manuri");
+        Assert.assertEquals(csvLines.get(2), "2,Devni");
+        List<String> ndjsonLines = Files.readAllLines(Paths.get("./target/export/employees.ndjson"));
+        Assert.assertEquals(ndjsonLines.size(), 2);
+        Assert.assertEquals(ndjsonLines.get(1).toUpperCase(Locale.ENGLISH), "{\"ID\":2,\"NAME\":\"DEVNI\"}");
+        List<String> emptyValueLines = Files.readAllLines(Paths.get("./target/export/empty_values.csv"));
+        Assert.assertEquals(emptyValueLines.get(1), "1,\"\",");
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testImportFrom() throws IOException {
+        Files.createDirectories(Paths.get("./target/import"));
+        Files.write(Paths.get("./target/import/employees.csv"), Arrays.asList("emp_name,emp_id,address",
+                "Manuri,1,Sri Lanka", "\"Smith, J\",2,UK", "Devni,two,Sri Lanka", "Jane,3,"));
+        BValue[] returns = BRunUtil.invoke(result, "testImportFrom", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 3);
+        List<String> rejectedLines = Files.readAllLines(Paths.get("./target/import/rejected.csv"));
+        Assert.assertEquals(rejectedLines.size(), 2);
+        Assert.assertTrue(rejectedLines.get(1).startsWith("two,Devni,"));
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testOpenCursor() {
+        BValue[] returns = BRunUtil.invoke(result, "testOpenCursor", connectionArgs);
+        Assert.assertEquals(returns[0].stringValue(), "Manuri,Devni,");
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 2);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testCursorRowReuse() {
+        BValue[] returns = BRunUtil.invoke(result, "testCursorRowReuse", connectionArgs);
+        Assert.assertTrue(((BBoolean) returns[0]).booleanValue());
+        Assert.assertEquals(returns[1].stringValue(), "Manuri,Devni,");
+        // The reused row is emptied once the cursor is closed.
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 0);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testCursorPrefetch() {
+        BValue[] returns = BRunUtil.invoke(result, "testCursorPrefetch", connectionArgs);
+        Assert.assertEquals(returns[0].stringValue(), "1:Manuri,2:Devni,");
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 2);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testProcessInParallel() {
+        BValue[] returns = BRunUtil.invoke(result, "testProcessInParallel", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(returns[1].stringValue(), "MANURI,DEVNI,");
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 30);
+        Assert.assertTrue(((BBoolean) returns[3]).booleanValue());
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testLoadWithSpill() throws IOException {
+        BValue[] returns = BRunUtil.invoke(result, "testLoadWithSpill", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+        Assert.assertEquals(returns[2].stringValue(), "Devni,Manuri,Manuri,Devni,");
+        Assert.assertTrue(((BBoolean) returns[3]).booleanValue());
+        // The spill file is deleted once the table is closed.
+        try (Stream<Path> spillFiles = Files.list(Paths.get("./target/spill"))) {
+            Assert.assertEquals(spillFiles.count(), 0);
+        }
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testSingleFlightLoad() {
+        BValue[] returns = BRunUtil.invoke(result, "testSingleFlightLoad", connectionArgs);
+        Assert.assertEquals(returns[0].stringValue(), "Manuri,Devni,");
+        Assert.assertEquals(returns[1].stringValue(), "Manuri,Devni,");
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testReferenceTable() {
+        BValue[] returns = BRunUtil.invoke(result, "testReferenceTable", connectionArgs);
+        Assert.assertEquals(returns[0].stringValue(), "Devni");
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+        Assert.assertEquals(returns[2].stringValue(), "Manuri,");
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 2);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testSelectOneAndScalar() {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectOneAndScalar", connectionArgs);
+        Assert.assertEquals(returns[0].stringValue(), "Devni");
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 2);
+        Assert.assertTrue(((BBoolean) returns[3]).booleanValue());
+        Assert.assertTrue(((BBoolean) returns[4]).booleanValue());
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testBindingPlanSignatures() {
+        BValue[] returns = BRunUtil.invoke(result, "testBindingPlanSignatures", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testNamedParameters() {
+        BValue[] returns = BRunUtil.invoke(result, "testNamedParameters", connectionArgs);
+        Assert.assertEquals(returns[0].stringValue(), "Manuri,");
+        Assert.assertEquals(returns[1].stringValue(), "Manuri,Devni,");
+        Assert.assertTrue(((BBoolean) returns[2]).booleanValue());
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testConnectionValidation() {
+        BValue[] returns = BRunUtil.invoke(result, "testConnectionValidation", connectionArgs);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 0);
+    }
+
+    @Test(groups = CONNECTOR_TEST)
+    public void testFatalErrorRenewsPool() {
+        BValue[] returns = BRunUtil.invoke(result, "testFatalErrorRenewsPool", connectionArgs);
+        Assert.assertTrue(((BBoolean) returns[0]).booleanValue());
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 1);
+        Assert.assertEquals(((BInteger) returns[3]).intValue(), 2);
+    }
+
     @Test(groups = CONNECTOR_TEST)
     public void testBatchUpdateWithFailure() {
         BValue[] returns = BRunUtil.invoke(result, "testBatchUpdateWithFailure", connectionArgs);
@@ -0,0 +1,126 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.test.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput, latency percentiles and pool wait time of a load test run.
+ * <p>
+ * The pool wait time of an operation is estimated as the part of its latency above the median latency of the same
+ * operation type in an uncontended baseline run, i.e. a run with a single strand.
+ *
+ * @since 0.992.0
+ */
+public class LoadReport {
+
+    private final String name;
+    private final long durationInMillis;
+    private final long errorCount;
+    private final Map<String, long[]> latencies = new LinkedHashMap<>();
+
+    public LoadReport(String name, long durationInMillis, long errorCount) {
+        this.name = name;
+        this.durationInMillis = durationInMillis;
+        this.errorCount = errorCount;
+    }
+
+    /**
+     * Adds the latencies of an operation type.
+     *
+     * @param operation name of the operation type
+     * @param operationLatencies latencies in nanoseconds
+     */
+    public void addLatencies(String operation, long[] operationLatencies) {
+        long[] sorted = operationLatencies.clone();
+        Arrays.sort(sorted);
+        latencies.put(operation, sorted);
+    }
+
+    public long getOperationCount() {
+        long count = 0;
+        for (long[] operationLatencies : latencies.values()) {
+            count += operationLatencies.length;
+        }
+        return count;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the given percentile of the latencies of an operation type.
+     *
+     * @param operation name of the operation type
+     * @param percentile percentile between 0 and 1
+     * @return the latency in nanoseconds, or 0 if the operation was not run
+     */
+    public long getPercentile(String operation, double percentile) {
+        long[] sorted = latencies.get(operation);
+        if (sorted == null || sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Formats the report, estimating pool wait time against the given baseline run.
+     *
+     * @param baseline uncontended run of the same workload, or {@code null} to omit the pool wait time
+     * @return the formatted report
+     */
+    public String format(LoadReport baseline) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%s: %d operations, %d errors in %d ms, %.1f operations/s%n", name,
+                getOperationCount(), errorCount, durationInMillis,
+                getOperationCount() * 1000.0 / Math.max(1, durationInMillis)));
+        report.append(String.format("  %-12s %10s %10s %10s %10s %14s%n", "operation", "count", "p50 (ms)",
+                "p99 (ms)", "p999 (ms)", "pool wait (ms)"));
+        for (Map.Entry<String, long[]> entry : latencies.entrySet()) {
+            String operation = entry.getKey();
+            long[] sorted = entry.getValue();
+            if (sorted.length == 0) {
+                continue;
+            }
+            String poolWait = "-";
+            if (baseline != null && baseline.latencies.containsKey(operation)) {
+                long serviceTime = baseline.getPercentile(operation, 0.5);
+                long totalWait = 0;
+                for (long latency : sorted) {
+                    totalWait += Math.max(0, latency - serviceTime);
+                }
+                poolWait = toMillis(totalWait / sorted.length);
+            }
+            report.append(String.format("  %-12s %10d %10s %10s %10s %14s%n", operation, sorted.length,
+                    toMillis(getPercentile(operation, 0.5)), toMillis(getPercentile(operation, 0.99)),
+                    toMillis(getPercentile(operation, 0.999)), poolWait));
+        }
+        return report.toString();
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
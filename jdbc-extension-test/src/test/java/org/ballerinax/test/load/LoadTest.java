@@ -0,0 +1,205 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.test.load;
+
+import org.ballerinalang.launcher.util.BCompileUtil;
+import org.ballerinalang.launcher.util.BRunUtil;
+import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinax.test.utils.SQLDBUtils.DBType;
+import org.ballerinax.test.utils.SQLDBUtils.FileBasedTestDatabase;
+import org.ballerinax.test.utils.SQLDBUtils.TestDatabase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load tests which run configurable mixes of {@code select}, {@code update}, {@code batchUpdate} and {@code call}
+ * from concurrent strands against an embedded database, over client owned and shared connection pools. These are
+ * not part of the default test suite and are run with the {@code load-test} profile, e.g.
+ * {@code mvn test -Pload-test -Dload.strands=64 -Dload.mix=select=90,update=10}.
+ * <p>
+ * The workload is configured with the following system properties.
+ * <ul>
+ * <li>{@code load.strands} - number of concurrent strands (default 16)</li>
+ * <li>{@code load.clients} - number of clients the strands are spread over (default 4)</li>
+ * <li>{@code load.poolSize} - maximum size of each connection pool (default 8)</li>
+ * <li>{@code load.durationInMillis} - duration of each run (default 10000)</li>
+ * <li>{@code load.mix} - weights of the operation types (default select=70,update=20,batchUpdate=5,call=5)</li>
+ * <li>{@code load.streamedRowCount} - number of rows of the streamed data set (default 100000)</li>
+ * </ul>
+ *
+ * @since 0.992.0
+ */
+public class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+    private static final String DB_NAME = "TEST_SQL_LOAD";
+    private static final String DB_DIRECTORY = "./target/LoadTest/";
+    private static final String[] OPERATIONS = { "select", "update", "batchUpdate", "call" };
+    private static final long BASELINE_DURATION_IN_MILLIS = 2000;
+    private static final int STREAMED_FIELD_LENGTH = 1024;
+    private static final long HEAP_SAMPLING_INTERVAL_IN_MILLIS = 10;
+
+    private final int strandCount = Integer.getInteger("load.strands", 16);
+    private final int clientCount = Integer.getInteger("load.clients", 4);
+    private final int poolSize = Integer.getInteger("load.poolSize", 8);
+    private final long durationInMillis = Long.getLong("load.durationInMillis", 10000L);
+    private final Map<String, Integer> mix = parseMix(System.getProperty("load.mix",
+            "select=70,update=20,batchUpdate=5,call=5"));
+    private final int streamedRowCount = Integer.getInteger("load.streamedRowCount", 100000);
+
+    private DBType dbType;
+    private TestDatabase testDatabase;
+    private CompileResult result;
+    private BValue[] connectionArgs = new BValue[3];
+    private String callQuery;
+    private LoadReport baseline;
+
+    @Parameters({ "loadTestDBType" })
+    public LoadTest(@Optional("HSQLDB") DBType loadTestDBType) {
+        this.dbType = loadTestDBType;
+    }
+
+    @BeforeClass
+    public void setup() {
+        switch (dbType) {
+        case H2:
+            testDatabase = new FileBasedTestDatabase(dbType, "sqlfiles/SQLTest_H2_Data.sql", DB_DIRECTORY,
+                    DB_NAME);
+            // The H2 test schema has no stored procedures, so a built-in function is called instead.
+            callQuery = "{call CONCAT(?, ?)}";
+            break;
+        case HSQLDB:
+            testDatabase = new FileBasedTestDatabase(dbType, "sqlfiles/SQLTest_HSQL_Data.sql", DB_DIRECTORY,
+                    DB_NAME);
+            callQuery = "{call InsertPersonData(?, ?)}";
+            break;
+        default:
+            throw new UnsupportedOperationException("Load tests are not supported for: " + dbType);
+        }
+
+        connectionArgs[0] = new BString(testDatabase.getJDBCUrl());
+        connectionArgs[1] = new BString(testDatabase.getUsername());
+        connectionArgs[2] = new BString(testDatabase.getPassword());
+
+        result = BCompileUtil.compile("balfiles/load/load_test.bal");
+        baseline = runWorkload("baseline", false, 1, 1, BASELINE_DURATION_IN_MILLIS);
+        log.info(baseline.format(null));
+    }
+
+    @Test
+    public void testClientOwnedPools() {
+        LoadReport report = runWorkload("client owned pools", false, clientCount, strandCount, durationInMillis);
+        log.info(report.format(baseline));
+        Assert.assertTrue(report.getOperationCount() > 0);
+        Assert.assertEquals(report.getErrorCount(), 0);
+    }
+
+    @Test
+    public void testSharedPool() {
+        LoadReport report = runWorkload("shared pool", true, clientCount, strandCount, durationInMillis);
+        log.info(report.format(baseline));
+        Assert.assertTrue(report.getOperationCount() > 0);
+        Assert.assertEquals(report.getErrorCount(), 0);
+    }
+
+    @Test
+    public void testStreamingBigDataset() {
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeapBefore = runtime.totalMemory() - runtime.freeMemory();
+        AtomicLong peakUsedHeap = new AtomicLong(usedHeapBefore);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakUsedHeap.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(),
+                Math::max), 0, HEAP_SAMPLING_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+        BValue[] args = { connectionArgs[0], connectionArgs[1], connectionArgs[2], new BInteger(streamedRowCount),
+                new BInteger(STREAMED_FIELD_LENGTH) };
+        BValue[] returns;
+        try {
+            returns = BRunUtil.invoke(result, "runStreamingBigDataset", args);
+        } finally {
+            sampler.shutdownNow();
+        }
+        long readCount = ((BInteger) returns[0]).intValue();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(((BInteger) returns[1]).intValue());
+        log.info(String.format("streaming big dataset: %d rows read in %d ms, %.1f rows/s, peak heap growth %d MB",
+                readCount, elapsedMillis, readCount * 1000.0 / Math.max(1, elapsedMillis),
+                (peakUsedHeap.get() - usedHeapBefore) / (1024 * 1024)));
+        Assert.assertEquals(readCount, streamedRowCount);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanup() {
+        if (testDatabase != null) {
+            testDatabase.stop();
+        }
+    }
+
+    private LoadReport runWorkload(String name, boolean sharedPool, int clients, int strands, long duration) {
+        BValue[] args = { connectionArgs[0], connectionArgs[1], connectionArgs[2], new BBoolean(sharedPool),
+                new BInteger(clients), new BInteger(poolSize), new BInteger(strands), new BInteger(duration),
+                new BInteger(mix.get(OPERATIONS[0])), new BInteger(mix.get(OPERATIONS[1])),
+                new BInteger(mix.get(OPERATIONS[2])), new BInteger(mix.get(OPERATIONS[3])), new BString(callQuery) };
+        long startTime = System.nanoTime();
+        BValue[] returns = BRunUtil.invoke(result, "runWorkload", args);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        LoadReport report = new LoadReport(name, elapsedMillis, ((BInteger) returns[4]).intValue());
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            BValueArray operationLatencies = (BValueArray) returns[i];
+            long[] latencies = new long[(int) operationLatencies.size()];
+            for (int j = 0; j < latencies.length; j++) {
+                latencies[j] = operationLatencies.getInt(j);
+            }
+            report.addLatencies(OPERATIONS[i], latencies);
+        }
+        return report;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String operation : OPERATIONS) {
+            weights.put(operation, 0);
+        }
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.trim().split("=");
+            if (weight.length != 2 || !weights.containsKey(weight[0].trim())) {
+                throw new IllegalArgumentException("Invalid load test mix entry: " + entry);
+            }
+            weights.put(weight[0].trim(), Integer.parseInt(weight[1].trim()));
+        }
+        return weights;
+    }
+}
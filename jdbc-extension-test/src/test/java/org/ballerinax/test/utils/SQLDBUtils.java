@@ -31,6 +31,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -46,6 +51,9 @@ public class SQLDBUtils {
     public static final String DB_DIRECTORY = "./target/tempdb/";
     public static final String DB_DIRECTORY_H2_1 = "./target/H2_1/";
     public static final String DB_DIRECTORY_H2_2 = "./target/H2_2/";
+    public static final String FIXTURE_TEMPLATE_DIRECTORY = "./target/fixture-templates/";
+    private static final String TEMPLATE_DB_NAME = "TEMPLATE";
+    private static final String TEMPLATE_READY_MARKER = "READY";
     private static final Logger log = LoggerFactory.getLogger(SQLDBUtils.class);
 
     /**
@@ -79,8 +87,9 @@ public class SQLDBUtils {
      * @param username  Username for the DB
      * @param password Password to connect to the DB
      * @param sqlFile SQL statements for initialization.
+     * @return true if all the SQL statements were executed, else false
      */
-    public static void initDatabase(String jdbcURL, String username, String password, String sqlFile) {
+    public static boolean initDatabase(String jdbcURL, String username, String password, String sqlFile) {
         try (Connection connection = DriverManager.getConnection(jdbcURL, username, password);
                 Statement st = connection.createStatement()) {
             String sql = readFileToString(sqlFile);
@@ -91,11 +100,119 @@ public class SQLDBUtils {
             if (!connection.getAutoCommit()) {
                 connection.commit();
             }
+            return true;
         } catch (SQLException e) {
             log.error("Error while initializing database: ", e);
+            return false;
         }
     }
 
+    /**
+     * Initialize a file based DB with the given SQL file by copying the files of a template DB which was initialized
+     * with the same SQL file. The template is created under {@link #FIXTURE_TEMPLATE_DIRECTORY} the first time a SQL
+     * file is used with a DB type, and is rebuilt if the SQL file changes. If the template cannot be created, the SQL
+     * file is run against the DB instead.
+     *
+     * @param dbType Type of the DB. Either H2 or HSQLDB.
+     * @param dbDirectory Name of the DB directory.
+     * @param dbName  Name of the DB instance.
+     * @param sqlFile SQL statements for initialization.
+     */
+    public static synchronized void initFileBasedDatabaseFromTemplate(DBType dbType, String dbDirectory, String dbName,
+            String sqlFile) {
+        File templateDirectory = getFixtureTemplate(dbType, sqlFile);
+        if (templateDirectory != null) {
+            try {
+                File targetDirectory = new File(dbDirectory);
+                Files.createDirectories(targetDirectory.toPath());
+                for (File file : templateDirectory.listFiles()) {
+                    String fileName = file.getName();
+                    if (file.isFile() && fileName.startsWith(TEMPLATE_DB_NAME + ".")) {
+                        File target = new File(targetDirectory, dbName + fileName.substring(TEMPLATE_DB_NAME.length()));
+                        Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                return;
+            } catch (IOException e) {
+                log.error("Error while copying the template database, initializing from the SQL file: ", e);
+            }
+        }
+        initDatabase(getFileBasedJDBCUrl(dbType, dbDirectory, dbName), getFileBasedUsername(dbType), "", sqlFile);
+    }
+
+    /**
+     * Returns the directory of the template DB of the given SQL file, creating the template if it does not exist.
+     *
+     * @return the template directory, or null if the template could not be created
+     */
+    private static File getFixtureTemplate(DBType dbType, String sqlFile) {
+        String sql = readFileToString(sqlFile);
+        if (sql == null) {
+            return null;
+        }
+        String sqlDigest = getSha256Digest(sql);
+        if (sqlDigest == null) {
+            return null;
+        }
+        String templateName = dbType + "_" + new File(sqlFile).getName().replaceAll("\\W", "_") + "_" + sqlDigest;
+        File templateDirectory = new File(FIXTURE_TEMPLATE_DIRECTORY, templateName);
+        File readyMarker = new File(templateDirectory, TEMPLATE_READY_MARKER);
+        if (readyMarker.exists()) {
+            return templateDirectory;
+        }
+        deleteDirectory(templateDirectory);
+        String jdbcURL = getFileBasedJDBCUrl(dbType, templateDirectory.getPath() + File.separator, TEMPLATE_DB_NAME);
+        String username = getFileBasedUsername(dbType);
+        if (!initDatabase(jdbcURL, username, "", sqlFile)) {
+            deleteDirectory(templateDirectory);
+            return null;
+        }
+        // Shutting down writes all the data to the DB files and closes them, so that they can be copied.
+        try (Connection connection = DriverManager.getConnection(jdbcURL, username, "");
+                Statement st = connection.createStatement()) {
+            st.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            log.error("Error while shutting down the template database: ", e);
+            return null;
+        }
+        try {
+            Files.createFile(readyMarker.toPath());
+        } catch (IOException e) {
+            log.error("Error while marking the template database as ready: ", e);
+            return null;
+        }
+        return templateDirectory;
+    }
+
+    private static String getSha256Digest(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            log.error("Error while computing the digest of the SQL file: ", e);
+            return null;
+        }
+    }
+
+    private static String getFileBasedJDBCUrl(DBType dbType, String dbDirectory, String dbName) {
+        switch (dbType) {
+        case H2:
+            return "jdbc:h2:file:" + dbDirectory + dbName;
+        case HSQLDB:
+            return "jdbc:hsqldb:file:" + dbDirectory + dbName;
+        default:
+            throw new UnsupportedOperationException("Creating a file based database is not supported for: " + dbType);
+        }
+    }
+
+    private static String getFileBasedUsername(DBType dbType) {
+        return dbType == DBType.H2 ? "sa" : "SA";
+    }
+
     /**
      * Delete the given directory along with all files and sub directories.
      *
@@ -214,26 +331,14 @@ public class SQLDBUtils {
 
         public FileBasedTestDatabase(DBType dbType, String databaseScript, String dbDirectory, String dbName) {
             this(dbType, dbDirectory, dbName);
-            SQLDBUtils.initDatabase(jdbcUrl, username, password, databaseScript);
+            SQLDBUtils.initFileBasedDatabaseFromTemplate(dbType, dbDirectory, dbName, databaseScript);
         }
 
         public FileBasedTestDatabase(DBType dbType, String dbDirectory, String dbName) {
             this.dbDirectory = dbDirectory;
-            switch (dbType) {
-            case H2:
-                SQLDBUtils.deleteFiles(new File(dbDirectory), dbName);
-                jdbcUrl = "jdbc:h2:file:" + dbDirectory + dbName;
-                username = "sa";
-                break;
-            case HSQLDB:
-                SQLDBUtils.deleteFiles(new File(dbDirectory), dbName);
-                jdbcUrl = "jdbc:hsqldb:file:" + dbDirectory + dbName;
-                username = "SA";
-                break;
-            default:
-                throw new UnsupportedOperationException(
-                        "Creating a file based database is not supported for: " + dbType);
-            }
+            jdbcUrl = getFileBasedJDBCUrl(dbType, dbDirectory, dbName);
+            SQLDBUtils.deleteFiles(new File(dbDirectory), dbName);
+            username = getFileBasedUsername(dbType);
             password = "";
         }
 
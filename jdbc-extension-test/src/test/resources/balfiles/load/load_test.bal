@@ -0,0 +1,179 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+import ballerina/sql;
+import ballerina/time;
+import ballerinax/jdbc;
+
+# Latencies in nanoseconds of the operations run by a strand, by operation type.
+type StrandResult record {|
+    int[] selectLatencies = [];
+    int[] updateLatencies = [];
+    int[] batchUpdateLatencies = [];
+    int[] callLatencies = [];
+    int errorCount = 0;
+|};
+
+const int BATCH_SIZE = 10;
+const int STREAMED_DATA_INSERT_BATCH_SIZE = 1000;
+
+# Runs a mix of operations on the Customers table from the given number of strands for the given duration. The
+# strands are spread over `clientCount` clients, which either share one connection pool or own a pool each. Each
+# strand picks its operations round robin as per the weights, so that runs with the same arguments are comparable.
+function runWorkload(string jdbcUrl, string userName, string password, boolean sharedPool, int clientCount,
+                     int poolSize, int strandCount, int durationInMillis, int selectWeight, int updateWeight,
+                     int batchUpdateWeight, int callWeight, string callQuery)
+                     returns (int[], int[], int[], int[], int) {
+    sql:PoolOptions sharedPoolOptions = { maximumPoolSize: poolSize };
+    jdbc:Client[] clients = [];
+    int i = 0;
+    while (i < clientCount) {
+        sql:PoolOptions poolOptions = sharedPoolOptions;
+        if (!sharedPool) {
+            poolOptions = { maximumPoolSize: poolSize };
+        }
+        jdbc:Client testDB = new({
+            url: jdbcUrl,
+            username: userName,
+            password: password,
+            poolOptions: poolOptions
+        });
+        clients[i] = testDB;
+        i += 1;
+    }
+
+    int[] weights = [selectWeight, updateWeight, batchUpdateWeight, callWeight];
+    future<StrandResult>[] strands = [];
+    i = 0;
+    while (i < strandCount) {
+        strands[i] = start runStrand(clients[i % clientCount], i, durationInMillis, weights, callQuery);
+        i += 1;
+    }
+
+    int[] selectLatencies = [];
+    int[] updateLatencies = [];
+    int[] batchUpdateLatencies = [];
+    int[] callLatencies = [];
+    int errorCount = 0;
+    foreach var strand in strands {
+        StrandResult strandResult = wait strand;
+        appendLatencies(selectLatencies, strandResult.selectLatencies);
+        appendLatencies(updateLatencies, strandResult.updateLatencies);
+        appendLatencies(batchUpdateLatencies, strandResult.batchUpdateLatencies);
+        appendLatencies(callLatencies, strandResult.callLatencies);
+        errorCount += strandResult.errorCount;
+    }
+    foreach var testDB in clients {
+        error? stopRet = testDB.stop();
+    }
+    return (selectLatencies, updateLatencies, batchUpdateLatencies, callLatencies, errorCount);
+}
+
+function runStrand(jdbc:Client testDB, int strandId, int durationInMillis, int[] weights, string callQuery)
+                   returns StrandResult {
+    StrandResult result = {};
+    int totalWeight = weights[0] + weights[1] + weights[2] + weights[3];
+    int endTime = time:currentTime().time + durationInMillis;
+    int iteration = strandId;
+    while (time:currentTime().time < endTime) {
+        int slot = iteration % totalWeight;
+        int registrationId = iteration % 2 + 1;
+        int startTime = time:nanoTime();
+        boolean failed = false;
+        if (slot < weights[0]) {
+            var ret = testDB->select("SELECT firstName FROM Customers WHERE registrationID = ?", (),
+                registrationId);
+            if (ret is table<record {}>) {
+                while (ret.hasNext()) {
+                    _ = ret.getNext();
+                }
+            } else {
+                failed = true;
+            }
+            result.selectLatencies[result.selectLatencies.length()] = time:nanoTime() - startTime;
+        } else if (slot < weights[0] + weights[1]) {
+            var ret = testDB->update("UPDATE Customers SET creditLimit = ? WHERE registrationID = ?",
+                iteration, registrationId);
+            failed = ret is error;
+            result.updateLatencies[result.updateLatencies.length()] = time:nanoTime() - startTime;
+        } else if (slot < weights[0] + weights[1] + weights[2]) {
+            sql:Param?[][] rows = [];
+            while (rows.length() < BATCH_SIZE) {
+                rows[rows.length()] = [iteration + rows.length(), registrationId];
+            }
+            var ret = testDB->batchUpdate("UPDATE Customers SET creditLimit = ? WHERE registrationID = ?", ...rows);
+            failed = ret is error;
+            result.batchUpdateLatencies[result.batchUpdateLatencies.length()] = time:nanoTime() - startTime;
+        } else {
+            var ret = testDB->call(callQuery, (), registrationId, "LoadTest");
+            failed = ret is error;
+            result.callLatencies[result.callLatencies.length()] = time:nanoTime() - startTime;
+        }
+        if (failed) {
+            result.errorCount += 1;
+        }
+        iteration += 1;
+    }
+    return result;
+}
+
+function appendLatencies(int[] target, int[] latencies) {
+    foreach var latency in latencies {
+        target[target.length()] = latency;
+    }
+}
+
+# Reproduces the `streaming-big-dataset` example: populates a table with `rowCount` rows of two `fieldLength`
+# character text columns, and reads it back without loading it to memory.
+#
+# + return - The number of rows read and the time taken to read them in nanoseconds
+function runStreamingBigDataset(string jdbcUrl, string userName, string password, int rowCount, int fieldLength)
+                                returns (int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+
+    var createRet = testDB->update("CREATE TABLE IF NOT EXISTS StreamedData (id INT, field1 VARCHAR(1024),
+        field2 VARCHAR(1024))");
+    string dataEntry = "";
+    while (dataEntry.length() < fieldLength) {
+        dataEntry = dataEntry + "x";
+    }
+    int id = 1;
+    while (id <= rowCount) {
+        sql:Param?[][] rows = [];
+        while (rows.length() < STREAMED_DATA_INSERT_BATCH_SIZE && id <= rowCount) {
+            rows[rows.length()] = [id, dataEntry, dataEntry];
+            id += 1;
+        }
+        var insertRet = testDB->batchUpdate("INSERT INTO StreamedData VALUES (?, ?, ?)", ...rows);
+    }
+
+    int startTime = time:nanoTime();
+    int readCount = 0;
+    var selectRet = testDB->select("SELECT * FROM StreamedData", ());
+    if (selectRet is table<record {}>) {
+        while (selectRet.hasNext()) {
+            _ = selectRet.getNext();
+            readCount += 1;
+        }
+    }
+    int elapsedTime = time:nanoTime() - startTime;
+    error? stopRet = testDB.stop();
+    return (readCount, elapsedTime);
+}
@@ -18,6 +18,7 @@ import ballerinax/jdbc;
 import ballerina/time;
 import ballerina/io;
 import ballerina/internal;
+import ballerina/runtime;
 
 type ResultCustomers record {
     string FIRSTNAME;
@@ -79,6 +80,11 @@ type ResultBalTypes record {
     float REAL_TYPE;
 };
 
+type PolledChange record {
+    int ID;
+    int REVISION;
+};
+
 type Employee record {
     int id;
     string name;
@@ -475,6 +481,53 @@ function testBoolArrayofQueryParameters(string jdbcUrl, string userName, string
     return value;
 }
 
+function testPaddedArrayofQueryParameters(string jdbcUrl, string userName, string password) returns (int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+
+    int[] inIds = [1, 2, 5];
+    int[] notInIds = [1, 7, 8];
+    sql:Parameter para1 = { sqlType: sql:TYPE_INTEGER, value: inIds };
+    sql:Parameter para2 = { sqlType: sql:TYPE_INTEGER, value: notInIds };
+
+    var dt1 = testDB->select("SELECT count(*) as countval from employeeItr where id in (?)", ResultCount, para1);
+    int inCount = getTableCountValColumn(dt1);
+    var dt2 = testDB->select("SELECT count(*) as countval from employeeItr where id not in (?)", ResultCount, para2);
+    int notInCount = getTableCountValColumn(dt2);
+
+    // An array which is not in an IN list is expanded as it is, without padding.
+    var createRet = testDB->update("CREATE TABLE IF NOT EXISTS UnpaddedValues(a INTEGER, b INTEGER, c INTEGER)");
+    int[] values = [1, 2, 3];
+    sql:Parameter para3 = { sqlType: sql:TYPE_INTEGER, value: values };
+    int insertCount = getIntResult(testDB->update("INSERT INTO UnpaddedValues(a, b, c) VALUES (?)", para3));
+    error? stopRet = testDB.stop();
+    return (inCount, notInCount, insertCount);
+}
+
+function testArrayBindingWithChangedParameterTypes(string jdbcUrl, string userName, string password)
+                                                   returns (int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+
+    string sqlQuery = "SELECT count(*) as countval from employeeItr where id in (?)";
+    int[] ids = [1, 2, 5];
+    sql:Parameter arrayParam = { sqlType: sql:TYPE_INTEGER, value: ids };
+    sql:Parameter intParam = { sqlType: sql:TYPE_INTEGER, value: 1 };
+    int arrayCount = getTableCountValColumn(testDB->select(sqlQuery, ResultCount, arrayParam));
+    int intCount = getTableCountValColumn(testDB->select(sqlQuery, ResultCount, intParam));
+    int arrayCountAgain = getTableCountValColumn(testDB->select(sqlQuery, ResultCount, arrayParam));
+    error? stopRet = testDB.stop();
+    return (arrayCount, intCount, arrayCountAgain);
+}
+
 function testBlobArrayQueryParameter(string jdbcUrl, string userName, string password) returns int {
     jdbc:Client testDB = new({
         url: jdbcUrl,
@@ -1195,6 +1248,896 @@ function testBatchUpdateWithVariables(string jdbcUrl, string userName, string pa
     return updateCount;
 }
 
+function testCoalescedUpdates(string jdbcUrl, string userName, string password) returns (int, int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 },
+        writeCoalescing: { maxDelayInMillis: 50, maxBatchSize: 8 }
+    });
+
+    var createRet = testDB->update("CREATE TABLE IF NOT EXISTS CoalescedWrites(id INTEGER, name VARCHAR(20))");
+    future<int>[] inserts = [];
+    int i = 0;
+    while (i < 20) {
+        inserts[i] = start insertCoalescedRow(testDB, i);
+        i += 1;
+    }
+    int insertCount = 0;
+    foreach var insert in inserts {
+        insertCount += wait insert;
+    }
+    var dt = testDB->select("SELECT count(*) as countval from CoalescedWrites", ResultCount);
+    int count = getTableCountValColumn(dt);
+    jdbc:WriteCoalescingStats stats = testDB.getWriteCoalescingStats();
+    error? stopRet = testDB.stop();
+    return (insertCount, count, stats.updateCount, stats.largestBatchSize);
+}
+
+function testCoalescedUpdateFailure(string jdbcUrl, string userName, string password) returns (int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 },
+        writeCoalescing: { maxDelayInMillis: 50, maxBatchSize: 4 }
+    });
+
+    var createRet = testDB->update("CREATE TABLE IF NOT EXISTS CoalescedUniqueWrites(id INTEGER PRIMARY KEY, " +
+        "name VARCHAR(20))");
+    var insertRet = testDB->update("INSERT INTO CoalescedUniqueWrites(id, name) VALUES (2, 'Existing')");
+    future<int>[] inserts = [];
+    int i = 0;
+    while (i < 4) {
+        inserts[i] = start insertCoalescedUniqueRow(testDB, i);
+        i += 1;
+    }
+    int insertCount = 0;
+    int failureCount = 0;
+    foreach var insert in inserts {
+        int result = wait insert;
+        if (result < 0) {
+            failureCount += 1;
+        } else {
+            insertCount += result;
+        }
+    }
+    var dt = testDB->select("SELECT count(*) as countval from CoalescedUniqueWrites", ResultCount);
+    int count = getTableCountValColumn(dt);
+    error? stopRet = testDB.stop();
+    return (insertCount, failureCount, count);
+}
+
+function insertCoalescedUniqueRow(jdbc:Client testDB, int id) returns int {
+    var result = testDB->update("INSERT INTO CoalescedUniqueWrites(id, name) VALUES (?, ?)", id, "Name" + id);
+    return getIntResult(result);
+}
+
+function insertCoalescedRow(jdbc:Client testDB, int id) returns int {
+    var result = testDB->update("INSERT INTO CoalescedWrites(id, name) VALUES (?, ?)", id, "Name" + id);
+    return getIntResult(result);
+}
+
+function testBufferedWriter(string jdbcUrl, string userName, string password) returns (int, int, int, boolean) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+
+    var createRet = testDB->update("CREATE TABLE IF NOT EXISTS BufferedWrites(id INTEGER, name VARCHAR(20))");
+    jdbc:BufferedWriter writer = testDB.createBufferedWriter("INSERT INTO BufferedWrites(id, name) VALUES (?, ?)",
+        config = { bufferSize: 5, flushSize: 5, flushIntervalInMillis: 60000 });
+    // Writes block while the buffer is full and go on once a flush takes the rows out of it.
+    int i = 0;
+    while (i < 12) {
+        error? writeRet = writer.write(i, "Name" + i);
+        i += 1;
+    }
+    // The writer does not wait for its next periodic flush to stop.
+    int stopStartTime = time:currentTime().time;
+    writer.stop();
+    boolean stoppedPromptly = time:currentTime().time - stopStartTime < 5000;
+    jdbc:BufferedWriterMetrics metrics = writer.getMetrics();
+    var dt = testDB->select("SELECT count(*) as countval from BufferedWrites", ResultCount);
+    int count = getTableCountValColumn(dt);
+    error? stopRet = testDB.stop();
+    return (count, metrics.writtenRowCount, metrics.bufferDepth, stoppedPromptly);
+}
+
+function testPollingSource(string jdbcUrl, string userName, string password) returns (int, int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+
+    var createRet = testDB->update("CREATE TABLE IF NOT EXISTS PolledChanges(id INTEGER, revision INTEGER)");
+    var insertRet = testDB->batchUpdate("INSERT INTO PolledChanges(id, revision) VALUES (?, ?)", [1, 1], [2, 2],
+        [3, 2]);
+    jdbc:PollingSource source = testDB.createPollingSource({
+        sqlQuery: "SELECT id, revision FROM PolledChanges WHERE revision >= ? ORDER BY revision",
+        watermarkColumn: "REVISION",
+        keyColumns: ["ID"],
+        initialWatermark: 0
+    }, recordType = PolledChange);
+    int firstPoll = getPolledRowCount(source.poll());
+    insertRet = testDB->batchUpdate("INSERT INTO PolledChanges(id, revision) VALUES (?, ?)", [4, 2], [5, 3]);
+    int secondPoll = getPolledRowCount(source.poll());
+    int thirdPoll = getPolledRowCount(source.poll());
+    int watermark = -1;
+    var currentWatermark = source.getWatermark();
+    if (currentWatermark is int) {
+        watermark = currentWatermark;
+    }
+    error? stopRet = testDB.stop();
+    return (firstPoll, secondPoll, thirdPoll, watermark);
+}
+
+function getPolledRowCount(int|error result) returns int {
+    if (result is int) {
+        return result;
+    }
+    return -1;
+}
+
+function testReconfigure(string jdbcUrl, string userName, string password) returns (int, boolean, boolean, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+
+    // The table keeps its connection of the first pool open until it is fully read.
+    var inFlight = testDB->select("SELECT count(*) as countval from employeeItr", ResultCount);
+    error? invalidRet = testDB.reconfigure({
+        url: "jdbc:invalid:reconfigured",
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    error? validRet = testDB.reconfigure({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    int inFlightCount = getTableCountValColumn(inFlight);
+    int reconfiguredCount = getTableCountValColumn(testDB->select("SELECT count(*) as countval from employeeItr",
+        ResultCount));
+    error? stopRet = testDB.stop();
+    return (inFlightCount, invalidRet is error, validRet is (), reconfiguredCount);
+}
+
+function testReconfigureWithStreamedTable(string jdbcUrl, string userName, string password) returns (boolean, string) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+
+    var streamed = testDB->select("SELECT id, name, address from employeeItr order by id", Employee);
+    error? reconfigureRet = testDB.reconfigure({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    // Gives the previous pool time to be closed, which must wait for the streamed table.
+    runtime:sleep(200);
+    string names = "";
+    if (streamed is table<Employee>) {
+        while (streamed.hasNext()) {
+            var employee = streamed.getNext();
+            if (employee is Employee) {
+                names += employee.name + ",";
+            }
+        }
+    }
+    error? stopRet = testDB.stop();
+    return (reconfigureRet is (), names);
+}
+
+function testSlowQueryExplain(string jdbcUrl, string userName, string password) returns (int, string, boolean) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        slowQueryExplain: { thresholdInMillis: 0 }
+    });
+
+    int count = getTableCountValColumn(testDB->select("SELECT count(*) as countval from employeeItr where id = ?",
+        ResultCount, 1));
+    jdbc:SlowQueryPlan[] plans = testDB.getSlowQueryPlans();
+    int attempts = 0;
+    while (plans.length() == 0 && attempts < 50) {
+        runtime:sleep(100);
+        plans = testDB.getSlowQueryPlans();
+        attempts += 1;
+    }
+    error? stopRet = testDB.stop();
+    if (plans.length() == 0) {
+        return (0, "", false);
+    }
+    return (plans.length(), plans[0].fingerprint, plans[0].plan != "");
+}
+
+function testTenantClients(string jdbcUrl, string userName, string password) returns (int, int, int, boolean) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    var createRet = testDB->update("CREATE SCHEMA TENANTA");
+    createRet = testDB->update("CREATE TABLE TENANTA.TenantRows(id INTEGER)");
+    createRet = testDB->update("CREATE TABLE TenantRows(id INTEGER)");
+    var insertRet = testDB->batchUpdate("INSERT INTO TENANTA.TenantRows(id) VALUES (?)", [1], [2]);
+    insertRet = testDB->batchUpdate("INSERT INTO TenantRows(id) VALUES (?)", [1]);
+    error? stopRet = testDB.stop();
+
+    // Both tenants use the single connection of the shared pool, which is switched between their schemas.
+    sql:PoolOptions sharedPool = { maximumPoolSize: 1 };
+    jdbc:Client tenantA = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: sharedPool,
+        tenant: { schema: "TENANTA", maxConcurrentCalls: 1 }
+    });
+    jdbc:Client tenantPublic = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: sharedPool,
+        tenant: { schema: "PUBLIC", maxConcurrentCalls: 1 }
+    });
+    string sqlQuery = "SELECT count(*) as countval from TenantRows";
+    int tenantACount = getTableCountValColumn(tenantA->select(sqlQuery, ResultCount));
+    int tenantPublicCount = getTableCountValColumn(tenantPublic->select(sqlQuery, ResultCount));
+    int tenantACountAgain = getTableCountValColumn(tenantA->select(sqlQuery, ResultCount));
+    stopRet = tenantA.stop();
+    stopRet = tenantPublic.stop();
+
+    // XA connections would not be switched, so that a tenant client cannot be created over an XA pool.
+    var xaTenant = trap new jdbc:Client({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1, isXA: true },
+        tenant: { schema: "TENANTA" }
+    });
+    if (xaTenant is jdbc:Client) {
+        stopRet = xaTenant.stop();
+    }
+    return (tenantACount, tenantPublicCount, tenantACountAgain, xaTenant is error);
+}
+
+function testWorkloadClasses(string jdbcUrl, string userName, string password)
+                             returns (int, int, int, boolean, string) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        workloads: {
+            maxConcurrentCalls: 1,
+            classes: {
+                "default": { priority: 10 },
+                "batch": { priority: 0, queueTimeoutInMillis: 5000 },
+                "reporting": { poolOptions: { maximumPoolSize: 1 } }
+            }
+        }
+    });
+    string sqlQuery = "SELECT count(*) as countval from employeeItr where id = ?";
+    int defaultCount = getTableCountValColumn(testDB->select(sqlQuery, ResultCount, 1));
+    int batchCount = -1;
+    int reportingCount = -1;
+    var batchDB = testDB.getWorkloadClient("batch");
+    if (batchDB is jdbc:WorkloadClient) {
+        batchCount = getTableCountValColumn(batchDB->select(sqlQuery, ResultCount, 1));
+    }
+    var reportingDB = testDB.getWorkloadClient("reporting");
+    if (reportingDB is jdbc:WorkloadClient) {
+        reportingCount = getTableCountValColumn(reportingDB->select(sqlQuery, ResultCount, 1));
+    }
+    boolean unknownClassRejected = testDB.getWorkloadClient("unknown") is error;
+
+    // A streamed table holds the only permit until it is closed, so that a batch call and then a default call queue
+    // for it. The default call has the higher priority and is admitted first.
+    string firstAdmitted = "";
+    var defaultDB = testDB.getWorkloadClient("default");
+    var streamed = testDB->select(sqlQuery, ResultCount, 1);
+    if (batchDB is jdbc:WorkloadClient && defaultDB is jdbc:WorkloadClient && streamed is table<ResultCount>) {
+        future<string> batchCall = start selectAsWorkload(batchDB, "batch");
+        runtime:sleep(100);
+        future<string> defaultCall = start selectAsWorkload(defaultDB, "default");
+        runtime:sleep(100);
+        streamed.close();
+        firstAdmitted = wait batchCall | defaultCall;
+        string secondAdmitted = wait batchCall;
+    }
+    error? stopRet = testDB.stop();
+    return (defaultCount, batchCount, reportingCount, unknownClassRejected, firstAdmitted);
+}
+
+function selectAsWorkload(jdbc:WorkloadClient workloadDB, string workloadClass) returns string {
+    var dt = workloadDB->select("SELECT count(*) as countval from employeeItr", ResultCount, loadToMemory = true);
+    if (dt is table<ResultCount>) {
+        dt.close();
+    }
+    return workloadClass;
+}
+
+function testShardedClient(string jdbcUrl, string userName, string password) returns (int[], int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    var createRet = testDB->update("CREATE TABLE ShardRows(id INTEGER, shardNo INTEGER)");
+    error? stopRet = testDB.stop();
+
+    // Both shards point to the same database, and rows are routed by the parity of their key.
+    jdbc:ClientEndpointConfig shardConfig = {
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    };
+    jdbc:ShardedClient shardedDB = new([shardConfig, shardConfig], shardFunction = getShardByParity);
+    int[] updateCounts = [];
+    var batchRet = shardedDB->batchUpdate("INSERT INTO ShardRows(id, shardNo) VALUES (?, ?)", [1, 2, 3],
+        [1, 1], [2, 0], [3, 1]);
+    if (batchRet is int[]) {
+        updateCounts = batchRet;
+    }
+    int routedCount = getTableCountValColumn(shardedDB->select(2, "SELECT count(*) as countval from ShardRows "
+        + "where shardNo = ?", ResultCount, 1));
+    int scatteredCount = 0;
+    var scatterRet = shardedDB->scatterSelect("SELECT id from ShardRows", ());
+    if (scatterRet is jdbc:ShardedTable) {
+        while (scatterRet.hasNext()) {
+            var row = scatterRet.getNext();
+            scatteredCount += 1;
+        }
+    }
+    stopRet = shardedDB.stop();
+    return (updateCounts, routedCount, scatteredCount);
+}
+
+function getShardByParity(anydata shardKey, int shardCount) returns int {
+    if (shardKey is int) {
+        return shardKey % shardCount;
+    }
+    return 0;
+}
+
+function testHedgedReads(string jdbcUrl, string userName, string password) returns (int, int, int, boolean) {
+    // The replica is the same database with a pool of its own. A streamed table holds the only connection of the pool
+    // of the client, so that the next read stalls on the pool until it is hedged to the replica.
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        hedging: { replicaUrls: [jdbcUrl], minDelayInMillis: 50, maxDelayInMillis: 50, maxHedgeRatio: 1.0,
+            replicaPoolOptions: { maximumPoolSize: 2 } }
+    });
+    string sqlQuery = "SELECT count(*) as countval from employeeItr where id = ?";
+    var streamed = testDB->select(sqlQuery, ResultCount, 1);
+    var hedged = testDB->select(sqlQuery, ResultCount, 1);
+    // The streamed table of the hedged read stays readable while the replicas are switched over.
+    error? reconfigureRet = testDB.reconfigure({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    int count = getTableCountValColumn(hedged);
+    if (streamed is table<ResultCount>) {
+        streamed.close();
+    }
+    jdbc:HedgingMetrics metrics = testDB.getHedgingMetrics();
+    error? stopRet = testDB.stop();
+    return (count, metrics.readCount, metrics.hedgesIssued, metrics.hedgesWon <= metrics.hedgesIssued);
+}
+
+function testExportTo(string jdbcUrl, string userName, string password) returns (int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    string sqlQuery = "SELECT id, name from employeeItr where id in (?) order by id";
+    sql:Parameter ids = { sqlType: sql:TYPE_INTEGER, value: [1, 2] };
+    int csvCount = -1;
+    int ndjsonCount = -1;
+    var csvRet = testDB->exportTo(sqlQuery, "./target/export/employees.csv", jdbc:EXPORT_CSV, ids);
+    if (csvRet is int) {
+        csvCount = csvRet;
+    }
+    var ndjsonRet = testDB->exportTo(sqlQuery, "./target/export/employees.ndjson", jdbc:EXPORT_NDJSON, ids);
+    if (ndjsonRet is int) {
+        ndjsonCount = ndjsonRet;
+    }
+    var emptyRet = testDB->exportTo("SELECT id, '' as note, CAST(NULL AS VARCHAR(10)) as remark from employeeItr "
+        + "where id = ?", "./target/export/empty_values.csv", jdbc:EXPORT_CSV, 1);
+    error? stopRet = testDB.stop();
+    return (csvCount, ndjsonCount);
+}
+
+function testImportFrom(string jdbcUrl, string userName, string password) returns (int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 2 }
+    });
+    var createRet = testDB->update("CREATE TABLE ImportRows(id INTEGER, name VARCHAR(20))");
+    int importedCount = -1;
+    int quarantinedCount = -1;
+    var importRet = testDB->importFrom("./target/import/employees.csv", "ImportRows",
+        { "emp_id": "id", "emp_name": "name" },
+        options = { batchSize: 2, parallelism: 2, quarantinePath: "./target/import/rejected.csv" });
+    if (importRet is jdbc:ImportResult) {
+        importedCount = importRet.importedRowCount;
+        quarantinedCount = importRet.quarantinedRowCount;
+    }
+    int count = getTableCountValColumn(testDB->select("SELECT count(*) as countval from ImportRows", ResultCount));
+    error? stopRet = testDB.stop();
+    return (importedCount, quarantinedCount, count);
+}
+
+function testOpenCursor(string jdbcUrl, string userName, string password) returns (string, boolean, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    string names = "";
+    boolean closedCursorRejected = false;
+    sql:Parameter ids = { sqlType: sql:TYPE_INTEGER, value: [1, 2] };
+    var cursorRet = testDB->openCursor("SELECT id, name, address from employeeItr where id in (?) order by id", ids);
+    if (cursorRet is jdbc:ResultCursor) {
+        while (true) {
+            var hasRow = cursorRet.next();
+            if (hasRow is error || !hasRow) {
+                break;
+            }
+            var name = cursorRet.getString("name");
+            if (name is string) {
+                names = names + name + ",";
+            }
+        }
+        closedCursorRejected = cursorRet.getString("name") is error;
+        error? closeRet = cursorRet.close();
+    }
+    // The connection of the cursor is released once all its rows are read, so the single connection is free again.
+    int count = getTableCountValColumn(testDB->select("SELECT count(*) as countval from employeeItr", ResultCount));
+    error? stopRet = testDB.stop();
+    return (names, closedCursorRejected, count);
+}
+
+function testCursorRowReuse(string jdbcUrl, string userName, string password) returns (boolean, string, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    boolean rowReused = true;
+    map<anydata>[] copies = [];
+    map<anydata>? firstRow = ();
+    var cursorRet = testDB->openCursor("SELECT id, name from employeeItr where id <= ? order by id", 2);
+    if (cursorRet is jdbc:ResultCursor) {
+        while (true) {
+            var hasRow = cursorRet.next();
+            if (hasRow is error || !hasRow) {
+                break;
+            }
+            var row = cursorRet.readRow();
+            var copy = cursorRet.copyRow();
+            if (row is map<anydata> && copy is map<anydata>) {
+                map<anydata>? previousRow = firstRow;
+                if (previousRow is map<anydata>) {
+                    rowReused = rowReused && previousRow === row;
+                } else {
+                    firstRow = row;
+                }
+                copies[copies.length()] = copy;
+            }
+        }
+    }
+    string names = "";
+    foreach var copy in copies {
+        names = names + <string>copy["NAME"] + ",";
+    }
+    int firstRowSize = -1;
+    map<anydata>? lastRow = firstRow;
+    if (lastRow is map<anydata>) {
+        firstRowSize = lastRow.length();
+    }
+    error? stopRet = testDB.stop();
+    return (rowReused, names, firstRowSize);
+}
+
+function testCursorPrefetch(string jdbcUrl, string userName, string password) returns (string, boolean, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    string names = "";
+    var cursorRet = testDB->openCursor("SELECT id, name from employeeItr order by id", options = { prefetchRows: 1 });
+    if (cursorRet is jdbc:ResultCursor) {
+        while (true) {
+            var hasRow = cursorRet.next();
+            if (hasRow is error || !hasRow) {
+                break;
+            }
+            var id = cursorRet.getInt("id");
+            var name = cursorRet.getString("name");
+            if (id is int && name is string) {
+                names = names + id + ":" + name + ",";
+            }
+        }
+    }
+    // Closing while the background thread waits for buffer space stops it and releases the connection.
+    boolean closedEarly = false;
+    var earlyCursorRet = testDB->openCursor("SELECT id, name from employeeItr order by id",
+        options = { prefetchRows: 1 });
+    if (earlyCursorRet is jdbc:ResultCursor) {
+        var hasRow = earlyCursorRet.next();
+        closedEarly = hasRow is boolean && hasRow && earlyCursorRet.close() is ();
+    }
+    int count = getTableCountValColumn(testDB->select("SELECT count(*) as countval from employeeItr", ResultCount));
+    error? stopRet = testDB.stop();
+    return (names, closedEarly, count);
+}
+
+function testProcessInParallel(string jdbcUrl, string userName, string password)
+                               returns (int, string, int, boolean) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    string[] names = [];
+    int orderedCount = -1;
+    var rows = testDB->select("SELECT id, name from employeeItr order by id", ());
+    if (rows is table<record {}>) {
+        var processRet = jdbc:processInParallel(rows,
+            function (record {} row) returns anydata|error {
+                return string.convert(row["NAME"]).toUpper();
+            },
+            function (anydata result) returns error? {
+                names[names.length()] = string.convert(result);
+                return ();
+            }, options = { parallelism: 2, batchSize: 1 });
+        if (processRet is int) {
+            orderedCount = processRet;
+        }
+    }
+    int unorderedSum = 0;
+    var unorderedRows = testDB->select("SELECT id from employeeItr", ());
+    if (unorderedRows is table<record {}>) {
+        var processRet = jdbc:processInParallel(unorderedRows,
+            function (record {} row) returns anydata|error {
+                return check int.convert(row["ID"]) * 10;
+            },
+            function (anydata result) returns error? {
+                unorderedSum += check int.convert(result);
+                return ();
+            }, options = { parallelism: 2, batchSize: 1, ordered: false });
+    }
+    boolean invalidOptionsRejected = false;
+    var invalidRows = testDB->select("SELECT id from employeeItr", ());
+    if (invalidRows is table<record {}>) {
+        var processRet = jdbc:processInParallel(invalidRows,
+            function (record {} row) returns anydata|error {
+                return row["ID"];
+            },
+            function (anydata result) returns error? {
+                return ();
+            }, options = { parallelism: 0 });
+        invalidOptionsRejected = processRet is error;
+    }
+    string joinedNames = "";
+    foreach var name in names {
+        joinedNames = joinedNames + name + ",";
+    }
+    error? stopRet = testDB.stop();
+    return (orderedCount, joinedNames, unorderedSum, invalidOptionsRejected);
+}
+
+function testLoadWithSpill(string jdbcUrl, string userName, string password) returns (int, boolean, string, boolean) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        tableMemory: { maxTableMemoryInBytes: 1, spillDirectory: "./target/spill" }
+    });
+    int rowCount = -1;
+    boolean spilled = false;
+    string names = "";
+    boolean outOfRangeRejected = false;
+    var loadRet = testDB->load("SELECT id, name from employeeItr order by id");
+    if (loadRet is jdbc:LoadedTable) {
+        rowCount = loadRet.getRowCount();
+        spilled = loadRet.isSpilled();
+        // Rows are read in reverse and then again in order, from the spill file.
+        foreach var index in [1, 0, 0, 1] {
+            var row = loadRet.getRow(index);
+            if (row is map<anydata>) {
+                names = names + string.convert(row["NAME"]) + ",";
+            }
+        }
+        outOfRangeRejected = loadRet.getRow(rowCount) is error;
+        error? closeRet = loadRet.close();
+    }
+    error? stopRet = testDB.stop();
+    return (rowCount, spilled, names, outOfRangeRejected);
+}
+
+function testSingleFlightLoad(string jdbcUrl, string userName, string password) returns (string, string, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        singleFlight: true
+    });
+    // The cursor holds the only connection, so that the first load stays in flight while the second one is made.
+    var cursorRet = testDB->openCursor("SELECT id from employeeItr");
+    future<string> firstLoad = start loadEmployeeNames(testDB);
+    future<string> secondLoad = start loadEmployeeNames(testDB);
+    runtime:sleep(500);
+    if (cursorRet is jdbc:ResultCursor) {
+        error? closeRet = cursorRet.close();
+    }
+    string firstNames = wait firstLoad;
+    string secondNames = wait secondLoad;
+    int collapsedCount = testDB.getCollapsedCallCount();
+    error? stopRet = testDB.stop();
+    return (firstNames, secondNames, collapsedCount);
+}
+
+function loadEmployeeNames(jdbc:Client testDB) returns string {
+    string names = "";
+    var loadRet = testDB->load("SELECT name from employeeItr where id <= ? order by id", 2);
+    if (loadRet is jdbc:LoadedTable) {
+        int index = 0;
+        while (index < loadRet.getRowCount()) {
+            var row = loadRet.getRow(index);
+            if (row is map<anydata>) {
+                names = names + string.convert(row["NAME"]) + ",";
+            }
+            index += 1;
+        }
+        error? closeRet = loadRet.close();
+    }
+    return names;
+}
+
+function testReferenceTable(string jdbcUrl, string userName, string password) returns (string, boolean, string, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    jdbc:ReferenceTable employees = testDB.createReferenceTable({
+        sqlQuery: "SELECT id, name FROM employeeItr",
+        keyColumns: ["ID"],
+        rangeColumn: "ID"
+    });
+    string foundName = "";
+    boolean missing = false;
+    string rangeNames = "";
+    error? startRet = employees.start();
+    if (startRet is ()) {
+        var found = employees.get(2);
+        if (found is map<anydata>) {
+            foundName = <string>found.NAME;
+        }
+        var notFound = employees.get(3);
+        missing = notFound is ();
+        var rangeRet = employees.getRange(1, 2);
+        if (rangeRet is map<anydata>[]) {
+            foreach var row in rangeRet {
+                rangeNames = rangeNames + <string>row.NAME + ",";
+            }
+        }
+    }
+    employees.stop();
+    int rowCount = employees.getRowCount();
+    error? stopRet = testDB.stop();
+    return (foundName, missing, rangeNames, rowCount);
+}
+
+type SelectedTimestamp record {|
+    int millis;
+    string text;
+    time:Time time;
+|};
+
+type MistypedTimestamp record {|
+    float value;
+|};
+
+function testSelectOneAndScalar(string jdbcUrl, string userName, string password)
+                                returns (string, boolean, int, boolean, boolean) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    string name = "";
+    var found = testDB->selectOne("SELECT id, name, address FROM employeeItr WHERE id = ?", Employee, 2);
+    if (found is Employee) {
+        name = found.name;
+    }
+    var notFound = testDB->selectOne("SELECT id, name FROM employeeItr WHERE id = ?", (), 3);
+    int count = -1;
+    var countRet = testDB->selectScalar("SELECT COUNT(*) FROM employeeItr WHERE address = ?", "Sri Lanka");
+    if (countRet is int) {
+        count = countRet;
+    }
+
+    // A timestamp column is read like the tables of select read it.
+    string timestampQuery = "SELECT timestamp_type, timestamp_type, timestamp_type FROM DateTimeTypes WHERE row_id = ?";
+    boolean sameAsSelect = false;
+    var selectedOne = testDB->selectOne(timestampQuery, SelectedTimestamp, 1);
+    var selected = testDB->select(timestampQuery, SelectedTimestamp, 1);
+    if (selectedOne is SelectedTimestamp && selected is table<SelectedTimestamp>) {
+        while (selected.hasNext()) {
+            var row = selected.getNext();
+            if (row is SelectedTimestamp) {
+                sameAsSelect = selectedOne.millis == row.millis && selectedOne.text == row.text
+                    && selectedOne.time.time == row.time.time && selectedOne.millis == selectedOne.time.time;
+            }
+        }
+    }
+    var mistyped = testDB->selectOne("SELECT timestamp_type FROM DateTimeTypes WHERE row_id = ?",
+        MistypedTimestamp, 1);
+    error? stopRet = testDB.stop();
+    return (name, notFound is (), count, sameAsSelect, mistyped is error);
+}
+
+function testBindingPlanSignatures(string jdbcUrl, string userName, string password) returns (int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    // The same query is bound with parameters of other array lengths and types, which need plans of their own.
+    string sqlQuery = "SELECT COUNT(*) FROM employeeItr WHERE id IN (?)";
+    sql:Parameter twoIds = { sqlType: sql:TYPE_INTEGER, value: [1, 2] };
+    sql:Parameter oneId = { sqlType: sql:TYPE_INTEGER, value: [1] };
+    int twoCount = getScalarIntResult(testDB->selectScalar(sqlQuery, twoIds));
+    int oneCount = getScalarIntResult(testDB->selectScalar(sqlQuery, oneId));
+    int scalarCount = getScalarIntResult(testDB->selectScalar(sqlQuery, 2));
+    error? stopRet = testDB.stop();
+    return (twoCount, oneCount, scalarCount);
+}
+
+function getScalarIntResult(anydata|error result) returns int {
+    if (result is int) {
+        return result;
+    }
+    return -1;
+}
+
+type EmployeeIdRange record {|
+    int minId;
+    int maxId;
+|};
+
+function testNamedParameters(string jdbcUrl, string userName, string password) returns (string, string, boolean) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 }
+    });
+    string sqlQuery = "SELECT name FROM employeeItr WHERE id >= :minId AND id <= :maxId AND name <> ':minId' "
+        + "ORDER BY id";
+    string mapNames = "";
+    var mapRet = testDB->selectNamed(sqlQuery, (), { minId: 1, maxId: 1 });
+    if (mapRet is table<record {}>) {
+        foreach var row in mapRet {
+            mapNames = mapNames + <string>row.NAME + ",";
+        }
+    }
+    EmployeeIdRange range = { minId: 1, maxId: 2 };
+    string recordNames = "";
+    var recordRet = testDB->selectNamed(sqlQuery, (), range);
+    if (recordRet is table<record {}>) {
+        foreach var row in recordRet {
+            recordNames = recordNames + <string>row.NAME + ",";
+        }
+    }
+    var missingRet = testDB->selectNamed(sqlQuery, (), { minId: 1 });
+    error? stopRet = testDB.stop();
+    return (mapNames, recordNames, missingRet is error);
+}
+
+function testConnectionValidation(string jdbcUrl, string userName, string password) returns (int, int, int, int) {
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: { maximumPoolSize: 1 },
+        validation: { skipValidationWindowInMillis: 60000, idleValidationIntervalInMillis: 0 }
+    });
+    int count = 0;
+    // The first call validates the connection and the second one reuses it within the skip window.
+    var firstRet = testDB->selectScalar("SELECT COUNT(*) FROM employeeItr");
+    var secondRet = testDB->selectScalar("SELECT COUNT(*) FROM employeeItr");
+    if (secondRet is int) {
+        count = secondRet;
+    }
+    jdbc:ValidationStats stats = testDB.getValidationStats();
+    error? stopRet = testDB.stop();
+    return (count, stats.validatedCount, stats.skippedCount, stats.evictedCount);
+}
+
+function testFatalErrorRenewsPool(string jdbcUrl, string userName, string password) returns (boolean, int, int, int) {
+    // Both clients share the pool of the record, which has a single connection.
+    sql:PoolOptions sharedPoolOptions = { maximumPoolSize: 1, connectionTimeout: 1000 };
+    jdbc:Client testDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: sharedPoolOptions,
+        // Treats the "object not found" error of HSQLDB as fatal, to stand in for a lost connection.
+        validation: { idleValidationIntervalInMillis: 0, fatalSqlStates: ["42501"] }
+    });
+    jdbc:Client otherDB = new({
+        url: jdbcUrl,
+        username: userName,
+        password: password,
+        poolOptions: sharedPoolOptions
+    });
+    var failedRet = testDB->selectScalar("SELECT COUNT(*) FROM MissingValidationTable");
+    // The pool is renewed in the background.
+    int waitedTime = 0;
+    while (testDB.getValidationStats().poolRenewalCount == 0 && waitedTime < 5000) {
+        runtime:sleep(50);
+        waitedTime += 50;
+    }
+    // The other client holds the only connection of the shared pool, so the call only gets a connection if the
+    // renewed pool is a pool of its own.
+    int count = 0;
+    var heldRet = otherDB->select("SELECT id from employeeItr", ());
+    var countRet = testDB->selectScalar("SELECT COUNT(*) FROM employeeItr");
+    if (countRet is int) {
+        count = countRet;
+    }
+    if (heldRet is table<record {}>) {
+        heldRet.close();
+    }
+    jdbc:ValidationStats stats = testDB.getValidationStats();
+    error? stopRet = testDB.stop();
+    error? otherStopRet = otherDB.stop();
+    return (failedRet is error, stats.evictedCount, stats.poolRenewalCount, count);
+}
+
 function testBatchUpdateWithFailure(string jdbcUrl, string userName, string password) returns (int[], int) {
     jdbc:Client testDB = new({
         url: jdbcUrl,
@@ -0,0 +1,161 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Options for binding array values of `sql:Parameter`s which are used in `IN (?)` lists.
+#
+# + nativeArrays - Indicates whether an array parameter which is the sole member of an `IN (?)` list is bound as a
+#                  single SQL array (`= ANY (?)`) on databases that support it (PostgreSQL). On other databases the
+#                  array is expanded into one parameter marker per element
+# + maxPaddedArrayLength - Arrays expanded in `IN (?)` lists are padded up to the next power of two by repeating their
+#                          last element, so that lists of similar length share the same SQL text and statement plan.
+#                          Arrays longer than this are expanded as they are. Set to 0 to disable padding. Arrays used
+#                          elsewhere, e.g. in `VALUES (?)` lists, are never padded
+public type ArrayBindingOptions record {|
+    boolean nativeArrays = true;
+    int maxPaddedArrayLength = 1024;
+|};
+
+# The parameter is bound as it is.
+const int BIND_AS_IS = 0;
+# The array value of the parameter is bound as a single SQL array and its `IN (?)` list is rewritten.
+const int BIND_AS_NATIVE_ARRAY = 1;
+# The array value of the parameter is expanded into an `IN` list, padded up to the next power of two.
+const int BIND_AS_PADDED_LIST = 2;
+
+# Binds the array values of the IN parameters of a query which are the sole member of an `IN (?)` list as native SQL
+# arrays or as padded lists. How each parameter is bound is planned once per query and parameter value types, and the
+# cached plan is reused by later calls.
+#
+# + sqlQuery - SQL query with positional parameter markers
+# + parameters - Parameters of the query
+# + options - Array binding options of the client
+# + nativeArraysSupported - Indicates whether the database supports comparisons against array parameters
+# + return - The query and parameters to be passed on to the SQL client
+function bindArrayParameters(string sqlQuery, sql:Param[] parameters, ArrayBindingOptions options,
+                             boolean nativeArraysSupported) returns (string, sql:Param[]) {
+    if (parameters.length() == 0) {
+        return (sqlQuery, parameters);
+    }
+    int[] plan = getArrayBindingPlan(sqlQuery, parameters, nativeArraysSupported && options.nativeArrays);
+    if (plan.length() == 0) {
+        return (sqlQuery, parameters);
+    }
+
+    int[] nativeArrayPlaceholders = [];
+    sql:Param[] boundParameters = [];
+    int index = 0;
+    foreach var param in parameters {
+        sql:Param boundParam = param;
+        if (param is sql:Parameter) {
+            if (plan[index] == BIND_AS_NATIVE_ARRAY) {
+                nativeArrayPlaceholders[nativeArrayPlaceholders.length()] = index;
+                sql:Parameter arrayParam = { sqlType: sql:TYPE_ARRAY, value: param.value };
+                boundParam = arrayParam;
+            } else if (plan[index] == BIND_AS_PADDED_LIST) {
+                int length = getArrayLength(param.value);
+                int paddedLength = nextPowerOfTwo(length);
+                if (paddedLength > length && paddedLength <= options.maxPaddedArrayLength) {
+                    sql:Parameter paddedParam = { sqlType: param.sqlType, value: padArray(param.value, paddedLength) };
+                    boundParam = paddedParam;
+                }
+            }
+        }
+        boundParameters[index] = boundParam;
+        index += 1;
+    }
+    if (nativeArrayPlaceholders.length() == 0) {
+        return (sqlQuery, boundParameters);
+    }
+    return (rewriteInListsAsArrays(sqlQuery, nativeArrayPlaceholders), boundParameters);
+}
+
+function getArrayLength(any value) returns int {
+    if (value is int[]) {
+        return value.length();
+    } else if (value is string[]) {
+        return value.length();
+    } else if (value is float[]) {
+        return value.length();
+    } else if (value is boolean[]) {
+        return value.length();
+    } else if (value is decimal[]) {
+        return value.length();
+    } else if (value is byte[][]) {
+        return value.length();
+    }
+    return 0;
+}
+
+function padArray(any value, int length) returns any {
+    if (value is int[]) {
+        int[] padded = value.clone();
+        int last = value[value.length() - 1];
+        while (padded.length() < length) {
+            padded[padded.length()] = last;
+        }
+        return padded;
+    } else if (value is string[]) {
+        string[] padded = value.clone();
+        string last = value[value.length() - 1];
+        while (padded.length() < length) {
+            padded[padded.length()] = last;
+        }
+        return padded;
+    } else if (value is float[]) {
+        float[] padded = value.clone();
+        float last = value[value.length() - 1];
+        while (padded.length() < length) {
+            padded[padded.length()] = last;
+        }
+        return padded;
+    } else if (value is boolean[]) {
+        boolean[] padded = value.clone();
+        boolean last = value[value.length() - 1];
+        while (padded.length() < length) {
+            padded[padded.length()] = last;
+        }
+        return padded;
+    } else if (value is decimal[]) {
+        decimal[] padded = value.clone();
+        decimal last = value[value.length() - 1];
+        while (padded.length() < length) {
+            padded[padded.length()] = last;
+        }
+        return padded;
+    } else if (value is byte[][]) {
+        byte[][] padded = value.clone();
+        byte[] last = value[value.length() - 1];
+        while (padded.length() < length) {
+            padded[padded.length()] = last;
+        }
+        return padded;
+    }
+    return value;
+}
+
+function nextPowerOfTwo(int value) returns int {
+    int result = 1;
+    while (result < value) {
+        result = result * 2;
+    }
+    return result;
+}
+
+function getArrayBindingPlan(string sqlQuery, sql:Param[] parameters, boolean nativeArrays) returns int[] = external;
+
+function rewriteInListsAsArrays(string sqlQuery, int[] placeholderIndexes) returns string = external;
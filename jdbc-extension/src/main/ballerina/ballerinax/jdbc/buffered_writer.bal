@@ -0,0 +1,278 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/runtime;
+import ballerina/sql;
+import ballerina/time;
+
+# The writer waits until there is space in the buffer.
+public const OVERFLOW_BLOCK = "BLOCK";
+# The row being written is dropped.
+public const OVERFLOW_DROP_NEWEST = "DROP_NEWEST";
+# The oldest buffered row is dropped to make space for the row being written.
+public const OVERFLOW_DROP_OLDEST = "DROP_OLDEST";
+
+# What a `BufferedWriter` does when a row is written while its buffer is full.
+public type OverflowPolicy OVERFLOW_BLOCK|OVERFLOW_DROP_NEWEST|OVERFLOW_DROP_OLDEST;
+
+# Configuration of a `BufferedWriter`.
+#
+# + bufferSize - Maximum number of rows held in the buffer
+# + flushSize - Number of buffered rows which triggers a flush. Also the maximum number of rows in a batch
+# + flushIntervalInMillis - Interval at which the buffered rows are flushed regardless of their count
+# + overflowPolicy - What to do when a row is written while the buffer is full
+public type BufferedWriterConfig record {|
+    int bufferSize = 10000;
+    int flushSize = 500;
+    int flushIntervalInMillis = 1000;
+    OverflowPolicy overflowPolicy = OVERFLOW_BLOCK;
+|};
+
+# Metrics of a `BufferedWriter`.
+#
+# + bufferDepth - Number of rows currently in the buffer
+# + writtenRowCount - Number of rows successfully written to the database
+# + droppedRowCount - Number of rows dropped due to the overflow policy
+# + failedRowCount - Number of rows which failed to be written to the database
+# + flushCount - Number of batches executed
+# + lastFlushLatencyInMillis - Time taken by the last batch
+# + maxFlushLatencyInMillis - Maximum time taken by a batch
+# + totalFlushLatencyInMillis - Total time taken by all the batches
+public type BufferedWriterMetrics record {|
+    int bufferDepth = 0;
+    int writtenRowCount = 0;
+    int droppedRowCount = 0;
+    int failedRowCount = 0;
+    int flushCount = 0;
+    int lastFlushLatencyInMillis = 0;
+    int maxFlushLatencyInMillis = 0;
+    int totalFlushLatencyInMillis = 0;
+|};
+
+# Buffers rows written with the same SQL statement and writes them to the database as batches in the background.
+# Rows are flushed when `flushSize` rows are buffered, every `flushIntervalInMillis` and when the writer is stopped.
+# Writes do not wait for the database, so failures are only reflected in the metrics of the writer.
+public type BufferedWriter object {
+    private Client dbClient;
+    private string sqlQuery;
+    private BufferedWriterConfig config;
+    private sql:Param?[][] ring = [];
+    private int head = 0;
+    private int count = 0;
+    private boolean active = true;
+    private boolean flushing = false;
+    private int flushProgress = 0;
+    private BufferedWriterMetrics metrics = {};
+    private future<()> flusher;
+
+    # Gets called when the buffered writer is created via `Client.createBufferedWriter()`.
+    public function __init(Client dbClient, string sqlQuery, BufferedWriterConfig config) {
+        self.dbClient = dbClient;
+        self.sqlQuery = sqlQuery;
+        self.config = config;
+        self.init();
+        self.flusher = start self.flushPeriodically();
+    }
+
+    # Adds a row to the buffer. If the buffer is full, the row is handled as per the overflow policy. A write which
+    # is blocked waits until a flush takes rows out of the buffer.
+    #
+    # + row - The parameters of the row
+    # + return - An `error` if the writer has been stopped
+    public function write(sql:Param?... row) returns error? {
+        boolean written = false;
+        while (!written) {
+            boolean active = true;
+            boolean flushRequired = false;
+            int flushProgress = 0;
+            lock {
+                active = self.active;
+                if (!active) {
+                    written = true;
+                } else if (self.count < self.config.bufferSize) {
+                    self.ring[(self.head + self.count) % self.config.bufferSize] = row;
+                    self.count += 1;
+                    written = true;
+                } else if (self.config.overflowPolicy == OVERFLOW_DROP_NEWEST) {
+                    self.metrics.droppedRowCount += 1;
+                    written = true;
+                } else if (self.config.overflowPolicy == OVERFLOW_DROP_OLDEST) {
+                    self.ring[self.head] = row;
+                    self.head = (self.head + 1) % self.config.bufferSize;
+                    self.metrics.droppedRowCount += 1;
+                    written = true;
+                }
+                if (self.count >= self.config.flushSize && !self.flushing) {
+                    self.flushing = true;
+                    flushRequired = true;
+                }
+                flushProgress = self.flushProgress;
+            }
+            if (!active) {
+                return error("{ballerina/sql}DatabaseError", message = "Buffered writer has been stopped");
+            }
+            if (flushRequired) {
+                _ = start self.flushBuffer();
+            }
+            if (!written) {
+                self.awaitFlushProgress(flushProgress);
+            }
+        }
+        return ();
+    }
+
+    # Returns the current metrics of the writer.
+    #
+    # + return - The metrics
+    public function getMetrics() returns BufferedWriterMetrics {
+        BufferedWriterMetrics metrics = {};
+        lock {
+            metrics = self.metrics.clone();
+            metrics.bufferDepth = self.count;
+        }
+        return metrics;
+    }
+
+    # Stops accepting rows and flushes the rows remaining in the buffer. A flush which is in progress is completed
+    # first, and a wait for the next periodic flush ends within `STOP_CHECK_INTERVAL_IN_MILLIS`.
+    public function stop() {
+        lock {
+            self.active = false;
+        }
+        _ = wait self.flusher;
+        boolean flushing = true;
+        while (flushing) {
+            int flushProgress = 0;
+            lock {
+                flushing = self.flushing;
+                if (!flushing) {
+                    self.flushing = true;
+                }
+                flushProgress = self.flushProgress;
+            }
+            if (flushing) {
+                self.awaitFlushProgress(flushProgress);
+            }
+        }
+        self.flushBuffer();
+    }
+
+    function flushPeriodically() {
+        boolean active = true;
+        while (active) {
+            self.sleepWhileActive(self.config.flushIntervalInMillis);
+            boolean flushRequired = false;
+            int flushProgress = 0;
+            lock {
+                active = self.active;
+                if (active && self.count > 0 && !self.flushing) {
+                    self.flushing = true;
+                    flushRequired = true;
+                }
+            }
+            if (flushRequired) {
+                self.flushBuffer();
+            }
+        }
+    }
+
+    # Sleeps for the given time in slices of `STOP_CHECK_INTERVAL_IN_MILLIS`, so that the sleep ends early once the
+    # writer is stopped.
+    function sleepWhileActive(int sleepTimeInMillis) {
+        int remainingTime = sleepTimeInMillis;
+        while (remainingTime > 0 && self.isActive()) {
+            int sliceTime = remainingTime < STOP_CHECK_INTERVAL_IN_MILLIS ? remainingTime
+                : STOP_CHECK_INTERVAL_IN_MILLIS;
+            runtime:sleep(sliceTime);
+            remainingTime -= sliceTime;
+        }
+    }
+
+    function isActive() returns boolean {
+        boolean active = false;
+        lock {
+            active = self.active;
+        }
+        return active;
+    }
+
+    # Writes the buffered rows to the database in batches of at most `flushSize` rows. Only one strand flushes at
+    # a time, and it has to set `flushing` before calling this. The flush progress is signalled each time rows are
+    # taken out of the buffer and when the flush completes.
+    function flushBuffer() {
+        boolean empty = false;
+        while (!empty) {
+            sql:Param?[][] rows = [];
+            int flushProgress = 0;
+            lock {
+                while (rows.length() < self.config.flushSize && self.count > 0) {
+                    rows[rows.length()] = self.ring[self.head];
+                    self.ring[self.head] = [];
+                    self.head = (self.head + 1) % self.config.bufferSize;
+                    self.count -= 1;
+                }
+                empty = self.count == 0;
+                self.flushProgress += 1;
+                flushProgress = self.flushProgress;
+            }
+            self.signalFlushProgress(flushProgress);
+            if (rows.length() > 0) {
+                int startTime = time:currentTime().time;
+                var updateCounts = self.dbClient->batchUpdate(self.sqlQuery, ...rows);
+                int latency = time:currentTime().time - startTime;
+                lock {
+                    if (updateCounts is int[]) {
+                        foreach var updateCount in updateCounts {
+                            if (updateCount == EXECUTE_FAILED) {
+                                self.metrics.failedRowCount += 1;
+                            } else {
+                                self.metrics.writtenRowCount += 1;
+                            }
+                        }
+                    } else {
+                        self.metrics.failedRowCount += rows.length();
+                    }
+                    self.metrics.flushCount += 1;
+                    self.metrics.lastFlushLatencyInMillis = latency;
+                    self.metrics.totalFlushLatencyInMillis += latency;
+                    if (latency > self.metrics.maxFlushLatencyInMillis) {
+                        self.metrics.maxFlushLatencyInMillis = latency;
+                    }
+                }
+            }
+        }
+        int flushProgress = 0;
+        lock {
+            self.flushing = false;
+            self.flushProgress += 1;
+            flushProgress = self.flushProgress;
+        }
+        self.signalFlushProgress(flushProgress);
+    }
+
+    function init() = external;
+
+    # Waits until the flush progress moves past the given version, i.e. until a flush takes rows out of the buffer
+    # or completes.
+    #
+    # + seenVersion - Version of the flush progress last seen by the caller
+    function awaitFlushProgress(int seenVersion) = external;
+
+    # Moves the flush progress to the given version and wakes up the strands waiting for it.
+    #
+    # + version - The new version
+    function signalFlushProgress(int version) = external;
+};
@@ -0,0 +1,142 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Options of a `ResultCursor`.
+#
+# + prefetchRows - Number of rows to fetch and decode ahead of the consumer on a background thread, so that waiting
+#                  for the next batch of rows from the database overlaps with processing the current rows. The
+#                  background thread pauses while this many rows are waiting to be read. If 0, rows are fetched as
+#                  they are read and their columns are only converted when accessed
+public type CursorOptions record {|
+    int prefetchRows = 0;
+|};
+
+# Iterates the rows of a query without converting them into records. A column is read from the result set and
+# converted only when it is accessed, so reading a few columns of a wide row costs no more than selecting only those
+# columns. Rows are fetched from the database in batches as they are read. The cursor holds a connection of the
+# client until it is closed or all of its rows are read.
+public type ResultCursor object {
+    private Client dbClient;
+    private ClientLease? lease;
+
+    function __init(Client dbClient, ClientLease lease) {
+        self.dbClient = dbClient;
+        self.lease = lease;
+    }
+
+    # Moves the cursor to its next row. The cursor is closed once there are no more rows.
+    #
+    # + return - `true` if the cursor is on a row, `false` if there are no more rows, else an `error` if the next row
+    #            could not be fetched, in which case the cursor is closed
+    public function next() returns boolean|error {
+        var hasRow = self.nextRow();
+        if (hasRow is error || !hasRow) {
+            self.release();
+        }
+        return hasRow;
+    }
+
+    # Returns the names of the columns of the rows.
+    #
+    # + return - The column names, in the order of the select list
+    public function getColumnNames() returns string[] = external;
+
+    # Reads an integer column of the current row.
+    #
+    # + column - Name of the column. The letter case is ignored if there is no column of the exact name
+    # + return - The value, `()` if it is NULL, else an `error` if the cursor is not on a row or the column could not
+    #            be read
+    public function getInt(string column) returns int|error? = external;
+
+    # Reads a float column of the current row.
+    #
+    # + column - Name of the column. The letter case is ignored if there is no column of the exact name
+    # + return - The value, `()` if it is NULL, else an `error` if the cursor is not on a row or the column could not
+    #            be read
+    public function getFloat(string column) returns float|error? = external;
+
+    # Reads a decimal column of the current row.
+    #
+    # + column - Name of the column. The letter case is ignored if there is no column of the exact name
+    # + return - The value, `()` if it is NULL, else an `error` if the cursor is not on a row or the column could not
+    #            be read
+    public function getDecimal(string column) returns decimal|error? = external;
+
+    # Reads a column of the current row as a string.
+    #
+    # + column - Name of the column. The letter case is ignored if there is no column of the exact name
+    # + return - The value, `()` if it is NULL, else an `error` if the cursor is not on a row or the column could not
+    #            be read
+    public function getString(string column) returns string|error? = external;
+
+    # Reads a boolean column of the current row.
+    #
+    # + column - Name of the column. The letter case is ignored if there is no column of the exact name
+    # + return - The value, `()` if it is NULL, else an `error` if the cursor is not on a row or the column could not
+    #            be read
+    public function getBoolean(string column) returns boolean|error? = external;
+
+    # Reads a binary column of the current row.
+    #
+    # + column - Name of the column. The letter case is ignored if there is no column of the exact name
+    # + return - The value, `()` if it is NULL, else an `error` if the cursor is not on a row or the column could not
+    #            be read
+    public function getBytes(string column) returns byte[]|error? = external;
+
+    # Reads all the columns of the current row into the single row map of the cursor, and returns that map. The same
+    # map is refilled and returned for every row, so iterating a large result this way allocates no map per row.
+    # The values of the map are only valid until the next call to `next()`, and the map is emptied once the cursor is
+    # closed. A row which must outlive the iteration has to be copied with `copyRow()` instead of being kept.
+    #
+    # + return - The reused row map, with a `()` value for NULL columns, else an `error` if the cursor is not on a row
+    #            or a column could not be read
+    public function readRow() returns map<anydata>|error = external;
+
+    # Reads all the columns of the current row into a new map, which is not affected by the later rows of the cursor.
+    #
+    # + return - A new row map, with a `()` value for NULL columns, else an `error` if the cursor is not on a row or a
+    #            column could not be read
+    public function copyRow() returns map<anydata>|error = external;
+
+    # Closes the cursor and releases its connection. Closing a cursor which is already closed has no effect.
+    #
+    # + return - An `error` if the cursor could not be closed
+    public function close() returns error? {
+        var result = self.closeCursor();
+        self.release();
+        return result;
+    }
+
+    function release() {
+        ClientLease? lease = ();
+        lock {
+            lease = self.lease;
+            self.lease = ();
+        }
+        if (lease is ClientLease) {
+            self.dbClient.releaseClient(lease);
+        }
+    }
+
+    function nextRow() returns boolean|error = external;
+
+    function closeCursor() returns error? = external;
+};
+
+function executeCursorQuery(sql:Client sqlClient, ResultCursor cursor, string sqlQuery, sql:Param[] parameters,
+                            int prefetchRows) returns error? = external;
@@ -14,7 +14,9 @@
 // specific language governing permissions and limitations
 // under the License.
 
+import ballerina/runtime;
 import ballerina/sql;
+import ballerina/time;
 
 # The Client endpoint configuration for SQL databases.
 #
@@ -23,12 +25,39 @@ import ballerina/sql;
 # + password - Password for the database connection
 # + poolOptions - Properties for the connection pool configuration. Refer `sql:PoolOptions` for more details
 # + dbOptions - A map of DB specific properties. These properties will have an effect only if the dataSourceClassName is provided in poolOptions
+# + arrayBindingOptions - Options for binding array parameters used in `IN (?)` lists. Refer `ArrayBindingOptions`
+#                         for more details
+# + writeCoalescing - Enables coalescing of concurrent single row `update` calls with identical SQL into
+#                     `batchUpdate` calls. Refer `WriteCoalescingOptions` for more details
+# + slowQueryExplain - Enables capturing the execution plans of slow `select` and `update` calls. Refer
+#                      `SlowQueryExplainOptions` for more details
+# + tenant - Makes this a client of a tenant, which switches the connections of a pool shared with other tenants to
+#            its schema. Refer `TenantOptions` for more details
+# + workloads - Separates the calls of different workload classes, by giving them connection pools of their own or by
+#               queueing them for the pool of the client by priority. Refer `WorkloadOptions` for more details
+# + hedging - Enables hedging `select` calls which exceed a latency percentile to replicas. Refer `HedgingOptions`
+#             for more details
+# + tableMemory - Heap memory limits of the tables loaded by `load`, beyond which rows are spilled to files. Refer
+#                 `TableMemoryOptions` for more details
+# + singleFlight - Collapses concurrent identical `load` calls, so that calls with the same SQL and parameters which
+#                  are made while one is in flight share its rows instead of taking another connection
+# + validation - Enables validating borrowed connections only when they were not used recently, and replacing the
+#                connection pool once a fatal error is seen. Refer `ValidationOptions` for more details
 public type ClientEndpointConfig record {|
     string url = "";
     string username = "";
     string password = "";
     sql:PoolOptions poolOptions?;
     map<any> dbOptions = {};
+    ArrayBindingOptions arrayBindingOptions = {};
+    WriteCoalescingOptions writeCoalescing?;
+    SlowQueryExplainOptions slowQueryExplain?;
+    TenantOptions tenant?;
+    WorkloadOptions workloads?;
+    HedgingOptions hedging?;
+    TableMemoryOptions tableMemory = {};
+    boolean singleFlight = false;
+    ValidationOptions validation?;
 |};
 
 # Represents a JDBC SQL client endpoint.
@@ -36,10 +65,50 @@ public type Client client object {
     *sql:AbstractSQLClient;
     private sql:Client sqlClient;
     private boolean clientActive = true;
+    private ArrayBindingOptions arrayBindingOptions;
+    private boolean nativeArraysSupported;
+    private WriteCoalescer? writeCoalescer = ();
+    private SlowQueryExplainer? slowQueryExplainer = ();
+    private int generation = 0;
+    private map<int> inFlightCalls = {};
+    private boolean reconfiguring = false;
+    private map<WorkloadClass> workloadClasses = {};
+    private map<sql:Client> workloadClients = {};
+    private PriorityGate? gate = ();
+    private HedgedReader? hedgedReader = ();
+    private TableMemoryBudget tableMemoryBudget;
+    private SingleFlightGroup? singleFlightGroup = ();
+    private ClientEndpointConfig config;
+    private int poolRenewalCount = 0;
 
     # Gets called when the JDBC client is instantiated.
     public function __init(ClientEndpointConfig c) {
         self.sqlClient = createClient(c, sql:getGlobalPoolConfigContainer().getGlobalPoolConfig());
+        self.config = c;
+        self.arrayBindingOptions = c.arrayBindingOptions;
+        self.nativeArraysSupported = c.url.hasPrefix("jdbc:postgresql:");
+        var writeCoalescing = c.writeCoalescing;
+        if (writeCoalescing is WriteCoalescingOptions) {
+            self.writeCoalescer = new WriteCoalescer(writeCoalescing);
+        }
+        var slowQueryExplain = c.slowQueryExplain;
+        if (slowQueryExplain is SlowQueryExplainOptions) {
+            self.slowQueryExplainer = new SlowQueryExplainer(c, slowQueryExplain);
+        }
+        var workloads = c.workloads;
+        if (workloads is WorkloadOptions) {
+            self.workloadClasses = workloads.classes;
+            self.workloadClients = createWorkloadClients(c, workloads.classes);
+            self.gate = new PriorityGate(workloads.maxConcurrentCalls);
+        }
+        var hedging = c.hedging;
+        if (hedging is HedgingOptions) {
+            self.hedgedReader = new HedgedReader(c, hedging);
+        }
+        self.tableMemoryBudget = new(c.tableMemory);
+        if (c.singleFlight) {
+            self.singleFlightGroup = new SingleFlightGroup();
+        }
     }
 
     # The call remote function implementation for JDBC Client to invoke stored procedures/functions.
@@ -51,13 +120,12 @@ public type Client client object {
     #            `error` will be returned if there is any error
     public remote function call(@sensitive string sqlQuery, typedesc[]? recordType, sql:Param... parameters)
                                returns @tainted table<record {}>[]|()|error {
-        if (!self.clientActive) {
-            return self.handleStoppedClientInvocation();
-        }
-        return self.sqlClient->call(sqlQuery, recordType, ...parameters);
+        return self.doCall(sqlQuery, recordType, parameters, DEFAULT_WORKLOAD_CLASS);
     }
 
-    # The select remote function implementation for JDBC Client to select data from tables.
+    # The select remote function implementation for JDBC Client to select data from tables. A table which is not
+    # loaded to memory holds its connection until it is closed or all of its rows are read, and is counted as a call in
+    # progress on the connection pool until then.
     #
     # + sqlQuery - SQL query to execute
     # + recordType - Type of the returned table
@@ -66,14 +134,50 @@ public type Client client object {
     # + return - A `table` returned by the sql query statement else `error` will be returned if there is any error
     public remote function select(@sensitive string sqlQuery, typedesc? recordType, boolean loadToMemory = false,
                                   sql:Param... parameters) returns @tainted table<record {}>|error {
-        if (!self.clientActive) {
-            return self.handleStoppedClientInvocation();
-        }
-        return self.sqlClient->select(sqlQuery, recordType, loadToMemory = loadToMemory, ...parameters);
+        return self.doSelect(sqlQuery, recordType, loadToMemory, parameters, DEFAULT_WORKLOAD_CLASS);
+    }
+
+    # Executes a query which returns at most one row, such as a lookup by key, and returns its first row. Only one
+    # row is requested from the database, the row is read without creating a table and the connection is released
+    # as soon as the row is read.
+    #
+    # + sqlQuery - SQL query to execute
+    # + recordType - Type of the returned row. Columns are mapped to the fields of the record in order, and date and
+    #                time columns are read into `int`, `string` or `time:Time` fields as by `select`. If not given,
+    #                the row is a map keyed by column label
+    # + parameters - The parameters to be passed to the query. Only IN parameters are supported
+    # + return - The first row, `()` if the query returned no rows, else an `error` if the query failed or the row
+    #            could not be converted to the record type
+    public remote function selectOne(@sensitive string sqlQuery, typedesc? recordType, sql:Param... parameters)
+                                     returns @tainted map<anydata>|error? {
+        return self.doSelectOne(sqlQuery, recordType, parameters);
     }
 
+    # Executes a query which returns a single value, such as a count, and returns the first column of its first row.
+    # Only one row is requested from the database and the connection is released as soon as the value is read.
+    #
+    # + sqlQuery - SQL query to execute
+    # + parameters - The parameters to be passed to the query. Only IN parameters are supported
+    # + return - The value, `()` if the query returned no rows or the value is NULL, else an `error` if the query
+    #            failed
+    public remote function selectScalar(@sensitive string sqlQuery, sql:Param... parameters)
+                                        returns @tainted anydata|error {
+        if (isInTransaction()) {
+            var row = check self.doSelectOne(sqlQuery, (), parameters);
+            if (row is map<anydata>) {
+                foreach var (column, value) in row {
+                    return value;
+                }
+            }
+            return ();
+        }
+        return self.doSelectSingleRow(sqlQuery, (), parameters, true);
+    }
 
     # The update remote function implementation for JDBC Client to update data and schema of the database.
+    # If write coalescing is enabled, concurrent INSERT, UPDATE and DELETE calls with identical SQL which are not
+    # part of a transaction and which do not request `keyColumns` are executed together as a batch. The
+    # `sql:UpdateResult` of such a call does not contain generated keys.
     #
     # + sqlQuery - SQL statement to execute
     # + keyColumns - Names of auto generated columns for which the auto generated key values are returned
@@ -82,10 +186,7 @@ public type Client client object {
     #             else  `error` will be returned if there is any error
     public remote function update(@sensitive string sqlQuery, string[]? keyColumns = (), sql:Param... parameters)
                                returns sql:UpdateResult|error {
-        if (!self.clientActive) {
-            return self.handleStoppedClientInvocation();
-        }
-        return self.sqlClient->update(sqlQuery, keyColumns = keyColumns, ...parameters);
+        return self.doUpdate(sqlQuery, keyColumns, parameters, DEFAULT_WORKLOAD_CLASS);
     }
 
     # The batchUpdate remote function implementation for JDBC Client to batch data insert.
@@ -102,15 +203,637 @@ public type Client client object {
     #            A value of -3 - Indicates that the command failed to execute successfully and occurs only if a driver
     #                            continues to process commands after a command fails
     public remote function batchUpdate(@sensitive string sqlQuery, sql:Param?[]... parameters) returns int[]|error {
+        return self.doBatchUpdate(sqlQuery, parameters, DEFAULT_WORKLOAD_CLASS);
+    }
+
+    # Selects data with a query which has named parameter markers (`:name`) instead of positional ones. Refer
+    # `select`. The query is parsed once and cached by its text, so that later calls with the same query do not
+    # parse it again.
+    #
+    # + sqlQuery - SQL query to execute, with named parameter markers
+    # + recordType - Type of the returned table
+    # + parameters - Values of the parameters by name, as a map or a record
+    # + loadToMemory - Indicates whether to load the retrieved data to memory or not
+    # + return - A `table` returned by the sql query statement else `error` will be returned if there is any error
+    public remote function selectNamed(@sensitive string sqlQuery, typedesc? recordType, map<any> parameters,
+                                       boolean loadToMemory = false) returns @tainted table<record {}>|error {
+        var (positionalQuery, boundParameters) = check bindNamedParameters(sqlQuery, parameters);
+        return self.doSelect(positionalQuery, recordType, loadToMemory, boundParameters, DEFAULT_WORKLOAD_CLASS);
+    }
+
+    # Updates data with a statement which has named parameter markers (`:name`) instead of positional ones. Refer
+    # `update`.
+    #
+    # + sqlQuery - SQL statement to execute, with named parameter markers
+    # + parameters - Values of the parameters by name, as a map or a record
+    # + keyColumns - Names of auto generated columns for which the auto generated key values are returned
+    # + return - `sql:UpdateResult` with the updated row count and key column values,
+    #             else  `error` will be returned if there is any error
+    public remote function updateNamed(@sensitive string sqlQuery, map<any> parameters, string[]? keyColumns = ())
+                                       returns sql:UpdateResult|error {
+        var (positionalQuery, boundParameters) = check bindNamedParameters(sqlQuery, parameters);
+        return self.doUpdate(positionalQuery, keyColumns, boundParameters, DEFAULT_WORKLOAD_CLASS);
+    }
+
+    # Invokes a stored procedure or function with named parameter markers (`:name`) instead of positional ones.
+    # Refer `call`. OUT and INOUT parameters are given as `sql:Parameter`s, whose values are set when the call
+    # returns.
+    #
+    # + sqlQuery - The SQL stored procedure to execute, with named parameter markers
+    # + recordType - Array of record types of the returned tables if there is any
+    # + parameters - Values of the parameters by name, as a map or a record
+    # + return - A `table[]` if there are tables returned by the call action and else nil,
+    #            `error` will be returned if there is any error
+    public remote function callNamed(@sensitive string sqlQuery, typedesc[]? recordType, map<any> parameters)
+                                     returns @tainted table<record {}>[]|()|error {
+        var (positionalQuery, boundParameters) = check bindNamedParameters(sqlQuery, parameters);
+        return self.doCall(positionalQuery, recordType, boundParameters, DEFAULT_WORKLOAD_CLASS);
+    }
+
+    # Executes a statement which has named parameter markers (`:name`) as a batch. Refer `batchUpdate`.
+    #
+    # + sqlQuery - SQL statement to execute, with named parameter markers
+    # + parameters - Values of the parameters by name, as a map or a record, for each individual update
+    # + return - An `int[]` with the result of each individual update, as returned by `batchUpdate`, else an `error`
+    #            if there is any error
+    public remote function batchUpdateNamed(@sensitive string sqlQuery, map<any>[] parameters)
+                                            returns int[]|error {
+        var (positionalQuery, boundParameters) = check bindNamedBatchParameters(sqlQuery, parameters);
+        return self.doBatchUpdate(positionalQuery, boundParameters, DEFAULT_WORKLOAD_CLASS);
+    }
+
+    # Streams the result of a query to a file. The rows are written as they are read from the database, without
+    # creating a record for each row, so that memory use stays flat regardless of the size of the result. Binary
+    # values are written as Base64 strings. The query runs on a connection of its own, outside of any transaction.
+    #
+    # + sqlQuery - SQL query to execute
+    # + path - Path of the file to write. An existing file is overwritten
+    # + format - Format of the file. Refer `ExportFormat`
+    # + parameters - The parameters to be passed to the query. Only IN parameters are supported
+    # + return - The number of rows exported, else an `error` if the query failed or the file could not be written
+    public remote function exportTo(@sensitive string sqlQuery, @sensitive string path, ExportFormat format,
+                                    sql:Param... parameters) returns int|error {
         if (!self.clientActive) {
             return self.handleStoppedClientInvocation();
         }
-        return self.sqlClient->batchUpdate(sqlQuery, ...parameters);
+        var (boundQuery, boundParameters) = bindArrayParameters(sqlQuery, parameters, self.arrayBindingOptions,
+            false);
+        ClientLease lease = check self.acquireClient(DEFAULT_WORKLOAD_CLASS);
+        var result = exportQuery(lease.sqlClient, boundQuery, boundParameters, path, format);
+        self.releaseClient(lease);
+        return result;
+    }
+
+    # Executes a query and loads its rows for random access. Unlike `select` with `loadToMemory`, the rows which do
+    # not fit the memory limits of the client are spilled to a temporary file. Refer `TableMemoryOptions`. The
+    # query runs on a connection of its own, outside of any transaction, which is released once the rows are loaded.
+    # If `singleFlight` is enabled, a call which is identical to a call in flight waits for that call and shares its
+    # rows. Each caller then closes its own `LoadedTable`.
+    #
+    # + sqlQuery - SQL query to execute
+    # + parameters - The parameters to be passed to the query. Only IN parameters are supported
+    # + return - A `LoadedTable` holding the rows, else an `error` if the query failed or the rows could not be spilled
+    public remote function load(@sensitive string sqlQuery, sql:Param... parameters)
+                                returns @tainted LoadedTable|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        var (boundQuery, boundParameters) = bindArrayParameters(sqlQuery, parameters, self.arrayBindingOptions,
+            false);
+        var singleFlightGroup = self.singleFlightGroup;
+        if (singleFlightGroup is ()) {
+            return self.doLoad(boundQuery, boundParameters);
+        }
+        string key = getSingleFlightKey(boundQuery, boundParameters);
+        LoadedTable sharedTable = new;
+        boolean leader = check singleFlightGroup.join(key, sharedTable);
+        if (!leader) {
+            return sharedTable;
+        }
+        var result = self.doLoad(boundQuery, boundParameters);
+        singleFlightGroup.complete(key, result);
+        return result;
+    }
+
+    # Executes a query and returns a cursor over its rows, whose columns are converted only when they are read. The
+    # query runs on a connection of its own, outside of any transaction, which is held until the cursor is closed or
+    # all of its rows are read.
+    #
+    # + sqlQuery - SQL query to execute
+    # + options - Read-ahead of the cursor. Refer `CursorOptions`
+    # + parameters - The parameters to be passed to the query. Only IN parameters are supported
+    # + return - A `ResultCursor` over the rows, else an `error` if the query failed
+    public remote function openCursor(@sensitive string sqlQuery, CursorOptions options = {},
+                                      sql:Param... parameters) returns @tainted ResultCursor|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        var (boundQuery, boundParameters) = bindArrayParameters(sqlQuery, parameters, self.arrayBindingOptions,
+            false);
+        ClientLease lease = check self.acquireClient(DEFAULT_WORKLOAD_CLASS);
+        ResultCursor cursor = new(self, lease);
+        var result = executeCursorQuery(lease.sqlClient, cursor, boundQuery, boundParameters,
+            options.prefetchRows);
+        if (result is error) {
+            self.releaseClient(lease);
+            return result;
+        }
+        return cursor;
+    }
+
+    # Loads the records of a CSV file into a table. The first record of the file must hold the names of its columns.
+    # Fields are converted to the types of their table columns, where an empty unquoted field is NULL and binary values
+    # are Base64 strings. A record which cannot be converted or inserted is quarantined rather than failing the
+    # import, and the other records of its batch are still inserted.
+    #
+    # + path - Path of the CSV file
+    # + tableName - Name of the table to insert the records into
+    # + columnMapping - Names of the table columns by the names of the file columns to import. If empty, all the
+    #                   columns of the file are imported into the table columns of the same names
+    # + options - Batch size, parallelism and quarantine file of the import. Refer `ImportOptions`
+    # + return - The number of imported and quarantined records, else an `error` if the file could not be read or
+    #            the table could not be accessed
+    public remote function importFrom(@sensitive string path, @sensitive string tableName,
+                                      @sensitive map<string> columnMapping, ImportOptions options = {})
+                                      returns ImportResult|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        string[] fileColumns = columnMapping.keys();
+        string[] tableColumns = [];
+        foreach var fileColumn in fileColumns {
+            tableColumns[tableColumns.length()] = columnMapping[fileColumn] ?: fileColumn;
+        }
+        ClientLease lease = check self.acquireClient(DEFAULT_WORKLOAD_CLASS);
+        var result = importCsv(lease.sqlClient, path, tableName, fileColumns, tableColumns, options.batchSize,
+            options.parallelism, options.quarantinePath ?: "");
+        self.releaseClient(lease);
+        if (result is error) {
+            return result;
+        } else {
+            return { importedRowCount: result[0], quarantinedRowCount: result[1] };
+        }
+    }
+
+    # Creates a writer which buffers rows of the given SQL statement and writes them as batches in the background.
+    # The writer must be stopped before the client is stopped, so that the buffered rows are flushed.
+    #
+    # + sqlQuery - SQL statement to execute for each row
+    # + config - Buffer size, flush triggers and overflow policy of the writer. Refer `BufferedWriterConfig`
+    # + return - The buffered writer
+    public function createBufferedWriter(@sensitive string sqlQuery, BufferedWriterConfig config = {})
+                                         returns BufferedWriter {
+        return new BufferedWriter(self, sqlQuery, config);
+    }
+
+    # Creates a source which polls for changed rows using a monotonic watermark column and publishes them to a
+    # stream. Polling starts when `startPolling()` is called on the source.
+    #
+    # + config - Query, watermark and poll interval configuration of the source. Refer `PollingConfig`
+    # + recordType - Type of the published rows
+    # + return - The polling source
+    public function createPollingSource(PollingConfig config, typedesc? recordType = ()) returns PollingSource {
+        return new PollingSource(self, config, recordType);
+    }
+
+    # Creates an in-memory copy of a reference table, indexed by its key columns and refreshed in the background.
+    # Rows are loaded when `start()` is called on the reference table.
+    #
+    # + config - Query, key columns and refresh configuration of the reference table. Refer `ReferenceTableConfig`
+    # + return - The reference table
+    public function createReferenceTable(ReferenceTableConfig config) returns ReferenceTable {
+        return new ReferenceTable(self, config);
+    }
+
+    # Returns the counts of the connection validation of the client. The counts of the connection pools the client
+    # has switched away from are included up to the switch.
+    #
+    # + return - The validation counts. Refer `ValidationStats`
+    public function getValidationStats() returns ValidationStats {
+        int[] counts = getValidationCounts(self.sqlClient);
+        return {
+            validatedCount: counts[0],
+            skippedCount: counts[1],
+            evictedCount: counts[2],
+            poolRenewalCount: self.poolRenewalCount
+        };
+    }
+
+    # Returns a client which makes its calls as calls of the given workload class, with the connection pool and
+    # priority of the class.
+    #
+    # + workloadClass - Name of a workload class configured in `workloads`
+    # + return - The workload client, else an `error` if the workload class is not configured
+    public function getWorkloadClient(string workloadClass) returns WorkloadClient|error {
+        if (workloadClass != DEFAULT_WORKLOAD_CLASS && !self.workloadClasses.hasKey(workloadClass)) {
+            return error("{ballerina/sql}DatabaseError", message = "Workload class " + workloadClass
+                + " is not configured");
+        }
+        return new WorkloadClient(self, workloadClass);
+    }
+
+    # Returns the metrics of the hedged `select` calls, if `hedging` is enabled.
+    #
+    # + return - The metrics
+    public function getHedgingMetrics() returns HedgingMetrics {
+        var hedgedReader = self.hedgedReader;
+        if (hedgedReader is HedgedReader) {
+            return hedgedReader.getMetrics();
+        }
+        return {};
+    }
+
+    # Returns the number of `load` calls which shared the rows of an identical call in flight, if `singleFlight` is
+    # enabled.
+    #
+    # + return - The number of collapsed calls
+    public function getCollapsedCallCount() returns int {
+        var singleFlightGroup = self.singleFlightGroup;
+        if (singleFlightGroup is SingleFlightGroup) {
+            return singleFlightGroup.getCollapsedCallCount();
+        }
+        return 0;
+    }
+
+    # Returns the statistics of the batches executed for coalesced `update` calls, if `writeCoalescing` is enabled.
+    #
+    # + return - The statistics of the executed batches
+    public function getWriteCoalescingStats() returns WriteCoalescingStats {
+        var writeCoalescer = self.writeCoalescer;
+        if (writeCoalescer is WriteCoalescer) {
+            int[] stats = writeCoalescer.getStats();
+            return { batchCount: stats[0], updateCount: stats[1], largestBatchSize: stats[2] };
+        }
+        return {};
+    }
+
+    # Returns the execution plans captured for slow `select` and `update` calls, if `slowQueryExplain` is enabled.
+    #
+    # + return - The captured plans, from the oldest to the newest
+    public function getSlowQueryPlans() returns SlowQueryPlan[] {
+        var slowQueryExplainer = self.slowQueryExplainer;
+        if (slowQueryExplainer is SlowQueryExplainer) {
+            return slowQueryExplainer.getPlans();
+        }
+        return [];
+    }
+
+    # Switches the client over to a new connection pool created with the given configuration, e.g. to rotate the
+    # credentials or the URL of the database, without stopping the client. The new pool is created and warmed up
+    # while calls continue on the current pool. Calls made after the switch use the new pool, and the previous pool
+    # is closed in the background once the calls in progress on it have completed. The connection pools of the
+    # workload classes and the replicas of hedged reads are switched over in the same way, with the new credentials.
+    # The write coalescing, workload and hedging options of the client are not changed.
+    #
+    # + c - The new configuration of the client
+    # + options - Warm up and drain options. Refer `ReconfigurationOptions`
+    # + return - An `error` if the new connection pool could not be created or warmed up, in which case the client
+    #            continues to use the current pool
+    public function reconfigure(ClientEndpointConfig c, ReconfigurationOptions options = {}) returns error? {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        boolean alreadyReconfiguring = false;
+        lock {
+            alreadyReconfiguring = self.reconfiguring;
+            self.reconfiguring = true;
+        }
+        if (alreadyReconfiguring) {
+            return error("{ballerina/sql}DatabaseError", message = "Client is already being reconfigured");
+        }
+        var result = self.switchClient(c, self.workloadClasses, options);
+        lock {
+            self.reconfiguring = false;
+        }
+        return result;
     }
 
     public function stop() returns error? {
-        self.clientActive = false;
-        return sql:close(self.sqlClient);
+        sql:Client sqlClient = self.sqlClient;
+        map<sql:Client> workloadClients = {};
+        lock {
+            self.clientActive = false;
+            sqlClient = self.sqlClient;
+            workloadClients = self.workloadClients;
+        }
+        var slowQueryExplainer = self.slowQueryExplainer;
+        if (slowQueryExplainer is SlowQueryExplainer) {
+            slowQueryExplainer.stop();
+        }
+        var hedgedReader = self.hedgedReader;
+        if (hedgedReader is HedgedReader) {
+            hedgedReader.stop();
+        }
+        foreach var name in workloadClients.keys() {
+            var workloadClient = workloadClients[name];
+            if (workloadClient is sql:Client) {
+                _ = sql:close(workloadClient);
+            }
+        }
+        return sql:close(sqlClient);
+    }
+
+    function doLoad(@sensitive string sqlQuery, sql:Param[] parameters) returns LoadedTable|error {
+        ClientLease lease = check self.acquireClient(DEFAULT_WORKLOAD_CLASS);
+        LoadedTable loadedTable = new;
+        var result = loadQuery(lease.sqlClient, self.tableMemoryBudget, loadedTable, sqlQuery, parameters);
+        self.releaseClient(lease);
+        if (result is error) {
+            return result;
+        }
+        return loadedTable;
+    }
+
+    # Reads the first row of a query. Within a transaction, the query is executed with `select` on the connection of
+    # the transaction instead.
+    function doSelectOne(@sensitive string sqlQuery, typedesc? recordType, sql:Param[] parameters)
+                         returns @tainted map<anydata>|error? {
+        if (!isInTransaction()) {
+            var result = check self.doSelectSingleRow(sqlQuery, recordType, parameters, false);
+            if (result is map<anydata>|()) {
+                return result;
+            }
+            return ();
+        }
+        var rows = check self.doSelect(sqlQuery, recordType, false, parameters, DEFAULT_WORKLOAD_CLASS);
+        map<anydata>? row = ();
+        if (rows.hasNext()) {
+            var next = rows.getNext();
+            if (next is record {}) {
+                row = next;
+            }
+        }
+        rows.close();
+        return row;
+    }
+
+    function doSelectSingleRow(@sensitive string sqlQuery, typedesc? recordType, sql:Param[] parameters,
+                               boolean scalar) returns @tainted anydata|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        var (boundQuery, boundParameters) = bindArrayParameters(sqlQuery, parameters, self.arrayBindingOptions,
+            false);
+        ClientLease lease = check self.acquireClient(DEFAULT_WORKLOAD_CLASS);
+        int startTime = time:currentTime().time;
+        anydata|error result;
+        if (scalar) {
+            result = selectFirstValue(lease.sqlClient, boundQuery, boundParameters);
+        } else {
+            result = selectFirstRow(lease.sqlClient, boundQuery, recordType, boundParameters);
+        }
+        self.releaseClient(lease);
+        self.onQueryCompleted(boundQuery, boundParameters, startTime);
+        return result;
+    }
+
+    function doCall(@sensitive string sqlQuery, typedesc[]? recordType, sql:Param[] parameters, string workloadClass)
+                    returns @tainted table<record {}>[]|()|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        ClientLease lease = check self.acquireClient(workloadClass);
+        var result = lease.sqlClient->call(sqlQuery, recordType, ...parameters);
+        self.releaseClient(lease);
+        return result;
+    }
+
+    function doSelect(@sensitive string sqlQuery, typedesc? recordType, boolean loadToMemory, sql:Param[] parameters,
+                      string workloadClass) returns @tainted table<record {}>|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        var (boundQuery, boundParameters) = bindArrayParameters(sqlQuery, parameters, self.arrayBindingOptions,
+            self.nativeArraysSupported);
+        ClientLease lease = check self.acquireClient(workloadClass);
+        int startTime = time:currentTime().time;
+        table<record {}>|error result;
+        boolean inTransaction = isInTransaction();
+        // A table which is not loaded to memory holds its connection until it is closed or fully read, so the call
+        // keeps its lease until then rather than letting the pool be closed under the table.
+        ConnectionWatch? watch = ();
+        if (!loadToMemory && !inTransaction) {
+            watch = new ConnectionWatch();
+        }
+        var hedgedReader = self.hedgedReader;
+        if (hedgedReader is HedgedReader && !inTransaction) {
+            result = hedgedReader.select(lease.sqlClient, boundQuery, recordType, loadToMemory, boundParameters,
+                watch);
+        } else {
+            result = selectWatched(lease.sqlClient, boundQuery, recordType, loadToMemory, boundParameters, watch);
+        }
+        if (watch is ConnectionWatch) {
+            _ = start self.releaseOnReturn(lease, watch);
+        } else {
+            self.releaseClient(lease);
+        }
+        self.onQueryCompleted(boundQuery, boundParameters, startTime);
+        return result;
+    }
+
+    # Releases the lease of a call once the connection it borrowed for a table is returned to its pool.
+    function releaseOnReturn(ClientLease lease, ConnectionWatch watch) {
+        watch.awaitReturn();
+        self.releaseClient(lease);
+    }
+
+    function doUpdate(@sensitive string sqlQuery, string[]? keyColumns, sql:Param[] parameters, string workloadClass)
+                      returns sql:UpdateResult|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        var (boundQuery, boundParameters) = bindArrayParameters(sqlQuery, parameters, self.arrayBindingOptions,
+            self.nativeArraysSupported);
+        int startTime = time:currentTime().time;
+        sql:UpdateResult|error result;
+        var writeCoalescer = self.writeCoalescer;
+        if (writeCoalescer is WriteCoalescer && keyColumns is () && writeCoalescer.accepts(boundQuery,
+                boundParameters)) {
+            // A coalesced update only takes a lease while its batch is executed, rather than while it waits for
+            // other updates to join the batch.
+            result = writeCoalescer.update(self, workloadClass, boundQuery, boundParameters);
+        } else {
+            ClientLease lease = check self.acquireClient(workloadClass);
+            startTime = time:currentTime().time;
+            result = lease.sqlClient->update(boundQuery, keyColumns = keyColumns, ...boundParameters);
+            self.releaseClient(lease);
+        }
+        self.onQueryCompleted(boundQuery, boundParameters, startTime);
+        return result;
+    }
+
+    function doBatchUpdate(@sensitive string sqlQuery, sql:Param?[][] parameters, string workloadClass)
+                           returns int[]|error {
+        if (!self.clientActive) {
+            return self.handleStoppedClientInvocation();
+        }
+        ClientLease lease = check self.acquireClient(workloadClass);
+        var result = lease.sqlClient->batchUpdate(sqlQuery, ...parameters);
+        self.releaseClient(lease);
+        return result;
+    }
+
+    function switchClient(ClientEndpointConfig c, map<WorkloadClass> workloadClasses, ReconfigurationOptions options)
+                          returns error? {
+        var newClient = trap createClient(c, sql:getGlobalPoolConfigContainer().getGlobalPoolConfig());
+        if (newClient is error) {
+            return newClient;
+        } else {
+            var warmUpResult = warmUp(newClient, options.warmUpConnectionCount);
+            if (warmUpResult is error) {
+                _ = sql:close(newClient);
+                return warmUpResult;
+            }
+            var newWorkloadClients = trap createWorkloadClients(c, workloadClasses);
+            if (newWorkloadClients is error) {
+                _ = sql:close(newClient);
+                return newWorkloadClients;
+            }
+            sql:Client[] oldClients = [];
+            int oldGeneration = 0;
+            boolean active = true;
+            lock {
+                active = self.clientActive;
+                if (active) {
+                    oldClients[0] = self.sqlClient;
+                    foreach var name in self.workloadClients.keys() {
+                        oldClients[oldClients.length()] = self.workloadClients[name] ?: self.sqlClient;
+                    }
+                    oldGeneration = self.generation;
+                    if (c.validation is ValidationOptions) {
+                        inheritValidationCounts(newClient, self.sqlClient);
+                    }
+                    self.sqlClient = newClient;
+                    self.workloadClients = newWorkloadClients;
+                    self.workloadClasses = workloadClasses;
+                    self.generation += 1;
+                    self.config = c;
+                    self.arrayBindingOptions = c.arrayBindingOptions;
+                    self.nativeArraysSupported = c.url.hasPrefix("jdbc:postgresql:");
+                }
+            }
+            if (!active) {
+                _ = sql:close(newClient);
+                foreach var name in newWorkloadClients.keys() {
+                    _ = sql:close(newWorkloadClients[name] ?: newClient);
+                }
+                return self.handleStoppedClientInvocation();
+            }
+            _ = start self.drainAndClose(oldClients, oldGeneration, options.drainTimeoutInMillis);
+            var slowQueryExplainer = self.slowQueryExplainer;
+            if (slowQueryExplainer is SlowQueryExplainer) {
+                slowQueryExplainer.reconfigure(c);
+            }
+            var hedgedReader = self.hedgedReader;
+            if (hedgedReader is HedgedReader) {
+                hedgedReader.reconfigure(c, options.drainTimeoutInMillis);
+            }
+        }
+        return ();
+    }
+
+    # Closes the connection pools the client has switched away from, once the calls in progress on them have completed
+    # or the drain timeout has elapsed.
+    function drainAndClose(sql:Client[] sqlClients, int generation, int drainTimeoutInMillis) {
+        string key = string.convert(generation);
+        int waitedTime = 0;
+        boolean drained = false;
+        while (!drained && waitedTime < drainTimeoutInMillis) {
+            lock {
+                drained = (self.inFlightCalls[key] ?: 0) == 0;
+            }
+            if (!drained) {
+                runtime:sleep(DRAIN_CHECK_INTERVAL_IN_MILLIS);
+                waitedTime += DRAIN_CHECK_INTERVAL_IN_MILLIS;
+            }
+        }
+        lock {
+            _ = self.inFlightCalls.remove(key);
+        }
+        foreach var sqlClient in sqlClients {
+            _ = sql:close(sqlClient);
+        }
+    }
+
+    function onQueryCompleted(string sqlQuery, sql:Param[] parameters, int startTime) {
+        var slowQueryExplainer = self.slowQueryExplainer;
+        if (slowQueryExplainer is SlowQueryExplainer) {
+            slowQueryExplainer.onQueryCompleted(sqlQuery, parameters, time:currentTime().time - startTime);
+        }
+    }
+
+    # Returns the current SQL client of a workload class and counts the caller as a call in progress on it, until
+    # `releaseClient()`. Calls of classes without a connection pool of their own first wait to be admitted to the
+    # pool of the client by the priority of their class.
+    function acquireClient(string workloadClass) returns ClientLease|error {
+        WorkloadClass workload = {};
+        var configuredWorkload = self.workloadClasses[workloadClass];
+        if (configuredWorkload is WorkloadClass) {
+            workload = configuredWorkload;
+        }
+        boolean gated = false;
+        var gate = self.gate;
+        if (gate is PriorityGate && !(workload.poolOptions is sql:PoolOptions)) {
+            if (!gate.acquire(workload.priority, workload.queueTimeoutInMillis)) {
+                return error("{ballerina/sql}DatabaseError", message = "Timed out waiting for a connection for "
+                    + "workload class " + workloadClass);
+            }
+            gated = true;
+        }
+        ClientLease lease = { sqlClient: self.sqlClient, generation: 0, gated: gated };
+        lock {
+            lease.sqlClient = self.workloadClients[workloadClass] ?: self.sqlClient;
+            lease.generation = self.generation;
+            string key = string.convert(lease.generation);
+            self.inFlightCalls[key] = (self.inFlightCalls[key] ?: 0) + 1;
+        }
+        return lease;
+    }
+
+    function releaseClient(ClientLease lease) {
+        lock {
+            string key = string.convert(lease.generation);
+            int? inFlightCount = self.inFlightCalls[key];
+            if (inFlightCount is int) {
+                self.inFlightCalls[key] = inFlightCount - 1;
+            }
+        }
+        var gate = self.gate;
+        if (lease.gated && gate is PriorityGate) {
+            gate.release();
+        }
+        if (self.config.validation is ValidationOptions && takeFatalError(lease.sqlClient)) {
+            self.renewPool(lease.generation);
+        }
+    }
+
+    # Switches the client over to a new connection pool in the background after a fatal error was seen on the pool
+    # of the given generation, unless the client has already switched away from it or is being reconfigured.
+    function renewPool(int generation) {
+        boolean renew = false;
+        lock {
+            renew = self.clientActive && !self.reconfiguring && generation == self.generation;
+            if (renew) {
+                self.reconfiguring = true;
+            }
+        }
+        if (renew) {
+            _ = start self.doRenewPool();
+        }
+    }
+
+    # Switches the client over to new connection pools. Clients which are created with the same URL, credentials and
+    # `sql:PoolOptions` record, or without pool options, share a connection pool, so the new pools are created with
+    # copies of the pool options. Otherwise the new clients would be attached to the pools they are meant to replace.
+    function doRenewPool() {
+        var result = self.switchClient(withNewPoolOptions(self.config), self.workloadClasses.clone(),
+            { warmUpConnectionCount: 0 });
+        lock {
+            if (result is ()) {
+                self.poolRenewalCount += 1;
+            }
+            self.reconfiguring = false;
+        }
     }
 
     function handleStoppedClientInvocation() returns error {
@@ -119,3 +842,95 @@ public type Client client object {
 };
 
 function createClient(ClientEndpointConfig config, sql:PoolOptions globalPoolOptions) returns sql:Client = external;
+
+# Executes a `select` call, watching the connection it borrows with the given watch if there is one.
+#
+# + sqlClient - SQL client to execute the call with
+# + sqlQuery - SQL query to execute
+# + recordType - Type of the returned table
+# + loadToMemory - Indicates whether to load the retrieved data to memory or not
+# + parameters - The parameters to be passed to the select query
+# + watch - Watch of the connection borrowed for the table, if it is not loaded to memory
+# + return - A `table` returned by the sql query statement else `error` will be returned if there is any error
+function selectWatched(sql:Client sqlClient, string sqlQuery, typedesc? recordType, boolean loadToMemory,
+                       sql:Param[] parameters, ConnectionWatch? watch) returns table<record {}>|error {
+    if (watch is ConnectionWatch) {
+        watch.arm();
+    }
+    var result = sqlClient->select(sqlQuery, recordType, loadToMemory = loadToMemory, ...parameters);
+    if (watch is ConnectionWatch) {
+        _ = watch.disarm();
+    }
+    return result;
+}
+
+function selectFirstRow(sql:Client sqlClient, string sqlQuery, typedesc? recordType, sql:Param[] parameters)
+                        returns map<anydata>|error? = external;
+
+function selectFirstValue(sql:Client sqlClient, string sqlQuery, sql:Param[] parameters) returns anydata|error
+    = external;
+
+# Creates an SQL client for the database of a client configuration, with a connection pool of the given options.
+#
+# + config - Configuration of the client
+# + poolOptions - Properties of the connection pool
+# + return - The SQL client
+# Returns a copy of a client configuration with a copy of its pool options, or of the global pool options if it has
+# none, so that a client created with it gets a connection pool of its own.
+function withNewPoolOptions(ClientEndpointConfig config) returns ClientEndpointConfig {
+    sql:PoolOptions poolOptions = config.poolOptions ?: sql:getGlobalPoolConfigContainer().getGlobalPoolConfig();
+    ClientEndpointConfig copy = {
+        url: config.url,
+        username: config.username,
+        password: config.password,
+        poolOptions: poolOptions.clone(),
+        dbOptions: config.dbOptions,
+        arrayBindingOptions: config.arrayBindingOptions,
+        tableMemory: config.tableMemory,
+        singleFlight: config.singleFlight
+    };
+    var writeCoalescing = config.writeCoalescing;
+    if (writeCoalescing is WriteCoalescingOptions) {
+        copy.writeCoalescing = writeCoalescing;
+    }
+    var slowQueryExplain = config.slowQueryExplain;
+    if (slowQueryExplain is SlowQueryExplainOptions) {
+        copy.slowQueryExplain = slowQueryExplain;
+    }
+    var tenant = config.tenant;
+    if (tenant is TenantOptions) {
+        copy.tenant = tenant;
+    }
+    var workloads = config.workloads;
+    if (workloads is WorkloadOptions) {
+        copy.workloads = workloads;
+    }
+    var hedging = config.hedging;
+    if (hedging is HedgingOptions) {
+        copy.hedging = hedging;
+    }
+    var validation = config.validation;
+    if (validation is ValidationOptions) {
+        copy.validation = validation;
+    }
+    return copy;
+}
+
+function createClientWithPool(ClientEndpointConfig config, sql:PoolOptions poolOptions) returns sql:Client {
+    ClientEndpointConfig poolConfig = {
+        url: config.url,
+        username: config.username,
+        password: config.password,
+        poolOptions: poolOptions,
+        dbOptions: config.dbOptions
+    };
+    var tenant = config.tenant;
+    if (tenant is TenantOptions) {
+        poolConfig.tenant = tenant;
+    }
+    var validation = config.validation;
+    if (validation is ValidationOptions) {
+        poolConfig.validation = validation;
+    }
+    return createClient(poolConfig, sql:getGlobalPoolConfigContainer().getGlobalPoolConfig());
+}
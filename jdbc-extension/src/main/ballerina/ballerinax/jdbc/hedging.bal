@@ -0,0 +1,322 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/runtime;
+import ballerina/sql;
+import ballerina/time;
+
+# Read which was sent to the pool of the client.
+const int PRIMARY_READ = 0;
+# Read which was sent to a replica after the hedge delay.
+const int HEDGED_READ = 1;
+# Marks that the hedge delay elapsed before the primary read completed.
+const int HEDGE_DELAY_ELAPSED = 2;
+
+# Options for hedging `select` calls, i.e. for sending a read which has not completed within a delay derived from the
+# latencies of recent reads to a replica as well, and using whichever result arrives first.
+#
+# + replicaUrls - URLs of the replicas which hedged reads are sent to, in turn. The replicas are connected to with the
+#                 credentials and DB options of the client
+# + delayPercentile - Percentile of the latencies of recent reads after which a read is hedged
+# + minDelayInMillis - Lower bound of the hedge delay
+# + maxDelayInMillis - Upper bound of the hedge delay. Also the hedge delay until enough reads have completed to
+#                      derive it from their latencies
+# + maxHedgeRatio - Maximum share of reads which are hedged, so that a slow database is not flooded with duplicate
+#                   reads. Each completed read adds this share of a hedge to the budget, which starts with a single
+#                   hedge
+# + replicaPoolOptions - Properties of the connection pools of the replicas. If not given, the pool options of the
+#                        client are used
+public type HedgingOptions record {|
+    string[] replicaUrls;
+    float delayPercentile = 95.0;
+    int minDelayInMillis = 5;
+    int maxDelayInMillis = 1000;
+    float maxHedgeRatio = 0.05;
+    sql:PoolOptions replicaPoolOptions?;
+|};
+
+# Metrics of the hedged reads of a client.
+#
+# + readCount - Number of `select` calls which could be hedged
+# + hedgesIssued - Number of reads sent to a replica
+# + hedgesWon - Number of hedged reads which completed before the read they hedged
+# + hedgesDenied - Number of reads which exceeded the hedge delay but were not hedged as the hedge budget was used up
+public type HedgingMetrics record {|
+    int readCount = 0;
+    int hedgesIssued = 0;
+    int hedgesWon = 0;
+    int hedgesDenied = 0;
+|};
+
+# Result of one of the reads of a hedged `select`.
+#
+# + kind - `PRIMARY_READ`, `HEDGED_READ` or `HEDGE_DELAY_ELAPSED`
+# + result - Result of the read, or nil if the hedge delay elapsed
+type ReadAttempt record {|
+    int kind;
+    table<record {}>|error? result = ();
+|};
+
+# Sends `select` calls which exceed the hedge delay to a replica as well, and returns the first result. The result
+# which arrives later is closed as soon as it arrives, which returns its connection to the pool. The reads on the
+# replicas are counted by the generation of the replica clients, so that replica clients which are replaced are only
+# closed once the reads on them, including streamed tables returned to callers, have completed.
+type HedgedReader object {
+    private HedgingOptions options;
+    private HedgingPolicy policy;
+    private sql:Client[] replicas = [];
+    private int nextReplica = 0;
+    private int generation = 0;
+    private map<int> inFlightReads = {};
+    private HedgingMetrics metrics = {};
+
+    function __init(ClientEndpointConfig config, HedgingOptions options) {
+        self.options = options;
+        self.policy = new(options);
+        self.replicas = createReplicaClients(config, options);
+    }
+
+    # Executes a `select` call, hedged to a replica if it exceeds the hedge delay and the hedge budget permits.
+    #
+    # + sqlClient - SQL client of the pool of the client
+    # + sqlQuery - SQL query to execute
+    # + recordType - Type of the returned table
+    # + loadToMemory - Indicates whether to load the retrieved data to memory or not
+    # + parameters - The parameters to be passed to the select query
+    # + watch - Watch of the connection the read sent to the pool of the client borrows, if the table is not loaded
+    #           to memory
+    # + return - The result of the read which completed first
+    function select(sql:Client sqlClient, string sqlQuery, typedesc? recordType, boolean loadToMemory,
+                    sql:Param[] parameters, ConnectionWatch? watch) returns table<record {}>|error {
+        int startTime = time:currentTime().time;
+        future<ReadAttempt> primaryRead = start readFrom(sqlClient, PRIMARY_READ, sqlQuery, recordType,
+            loadToMemory, parameters, watch);
+        future<ReadAttempt> hedgeDelay = start awaitHedgeDelay(self.policy, self.policy.getHedgeDelay());
+        ReadAttempt first = wait primaryRead | hedgeDelay;
+        if (first.kind == HEDGE_DELAY_ELAPSED) {
+            ClientLease? replicaLease = self.takeReplica();
+            if (replicaLease is ClientLease) {
+                ConnectionWatch? replicaWatch = ();
+                if (watch is ConnectionWatch) {
+                    replicaWatch = new ConnectionWatch();
+                }
+                future<ReadAttempt> hedgedRead = start self.readFromReplica(replicaLease, sqlQuery, recordType,
+                    loadToMemory, parameters, replicaWatch);
+                first = wait primaryRead | hedgedRead;
+                future<ReadAttempt> other = hedgedRead;
+                if (first.kind == HEDGED_READ) {
+                    other = primaryRead;
+                }
+                if (first.result is error) {
+                    first = wait other;
+                } else {
+                    _ = start discardRead(other);
+                }
+                if (first.kind == HEDGED_READ) {
+                    lock {
+                        self.metrics.hedgesWon += 1;
+                    }
+                }
+            } else {
+                first = wait primaryRead;
+            }
+        }
+        self.policy.recordLatency(time:currentTime().time - startTime);
+        lock {
+            self.metrics.readCount += 1;
+        }
+        var result = first.result;
+        if (result is ()) {
+            return error("{ballerina/sql}DatabaseError", message = "Hedged read completed without a result");
+        }
+        return result;
+    }
+
+    # Returns the metrics of the hedged reads.
+    #
+    # + return - The metrics
+    function getMetrics() returns HedgingMetrics {
+        HedgingMetrics metrics = {};
+        lock {
+            metrics = self.metrics.clone();
+        }
+        return metrics;
+    }
+
+    # Switches the hedged reads over to replicas connected to with the credentials of the given configuration. The
+    # previous replica clients are closed in the background once the reads on them have completed.
+    #
+    # + config - The new configuration of the client
+    # + drainTimeoutInMillis - Maximum time to wait for the reads on the previous replica clients to complete
+    function reconfigure(ClientEndpointConfig config, int drainTimeoutInMillis) {
+        sql:Client[] newReplicas = createReplicaClients(config, self.options);
+        sql:Client[] oldReplicas = [];
+        int oldGeneration = 0;
+        lock {
+            oldReplicas = self.replicas;
+            oldGeneration = self.generation;
+            self.replicas = newReplicas;
+            self.generation += 1;
+        }
+        _ = start self.drainAndClose(oldReplicas, oldGeneration, drainTimeoutInMillis);
+    }
+
+    function stop() {
+        sql:Client[] replicas = [];
+        lock {
+            replicas = self.replicas;
+            self.replicas = [];
+        }
+        foreach var replica in replicas {
+            _ = sql:close(replica);
+        }
+    }
+
+    # Returns the next replica to hedge a read with, if the hedge budget permits, and counts the read as in progress
+    # on it until `releaseReplica()`.
+    function takeReplica() returns ClientLease? {
+        if (!self.policy.tryHedge()) {
+            lock {
+                self.metrics.hedgesDenied += 1;
+            }
+            return ();
+        }
+        ClientLease? lease = ();
+        lock {
+            if (self.replicas.length() > 0) {
+                lease = {
+                    sqlClient: self.replicas[self.nextReplica % self.replicas.length()],
+                    generation: self.generation,
+                    gated: false
+                };
+                string key = string.convert(self.generation);
+                self.inFlightReads[key] = (self.inFlightReads[key] ?: 0) + 1;
+                self.nextReplica += 1;
+                self.metrics.hedgesIssued += 1;
+            }
+        }
+        return lease;
+    }
+
+    # Reads from a replica and releases it once the read has completed, or for a table which is not loaded to memory,
+    # once the connection of the table is returned.
+    function readFromReplica(ClientLease lease, string sqlQuery, typedesc? recordType, boolean loadToMemory,
+                             sql:Param[] parameters, ConnectionWatch? watch) returns ReadAttempt {
+        ReadAttempt attempt = readFrom(lease.sqlClient, HEDGED_READ, sqlQuery, recordType, loadToMemory, parameters,
+            watch);
+        if (watch is ConnectionWatch) {
+            _ = start self.releaseOnReturn(lease, watch);
+        } else {
+            self.releaseReplica(lease);
+        }
+        return attempt;
+    }
+
+    function releaseOnReturn(ClientLease lease, ConnectionWatch watch) {
+        watch.awaitReturn();
+        self.releaseReplica(lease);
+    }
+
+    function releaseReplica(ClientLease lease) {
+        lock {
+            string key = string.convert(lease.generation);
+            int? inFlightCount = self.inFlightReads[key];
+            if (inFlightCount is int) {
+                self.inFlightReads[key] = inFlightCount - 1;
+            }
+        }
+    }
+
+    # Closes the replica clients the reader has switched away from, once the reads on them have completed or the
+    # drain timeout has elapsed.
+    function drainAndClose(sql:Client[] replicas, int generation, int drainTimeoutInMillis) {
+        string key = string.convert(generation);
+        int waitedTime = 0;
+        boolean drained = false;
+        while (!drained && waitedTime < drainTimeoutInMillis) {
+            lock {
+                drained = (self.inFlightReads[key] ?: 0) == 0;
+            }
+            if (!drained) {
+                runtime:sleep(DRAIN_CHECK_INTERVAL_IN_MILLIS);
+                waitedTime += DRAIN_CHECK_INTERVAL_IN_MILLIS;
+            }
+        }
+        lock {
+            _ = self.inFlightReads.remove(key);
+        }
+        foreach var replica in replicas {
+            _ = sql:close(replica);
+        }
+    }
+};
+
+# Tracks the latencies of reads to derive the hedge delay, and the budget of hedged reads.
+type HedgingPolicy object {
+    function __init(HedgingOptions options) {
+        self.init(options.delayPercentile, options.minDelayInMillis, options.maxDelayInMillis,
+            options.maxHedgeRatio);
+    }
+
+    function init(float percentile, int minDelayInMillis, int maxDelayInMillis, float maxHedgeRatio) = external;
+
+    function getHedgeDelay() returns int = external;
+
+    function recordLatency(int latencyInMillis) = external;
+
+    function tryHedge() returns boolean = external;
+
+    # Waits for the given delay without holding a worker thread.
+    function awaitDelay(int delayInMillis) = external;
+};
+
+function readFrom(sql:Client sqlClient, int kind, string sqlQuery, typedesc? recordType, boolean loadToMemory,
+                  sql:Param[] parameters, ConnectionWatch? watch) returns ReadAttempt {
+    return { kind: kind, result: selectWatched(sqlClient, sqlQuery, recordType, loadToMemory, parameters, watch) };
+}
+
+function awaitHedgeDelay(HedgingPolicy policy, int delayInMillis) returns ReadAttempt {
+    policy.awaitDelay(delayInMillis);
+    return { kind: HEDGE_DELAY_ELAPSED };
+}
+
+# Closes the result of the read which lost the race, once it arrives.
+function discardRead(future<ReadAttempt> read) {
+    ReadAttempt attempt = wait read;
+    var result = attempt.result;
+    if (result is table<record {}>) {
+        result.close();
+    }
+}
+
+function createReplicaClients(ClientEndpointConfig config, HedgingOptions options) returns sql:Client[] {
+    sql:Client[] replicas = [];
+    sql:PoolOptions? poolOptions = options.replicaPoolOptions ?: config.poolOptions;
+    foreach var replicaUrl in options.replicaUrls {
+        ClientEndpointConfig replicaConfig = {
+            url: replicaUrl,
+            username: config.username,
+            password: config.password,
+            dbOptions: config.dbOptions
+        };
+        if (poolOptions is sql:PoolOptions) {
+            replicaConfig.poolOptions = poolOptions;
+        }
+        replicas[replicas.length()] = createClient(replicaConfig,
+            sql:getGlobalPoolConfigContainer().getGlobalPoolConfig());
+    }
+    return replicas;
+}
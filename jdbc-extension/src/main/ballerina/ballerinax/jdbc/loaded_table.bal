@@ -0,0 +1,94 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Heap memory limits of the tables loaded by `Client.load()`.
+#
+# + maxTableMemoryInBytes - Estimated heap memory up to which the rows of a single loaded table are kept on the heap
+# + maxTotalMemoryInBytes - Estimated heap memory up to which the rows of all the loaded tables of the client are kept
+#                           on the heap
+# + spillDirectory - Directory of the temporary files to which rows beyond these limits are spilled. If empty, the
+#                    temporary directory of the system is used
+public type TableMemoryOptions record {|
+    int maxTableMemoryInBytes = 16777216;
+    int maxTotalMemoryInBytes = 67108864;
+    string spillDirectory = "";
+|};
+
+# Heap memory available to the loaded tables of a client.
+type TableMemoryBudget object {
+    function __init(TableMemoryOptions options) {
+        self.init(options.maxTableMemoryInBytes, options.maxTotalMemoryInBytes, options.spillDirectory);
+    }
+
+    function init(int maxTableMemoryInBytes, int maxTotalMemoryInBytes, string spillDirectory) = external;
+};
+
+# The rows of a query, loaded for random access and repeated iteration. Rows are kept on the heap up to the memory
+# limits of the client, and the remaining rows are spilled in a compact binary form to a temporary file, which is
+# memory mapped rather than read into the heap. The table does not hold a connection.
+public type LoadedTable object {
+    private boolean closed = false;
+
+    function __init() {
+    }
+
+    # Returns the number of rows.
+    #
+    # + return - The number of rows
+    public function getRowCount() returns int = external;
+
+    # Returns a row.
+    #
+    # + index - Index of the row, starting from 0
+    # + return - A new map holding the columns of the row, with a `()` value for NULL columns, else an `error` if the
+    #            index is out of range or the table is closed
+    public function getRow(int index) returns map<anydata>|error {
+        if (self.closed) {
+            return error("{ballerina/sql}DatabaseError", message = "Table is closed");
+        }
+        return self.readRow(index);
+    }
+
+    # Checks whether rows were spilled to a file because the memory limits were reached.
+    #
+    # + return - `true` if some rows are read from the spill file
+    public function isSpilled() returns boolean = external;
+
+    # Releases the heap memory of the rows and deletes the spill file, once no other loaded table shares the rows.
+    # Rows cannot be read afterwards. Closing a table which is already closed has no effect.
+    #
+    # + return - An `error` if the spill file could not be deleted
+    public function close() returns error? {
+        boolean wasClosed = true;
+        lock {
+            wasClosed = self.closed;
+            self.closed = true;
+        }
+        if (wasClosed) {
+            return ();
+        }
+        return self.release();
+    }
+
+    function readRow(int index) returns map<anydata>|error = external;
+
+    function release() returns error? = external;
+};
+
+function loadQuery(sql:Client sqlClient, TableMemoryBudget budget, LoadedTable loadedTable, string sqlQuery,
+                   sql:Param[] parameters) returns error? = external;
@@ -0,0 +1,84 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Query with named parameter markers, as compiled by `compileNamedQuery()`.
+#
+# + positionalQuery - The query with a positional parameter marker in place of each named marker
+# + parameterNames - Names of the markers in the order of the positional markers. Shared with other calls for the
+#                    same query, so it must not be modified
+type NamedQuery record {|
+    string positionalQuery = "";
+    string[] parameterNames = [];
+|};
+
+# Rewrites a query with named parameter markers (`:name`) into a query with positional parameter markers, and returns
+# the values of its parameters in positional order. A name may be used by more than one marker. The query is parsed
+# once and cached by its text, so that binding a query which was seen before only looks up the values.
+#
+# + sqlQuery - SQL query with named parameter markers
+# + parameters - Values of the parameters by name, as a map or a record
+# + return - The positional query and its parameters, else an `error` if the query also has positional parameter
+#            markers or a parameter has no value
+function bindNamedParameters(string sqlQuery, map<any> parameters) returns (string, sql:Param[])|error {
+    NamedQuery namedQuery = {};
+    check compileNamedQuery(sqlQuery, namedQuery);
+    sql:Param[] boundParameters = [];
+    foreach var name in namedQuery.parameterNames {
+        var value = parameters[name];
+        if (value is sql:Param) {
+            boundParameters[boundParameters.length()] = value;
+        } else {
+            return getNamedParameterError(name, parameters);
+        }
+    }
+    return (namedQuery.positionalQuery, boundParameters);
+}
+
+# Binds the named parameters of each row of a batch. Refer `bindNamedParameters`. Unlike single statements, a
+# parameter of a batch row may be `()` to bind NULL.
+#
+# + sqlQuery - SQL statement with named parameter markers
+# + parameters - Values of the parameters by name, for each row of the batch
+# + return - The positional statement and the parameters of each row, else an `error` if the statement also has
+#            positional parameter markers or a parameter of a row has no value
+function bindNamedBatchParameters(string sqlQuery, map<any>[] parameters) returns (string, sql:Param?[][])|error {
+    NamedQuery namedQuery = {};
+    check compileNamedQuery(sqlQuery, namedQuery);
+    sql:Param?[][] boundParameters = [];
+    foreach var rowParameters in parameters {
+        sql:Param?[] boundRow = [];
+        foreach var name in namedQuery.parameterNames {
+            var value = rowParameters[name];
+            if (value is sql:Param?) {
+                boundRow[boundRow.length()] = value;
+            } else {
+                return getNamedParameterError(name, rowParameters);
+            }
+        }
+        boundParameters[boundParameters.length()] = boundRow;
+    }
+    return (namedQuery.positionalQuery, boundParameters);
+}
+
+function getNamedParameterError(string name, map<any> parameters) returns error {
+    string message = parameters.hasKey(name) ? "Value of parameter :" + name + " is not a sql:Param"
+        : "No value given for parameter :" + name;
+    return error("{ballerina/sql}DatabaseError", message = message);
+}
+
+function compileNamedQuery(string sqlQuery, NamedQuery namedQuery) returns error? = external;
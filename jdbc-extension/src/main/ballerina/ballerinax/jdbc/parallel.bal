@@ -0,0 +1,146 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+# Function which transforms a row of a table processed by `processInParallel`.
+public type RowTransform function (record {} row) returns anydata|error;
+
+# Function which receives the transformed rows of a table processed by `processInParallel`.
+public type ResultSink function (anydata result) returns error?;
+
+# Options for processing the rows of a table in parallel.
+#
+# + parallelism - Maximum number of batches which are transformed at the same time, each on a strand of its own
+# + batchSize - Number of rows handed to a strand at a time
+# + ordered - Indicates whether the results are passed to the sink in the order of the rows. If `false`, results are
+#             passed to the sink as soon as their batch is transformed
+public type ParallelOptions record {|
+    int parallelism = 4;
+    int batchSize = 100;
+    boolean ordered = true;
+|};
+
+# Transforms the rows of a table on several strands and passes the results to a sink. Rows are read from the table in
+# batches, and a batch is only read once fewer than `parallelism` batches are in progress, so a streamed table is
+# fetched from the database no faster than its rows are transformed and only its own connection is held. The sink is
+# never called concurrently. The table is closed once all its rows are processed or processing fails.
+#
+# + rows - The table to process, typically a streamed table returned by `select`
+# + transform - Function which transforms a row. It is called concurrently for the rows of different batches
+# + sink - Function which receives the transformed rows
+# + options - Parallelism, batch size and ordering. Refer `ParallelOptions`
+# + return - The number of processed rows, else the first `error` returned by the table, the transform or the sink,
+#            after which no more batches are started, or an `error` if `parallelism` or `batchSize` is less than 1
+public function processInParallel(table<record {}> rows, RowTransform transform, ResultSink sink,
+                                  ParallelOptions options = {}) returns int|error {
+    if (options.parallelism < 1 || options.batchSize < 1) {
+        rows.close();
+        return error("{ballerina/sql}DatabaseError", message = "Parallelism and batch size must be at least 1, but "
+            + "were " + options.parallelism + " and " + options.batchSize);
+    }
+    ParallelSink serialSink = new(sink);
+    future<anydata[]|error>[] inProgress = [];
+    int startedCount = 0;
+    int completedCount = 0;
+    int processedCount = 0;
+    error? failure = ();
+    while (failure is () && rows.hasNext()) {
+        record {}[] batch = [];
+        while (failure is () && batch.length() < options.batchSize && rows.hasNext()) {
+            var row = rows.getNext();
+            if (row is record {}) {
+                batch[batch.length()] = row;
+            } else if (row is error) {
+                failure = row;
+            }
+        }
+        if (failure is () && startedCount - completedCount >= options.parallelism) {
+            var result = completeBatch(inProgress[completedCount % options.parallelism], serialSink, options.ordered);
+            completedCount += 1;
+            if (result is error) {
+                failure = result;
+            } else {
+                processedCount += result;
+            }
+        }
+        if (failure is ()) {
+            inProgress[startedCount % options.parallelism] = start transformBatch(batch, transform, serialSink,
+                !options.ordered);
+            startedCount += 1;
+        }
+    }
+    rows.close();
+    while (completedCount < startedCount) {
+        var result = completeBatch(inProgress[completedCount % options.parallelism], serialSink, options.ordered);
+        completedCount += 1;
+        if (result is error) {
+            if (failure is ()) {
+                failure = result;
+            }
+        } else {
+            processedCount += result;
+        }
+    }
+    if (failure is error) {
+        return failure;
+    }
+    return processedCount;
+}
+
+# Passes results to a sink one at a time.
+type ParallelSink object {
+    private ResultSink sink;
+    private error? failure = ();
+
+    function __init(ResultSink sink) {
+        self.sink = sink;
+    }
+
+    function accept(anydata[] results) returns error? {
+        lock {
+            if (self.failure is ()) {
+                ResultSink sink = self.sink;
+                foreach var result in results {
+                    var sinkResult = sink(result);
+                    if (sinkResult is error) {
+                        self.failure = sinkResult;
+                        break;
+                    }
+                }
+            }
+        }
+        return self.failure;
+    }
+};
+
+function transformBatch(record {}[] batch, RowTransform transform, ParallelSink sink, boolean sinkResults)
+                        returns anydata[]|error {
+    anydata[] results = [];
+    foreach var row in batch {
+        results[results.length()] = check transform(row);
+    }
+    if (sinkResults) {
+        check sink.accept(results);
+    }
+    return results;
+}
+
+function completeBatch(future<anydata[]|error> batch, ParallelSink sink, boolean sinkResults) returns int|error {
+    anydata[] results = check wait batch;
+    if (sinkResults) {
+        check sink.accept(results);
+    }
+    return results.length();
+}
@@ -0,0 +1,294 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/runtime;
+import ballerina/sql;
+
+# Configuration of a `PollingSource`.
+#
+# + sqlQuery - Query which selects the rows changed since a watermark. It must have a single parameter marker for the
+#              watermark, compare the watermark column inclusively (`>= ?`) and order the rows by the watermark column,
+#              e.g. `SELECT * FROM orders WHERE updated_at >= ? ORDER BY updated_at`
+# + watermarkColumn - Name of the monotonic watermark column, as returned in the rows
+# + keyColumns - Names of the columns which identify a row. Rows which have the current watermark and which were
+#                already emitted are skipped. If empty, all rows with the current watermark are skipped
+# + initialWatermark - Watermark to start from if there is no persisted watermark
+# + watermarkSqlType - SQL type to bind the watermark with. If not given, the type is derived from the value
+# + watermarkTable - Name of a table with `NAME` and `WATERMARK` VARCHAR columns to persist the watermark in, so that
+#                    polling resumes from where it stopped. If not given, the watermark is not persisted
+# + name - Name of the polling source, used as the key of its persisted watermark
+# + minPollIntervalInMillis - Poll interval used while polls return rows
+# + maxPollIntervalInMillis - Upper bound of the poll interval, which doubles with each poll that returns no rows
+public type PollingConfig record {|
+    string sqlQuery;
+    string watermarkColumn;
+    string[] keyColumns = [];
+    int|string initialWatermark;
+    sql:SQLType watermarkSqlType?;
+    string watermarkTable?;
+    string name = "default";
+    int minPollIntervalInMillis = 1000;
+    int maxPollIntervalInMillis = 30000;
+|};
+
+# Interval at which a background loop, such as that of a polling source, checks whether it was stopped while it waits
+# for its next run.
+const int STOP_CHECK_INTERVAL_IN_MILLIS = 100;
+
+type PersistedWatermark record {
+    string WATERMARK;
+};
+
+# Polls a table for changed rows using a monotonic watermark column, and publishes the new or changed rows to a
+# stream. Each poll only reads the rows at or after the last seen watermark. The same query text is used for every
+# poll, so that drivers and databases which cache prepared statements reuse the same statement.
+public type PollingSource object {
+    # Stream to which the new or changed rows are published
+    public stream<record {}> changes = new;
+
+    private Client dbClient;
+    private PollingConfig config;
+    private typedesc? recordType;
+    private int|string watermark;
+    private map<boolean> emittedKeys = {};
+    private int pollInterval;
+    private boolean active = true;
+    private future<()>? poller = ();
+
+    # Gets called when the polling source is created via `Client.createPollingSource()`. Polling starts with
+    # `startPolling()`.
+    public function __init(Client dbClient, PollingConfig config, typedesc? recordType) {
+        self.dbClient = dbClient;
+        self.config = config;
+        self.recordType = recordType;
+        self.watermark = config.initialWatermark;
+        self.pollInterval = config.minPollIntervalInMillis;
+    }
+
+    # Loads the persisted watermark, if any, and starts polling.
+    #
+    # + return - An `error` if the persisted watermark could not be loaded
+    public function startPolling() returns error? {
+        string? watermarkTable = self.config.watermarkTable;
+        if (watermarkTable is string) {
+            var result = self.dbClient->select("SELECT WATERMARK FROM " + watermarkTable + " WHERE NAME = ?",
+                PersistedWatermark, self.config.name);
+            if (result is error) {
+                return result;
+            } else {
+                while (result.hasNext()) {
+                    var row = result.getNext();
+                    if (row is PersistedWatermark) {
+                        var persistedWatermark = self.toWatermark(row.WATERMARK);
+                        if (persistedWatermark is error) {
+                            result.close();
+                            return persistedWatermark;
+                        } else {
+                            lock {
+                                self.watermark = persistedWatermark;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        self.poller = start self.pollPeriodically();
+        return ();
+    }
+
+    # Returns the watermark of the last emitted row.
+    #
+    # + return - The current watermark
+    public function getWatermark() returns int|string {
+        int|string watermark = 0;
+        lock {
+            watermark = self.watermark;
+        }
+        return watermark;
+    }
+
+    # Returns the interval after which the next poll runs.
+    #
+    # + return - The current poll interval in milliseconds
+    public function getPollInterval() returns int {
+        int pollInterval = 0;
+        lock {
+            pollInterval = self.pollInterval;
+        }
+        return pollInterval;
+    }
+
+    # Stops polling. A poll which is in progress is completed, and a wait for the next poll ends within
+    # `STOP_CHECK_INTERVAL_IN_MILLIS`.
+    public function stop() {
+        lock {
+            self.active = false;
+        }
+        var poller = self.poller;
+        if (poller is future<()>) {
+            _ = wait poller;
+        }
+    }
+
+    # Runs a single poll and publishes the new or changed rows. If a row cannot be read, the rows published before it
+    # are kept as emitted, so that they are not published again by the next poll.
+    #
+    # + return - The number of rows published, else an `error` if the poll failed
+    public function poll() returns int|error {
+        int|string watermark = 0;
+        map<boolean> emittedKeys = {};
+        lock {
+            watermark = self.watermark;
+            emittedKeys = self.emittedKeys;
+        }
+        sql:Param watermarkParam = watermark;
+        sql:SQLType? watermarkSqlType = self.config.watermarkSqlType;
+        if (watermarkSqlType is sql:SQLType) {
+            sql:Parameter typedWatermark = { sqlType: watermarkSqlType, value: watermark };
+            watermarkParam = typedWatermark;
+        }
+        var rows = self.dbClient->select(self.config.sqlQuery, self.recordType, watermarkParam);
+        if (rows is error) {
+            return rows;
+        }
+        int|string lastWatermark = watermark;
+        map<boolean> lastKeys = emittedKeys;
+        int publishedCount = 0;
+        error? rowError = ();
+        while (rowError is () && rows is table<record {}> && rows.hasNext()) {
+            var row = rows.getNext();
+            if (row is error) {
+                rowError = row;
+            } else {
+                var rowWatermark = self.toWatermark(row[self.config.watermarkColumn]);
+                if (rowWatermark is error) {
+                    rowError = rowWatermark;
+                } else {
+                    string key = self.getKey(row);
+                    if (rowWatermark != watermark || (self.config.keyColumns.length() > 0
+                            && !emittedKeys.hasKey(key))) {
+                        if (rowWatermark != lastWatermark) {
+                            lastWatermark = rowWatermark;
+                            lastKeys = {};
+                        }
+                        lastKeys[key] = true;
+                        self.changes.publish(row);
+                        publishedCount += 1;
+                    }
+                }
+            }
+        }
+        if (rowError is error && rows is table<record {}>) {
+            rows.close();
+        }
+        if (publishedCount > 0) {
+            lock {
+                self.watermark = lastWatermark;
+                self.emittedKeys = lastKeys;
+            }
+            if (lastWatermark != watermark) {
+                var persistResult = self.persistWatermark(lastWatermark);
+                if (rowError is ()) {
+                    rowError = persistResult;
+                }
+            }
+        }
+        lock {
+            if (publishedCount > 0) {
+                self.pollInterval = self.config.minPollIntervalInMillis;
+            } else {
+                self.pollInterval = self.pollInterval * 2;
+                if (self.pollInterval > self.config.maxPollIntervalInMillis) {
+                    self.pollInterval = self.config.maxPollIntervalInMillis;
+                }
+            }
+        }
+        if (rowError is error) {
+            return rowError;
+        }
+        return publishedCount;
+    }
+
+    function pollPeriodically() {
+        while (self.isActive()) {
+            var result = self.poll();
+            int pollInterval = 0;
+            lock {
+                if (result is error) {
+                    self.pollInterval = self.config.maxPollIntervalInMillis;
+                }
+                pollInterval = self.pollInterval;
+            }
+            self.sleepWhileActive(pollInterval);
+        }
+    }
+
+    # Sleeps for the given time in slices of `STOP_CHECK_INTERVAL_IN_MILLIS`, so that the sleep ends early once the
+    # polling source is stopped.
+    function sleepWhileActive(int sleepTimeInMillis) {
+        int remainingTime = sleepTimeInMillis;
+        while (remainingTime > 0 && self.isActive()) {
+            int sliceTime = remainingTime < STOP_CHECK_INTERVAL_IN_MILLIS ? remainingTime
+                : STOP_CHECK_INTERVAL_IN_MILLIS;
+            runtime:sleep(sliceTime);
+            remainingTime -= sliceTime;
+        }
+    }
+
+    function isActive() returns boolean {
+        boolean active = false;
+        lock {
+            active = self.active;
+        }
+        return active;
+    }
+
+    function persistWatermark(int|string watermarkValue) returns error? {
+        string? watermarkTable = self.config.watermarkTable;
+        if (watermarkTable is ()) {
+            return ();
+        }
+        string watermark = string.convert(watermarkValue);
+        var result = self.dbClient->update("UPDATE " + watermarkTable + " SET WATERMARK = ? WHERE NAME = ?",
+            watermark, self.config.name);
+        if (result is sql:UpdateResult && result.updatedRowCount == 0) {
+            result = self.dbClient->update("INSERT INTO " + watermarkTable + " (NAME, WATERMARK) VALUES (?, ?)",
+                self.config.name, watermark);
+        }
+        if (result is error) {
+            return result;
+        }
+        return ();
+    }
+
+    function toWatermark(anydata value) returns int|string|error {
+        if (self.config.initialWatermark is int) {
+            if (value is int) {
+                return value;
+            }
+            return int.convert(value);
+        }
+        return string.convert(value);
+    }
+
+    function getKey(record {} row) returns string {
+        string key = "";
+        foreach var column in self.config.keyColumns {
+            key = key + string.convert(row[column]) + "|";
+        }
+        return key;
+    }
+};
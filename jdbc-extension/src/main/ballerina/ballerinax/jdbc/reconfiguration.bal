@@ -0,0 +1,34 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Interval at which a reconfigured client checks whether the calls on its previous connection pool have completed.
+const int DRAIN_CHECK_INTERVAL_IN_MILLIS = 10;
+
+# Options of `Client.reconfigure()`.
+#
+# + warmUpConnectionCount - Number of connections opened in the new connection pool before calls are switched over
+#                           to it
+# + drainTimeoutInMillis - Maximum time to wait for the calls in progress on the previous connection pool to complete
+#                          before it is closed. Tables which are not loaded to memory keep their connection until they
+#                          are closed, so they also delay closing the previous pool up to this timeout
+public type ReconfigurationOptions record {|
+    int warmUpConnectionCount = 1;
+    int drainTimeoutInMillis = 30000;
+|};
+
+function warmUp(sql:Client sqlClient, int connectionCount) returns error? = external;
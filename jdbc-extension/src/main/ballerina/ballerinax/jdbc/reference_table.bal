@@ -0,0 +1,172 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/runtime;
+import ballerina/sql;
+
+# Configuration of a `ReferenceTable`.
+#
+# + sqlQuery - Query which selects all the rows of the reference table
+# + keyColumns - Names of the columns which identify a row, by which rows are looked up with `ReferenceTable.get()`
+# + rangeColumn - Name of a numeric or string column by which rows are also indexed in order, for
+#                 `ReferenceTable.getRange()`. If not given, range queries are not supported
+# + refreshIntervalInMillis - Interval at which the rows are refreshed in the background
+# + changeQuery - Query which returns a single value which advances whenever the reference table changes, e.g.
+#                 `SELECT MAX(updated_at) FROM currencies`. If given, the rows are only reloaded when the value has
+#                 changed since the last load, and the change query is run at every refresh interval instead
+public type ReferenceTableConfig record {|
+    string sqlQuery;
+    string[] keyColumns;
+    string rangeColumn?;
+    int refreshIntervalInMillis = 60000;
+    string changeQuery?;
+|};
+
+# An in-memory copy of a small reference table, indexed by its key columns for constant time lookups and optionally
+# by a range column for range queries. The rows are refreshed in the background. A refresh loads and indexes the
+# rows into a new snapshot, which then replaces the current one, so lookups never wait for a refresh and never see a
+# partly refreshed table.
+public type ReferenceTable object {
+    private Client dbClient;
+    private ReferenceTableConfig config;
+    private string version = "";
+    private boolean loaded = false;
+    private boolean active = false;
+    private future<()>? refresher = ();
+
+    # Gets called when the reference table is created via `Client.createReferenceTable()`. Rows are loaded and
+    # refreshed once `start()` is called.
+    public function __init(Client dbClient, ReferenceTableConfig config) {
+        self.dbClient = dbClient;
+        self.config = config;
+        self.init(config.keyColumns, config.rangeColumn ?: "");
+    }
+
+    # Loads the rows and starts refreshing them in the background.
+    #
+    # + return - An `error` if the rows could not be loaded
+    public function start() returns error? {
+        check self.refresh();
+        lock {
+            self.active = true;
+        }
+        self.refresher = start self.refreshPeriodically();
+        return ();
+    }
+
+    # Looks up a row by the values of its key columns. Numbers of different types which are numerically equal match.
+    #
+    # + keyValues - Values of the key columns, in the order of `ReferenceTableConfig.keyColumns`
+    # + return - A new map holding the columns of the row, `()` if there is no row with the key, else an `error` if
+    #            the number of values does not match the number of key columns
+    public function get(anydata... keyValues) returns map<anydata>|error? {
+        return self.lookup(keyValues);
+    }
+
+    # Returns the rows whose range column value is at or above `fromValue` and below `toValue`.
+    #
+    # + fromValue - Lower bound of the range, inclusive
+    # + toValue - Upper bound of the range, exclusive
+    # + return - The rows, ordered by their range column value, else an `error` if there is no range column or the
+    #            bounds are not of the type of its values
+    public function getRange(anydata fromValue, anydata toValue) returns map<anydata>[]|error = external;
+
+    # Returns the number of rows.
+    #
+    # + return - The number of rows
+    public function getRowCount() returns int = external;
+
+    # Reloads the rows now, or if there is a `changeQuery`, only if the reference table has changed.
+    #
+    # + return - An `error` if the rows could not be loaded. The current rows are kept in that case
+    public function refresh() returns error? {
+        string? changeQuery = self.config.changeQuery;
+        string version = "";
+        if (changeQuery is string) {
+            ClientLease lease = check self.dbClient.acquireClient(DEFAULT_WORKLOAD_CLASS);
+            var versionRet = self.readVersion(lease.sqlClient, changeQuery, []);
+            self.dbClient.releaseClient(lease);
+            version = check versionRet;
+            boolean unchanged = false;
+            lock {
+                unchanged = self.loaded && version == self.version;
+            }
+            if (unchanged) {
+                return ();
+            }
+        }
+        ClientLease lease = check self.dbClient.acquireClient(DEFAULT_WORKLOAD_CLASS);
+        var result = self.reload(lease.sqlClient, self.config.sqlQuery, []);
+        self.dbClient.releaseClient(lease);
+        if (result is ()) {
+            lock {
+                self.version = version;
+                self.loaded = true;
+            }
+        }
+        return result;
+    }
+
+    # Stops refreshing the rows. A refresh which is in progress is completed, and a wait for the next refresh ends
+    # within `STOP_CHECK_INTERVAL_IN_MILLIS`. The current rows can still be read.
+    public function stop() {
+        lock {
+            self.active = false;
+        }
+        var refresher = self.refresher;
+        if (refresher is future<()>) {
+            _ = wait refresher;
+        }
+    }
+
+    function refreshPeriodically() {
+        while (self.isActive()) {
+            self.sleepWhileActive(self.config.refreshIntervalInMillis);
+            if (self.isActive()) {
+                _ = self.refresh();
+            }
+        }
+    }
+
+    # Sleeps for the given time in slices of `STOP_CHECK_INTERVAL_IN_MILLIS`, so that the sleep ends early once the
+    # reference table is stopped.
+    function sleepWhileActive(int sleepTimeInMillis) {
+        int remainingTime = sleepTimeInMillis;
+        while (remainingTime > 0 && self.isActive()) {
+            int sliceTime = remainingTime < STOP_CHECK_INTERVAL_IN_MILLIS ? remainingTime
+                : STOP_CHECK_INTERVAL_IN_MILLIS;
+            runtime:sleep(sliceTime);
+            remainingTime -= sliceTime;
+        }
+    }
+
+    function isActive() returns boolean {
+        boolean active = false;
+        lock {
+            active = self.active;
+        }
+        return active;
+    }
+
+    function init(string[] keyColumns, string rangeColumn) = external;
+
+    function lookup(anydata[] keyValues) returns map<anydata>|error? = external;
+
+    function reload(sql:Client sqlClient, string sqlQuery, sql:Param[] parameters) returns error? = external;
+
+    function readVersion(sql:Client sqlClient, string changeQuery, sql:Param[] parameters) returns string|error
+        = external;
+};
@@ -0,0 +1,315 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Returns the index of the shard a shard key belongs to, between 0 and `shardCount - 1`.
+public type ShardFunction function (anydata shardKey, int shardCount) returns int;
+
+# Represents a set of databases which hold the shards of the same tables. Calls are routed to a shard by a shard key,
+# and the connection pool of a shard is only created once the first call is routed to it.
+public type ShardedClient client object {
+    private ClientEndpointConfig[] shardConfigs;
+    private ShardFunction shardFunction;
+    private Client?[] shards = [];
+    private boolean active = true;
+
+    # Gets called when the sharded client is instantiated.
+    #
+    # + shards - Configurations of the shard databases, in shard index order
+    # + shardFunction - Function which maps a shard key to a shard index. By default, the string value of the shard
+    #                   key is hashed
+    public function __init(ClientEndpointConfig[] shards, ShardFunction? shardFunction = ()) {
+        self.shardConfigs = shards;
+        if (shardFunction is ShardFunction) {
+            self.shardFunction = shardFunction;
+        } else {
+            self.shardFunction = hashShard;
+        }
+        foreach var shard in shards {
+            self.shards[self.shards.length()] = ();
+        }
+    }
+
+    # Invokes a stored procedure/function on the shard of the given key.
+    #
+    # + shardKey - Key which determines the shard
+    # + sqlQuery - The SQL stored procedure to execute
+    # + recordType - Array of record types of the returned tables if there is any
+    # + parameters - The parameters to be passed to the procedure/function call. The number of parameters is variable
+    # + return - A `table[]` if there are tables returned by the call action and else nil,
+    #            `error` will be returned if there is any error
+    public remote function call(anydata shardKey, @sensitive string sqlQuery, typedesc[]? recordType,
+                                sql:Param... parameters) returns @tainted table<record {}>[]|()|error {
+        Client shard = check self.getShardOf(shardKey);
+        return shard->call(sqlQuery, recordType, ...parameters);
+    }
+
+    # Selects data from the shard of the given key.
+    #
+    # + shardKey - Key which determines the shard
+    # + sqlQuery - SQL query to execute
+    # + recordType - Type of the returned table
+    # + loadToMemory - Indicates whether to load the retrieved data to memory or not
+    # + parameters - The parameters to be passed to the select query. The number of parameters is variable
+    # + return - A `table` returned by the sql query statement else `error` will be returned if there is any error
+    public remote function select(anydata shardKey, @sensitive string sqlQuery, typedesc? recordType,
+                                  boolean loadToMemory = false, sql:Param... parameters)
+                                  returns @tainted table<record {}>|error {
+        Client shard = check self.getShardOf(shardKey);
+        return shard->select(sqlQuery, recordType, loadToMemory = loadToMemory, ...parameters);
+    }
+
+    # Selects data from all the shards in parallel. The rows are returned shard by shard, as they are read from the
+    # databases.
+    #
+    # + sqlQuery - SQL query to execute on each shard
+    # + recordType - Type of the returned rows
+    # + parameters - The parameters to be passed to the select query. The number of parameters is variable
+    # + return - The rows of all the shards, else an `error` if the query failed on any of the shards
+    public remote function scatterSelect(@sensitive string sqlQuery, typedesc? recordType, sql:Param... parameters)
+                                         returns @tainted ShardedTable|error {
+        Client[] shards = [];
+        while (shards.length() < self.shardConfigs.length()) {
+            shards[shards.length()] = check self.getShard(shards.length());
+        }
+        future<table<record {}>|error>[] selects = [];
+        foreach var shard in shards {
+            selects[selects.length()] = start selectFromShard(shard, sqlQuery, recordType, parameters);
+        }
+        table<record {}>[] tables = [];
+        error? failure = ();
+        foreach var shardSelect in selects {
+            var result = wait shardSelect;
+            if (result is error) {
+                failure = failure ?: result;
+            } else {
+                tables[tables.length()] = result;
+            }
+        }
+        ShardedTable shardedTable = new(tables);
+        if (failure is error) {
+            shardedTable.close();
+            return failure;
+        }
+        return shardedTable;
+    }
+
+    # Updates data on the shard of the given key.
+    #
+    # + shardKey - Key which determines the shard
+    # + sqlQuery - SQL statement to execute
+    # + keyColumns - Names of auto generated columns for which the auto generated key values are returned
+    # + parameters - The parameters to be passed to the update query. The number of parameters is variable
+    # + return - `sql:UpdateResult` with the updated row count and key column values,
+    #             else  `error` will be returned if there is any error
+    public remote function update(anydata shardKey, @sensitive string sqlQuery, string[]? keyColumns = (),
+                                  sql:Param... parameters) returns sql:UpdateResult|error {
+        Client shard = check self.getShardOf(shardKey);
+        return shard->update(sqlQuery, keyColumns = keyColumns, ...parameters);
+    }
+
+    # Executes a batch of updates, split into one batch per shard. The batches of the shards are executed in
+    # parallel, each on its own, and are not rolled back together. If the batch of a shard fails, the batches of the
+    # other shards may already have been committed, so the updates have to be idempotent for the whole batch to be
+    # retried safely.
+    #
+    # + sqlQuery - SQL statement to execute
+    # + shardKeys - Shard key of each individual update, in the order of the parameter arrays
+    # + parameters - Variable number of parameter arrays each representing the set of parameters of belonging to each
+    #                individual update
+    # + return - An `int[]` with the update count of each individual update in the given order, else an `error` if
+    #            the number of shard keys does not match the number of updates or if the batch of any shard failed,
+    #            in which case the error of the first failed shard is returned
+    public remote function batchUpdate(@sensitive string sqlQuery, anydata[] shardKeys, sql:Param?[]... parameters)
+                                       returns int[]|error {
+        if (shardKeys.length() != parameters.length()) {
+            return error("{ballerina/sql}DatabaseError", message = "Number of shard keys does not match the number "
+                + "of parameter arrays");
+        }
+        int[][] shardPositions = [];
+        foreach var shardConfig in self.shardConfigs {
+            shardPositions[shardPositions.length()] = [];
+        }
+        int position = 0;
+        foreach var shardKey in shardKeys {
+            int shardIndex = check self.getShardIndex(shardKey);
+            int[] positions = shardPositions[shardIndex];
+            positions[positions.length()] = position;
+            position += 1;
+        }
+
+        int[] batchShards = [];
+        future<int[]|error>[] batches = [];
+        int shardIndex = 0;
+        foreach var positions in shardPositions {
+            if (positions.length() > 0) {
+                sql:Param?[][] rows = [];
+                foreach var rowPosition in positions {
+                    rows[rows.length()] = parameters[rowPosition];
+                }
+                Client shard = check self.getShard(shardIndex);
+                batchShards[batchShards.length()] = shardIndex;
+                batches[batches.length()] = start batchUpdateShard(shard, sqlQuery, rows);
+            }
+            shardIndex += 1;
+        }
+
+        int[] updateCounts = [];
+        foreach var row in parameters {
+            updateCounts[updateCounts.length()] = 0;
+        }
+        error? failure = ();
+        int batchIndex = 0;
+        foreach var batch in batches {
+            var result = wait batch;
+            if (result is error) {
+                failure = failure ?: result;
+            } else {
+                int[] positions = shardPositions[batchShards[batchIndex]];
+                int rowIndex = 0;
+                foreach var updateCount in result {
+                    updateCounts[positions[rowIndex]] = updateCount;
+                    rowIndex += 1;
+                }
+            }
+            batchIndex += 1;
+        }
+        if (failure is error) {
+            return failure;
+        }
+        return updateCounts;
+    }
+
+    # Stops the clients of the shards which have been used.
+    #
+    # + return - An `error` if any of the clients failed to stop
+    public function stop() returns error? {
+        Client?[] shards = [];
+        lock {
+            self.active = false;
+            shards = self.shards;
+        }
+        error? failure = ();
+        foreach var shard in shards {
+            if (shard is Client) {
+                var result = shard.stop();
+                if (result is error) {
+                    failure = failure ?: result;
+                }
+            }
+        }
+        return failure;
+    }
+
+    function getShardOf(anydata shardKey) returns Client|error {
+        return self.getShard(check self.getShardIndex(shardKey));
+    }
+
+    function getShardIndex(anydata shardKey) returns int|error {
+        ShardFunction shardFunction = self.shardFunction;
+        int shardIndex = shardFunction(shardKey, self.shardConfigs.length());
+        if (shardIndex < 0 || shardIndex >= self.shardConfigs.length()) {
+            return error("{ballerina/sql}DatabaseError", message = "Shard function returned shard index "
+                + shardIndex + " which is not between 0 and " + (self.shardConfigs.length() - 1));
+        }
+        return shardIndex;
+    }
+
+    # Returns the client of a shard, creating it on first use.
+    function getShard(int shardIndex) returns Client|error {
+        Client? shard = ();
+        boolean active = true;
+        lock {
+            active = self.active;
+            if (active) {
+                shard = self.shards[shardIndex];
+                if (shard is ()) {
+                    Client newShard = new(self.shardConfigs[shardIndex]);
+                    self.shards[shardIndex] = newShard;
+                    shard = newShard;
+                }
+            }
+        }
+        if (shard is Client) {
+            return shard;
+        }
+        return error("{ballerina/sql}DatabaseError", message = "Client has been stopped");
+    }
+};
+
+# Rows selected from all the shards of a `ShardedClient`, read shard by shard.
+public type ShardedTable object {
+    private table<record {}>[] tables;
+    private int current = 0;
+
+    public function __init(table<record {}>[] tables) {
+        self.tables = tables;
+    }
+
+    # Checks whether there are more rows, closing the tables of the shards which have been read.
+    #
+    # + return - `true` if there are more rows
+    public function hasNext() returns boolean {
+        while (self.current < self.tables.length()) {
+            if (self.tables[self.current].hasNext()) {
+                return true;
+            }
+            self.tables[self.current].close();
+            self.current += 1;
+        }
+        return false;
+    }
+
+    # Returns the next row.
+    #
+    # + return - The next row, else an `error` if there are no more rows or if the row could not be read from its
+    #            shard
+    public function getNext() returns record {}|error {
+        if (self.hasNext()) {
+            var row = self.tables[self.current].getNext();
+            if (row is record {}) {
+                return row;
+            } else if (row is error) {
+                return row;
+            }
+        }
+        return error("{ballerina/sql}DatabaseError", message = "There are no more rows");
+    }
+
+    # Closes the tables of the shards which have not been fully read.
+    public function close() {
+        while (self.current < self.tables.length()) {
+            self.tables[self.current].close();
+            self.current += 1;
+        }
+    }
+};
+
+function selectFromShard(Client shard, string sqlQuery, typedesc? recordType, sql:Param[] parameters)
+                         returns table<record {}>|error {
+    return shard->select(sqlQuery, recordType, ...parameters);
+}
+
+function batchUpdateShard(Client shard, string sqlQuery, sql:Param?[][] rows) returns int[]|error {
+    return shard->batchUpdate(sqlQuery, ...rows);
+}
+
+function hashShard(anydata shardKey, int shardCount) returns int {
+    return hashShardKey(string.convert(shardKey)) % shardCount;
+}
+
+function hashShardKey(string shardKey) returns int = external;
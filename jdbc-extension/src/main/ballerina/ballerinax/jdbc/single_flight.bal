@@ -0,0 +1,53 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Collapses identical concurrent `load` calls of a client. While a call is in flight, identical calls wait for it and
+# share its loaded rows rather than running the query again. Nothing is cached once the call completes.
+type SingleFlightGroup object {
+    function __init() {
+        self.init();
+    }
+
+    function init() = external;
+
+    # Joins the identical call in flight, or makes the caller the leader of a new call.
+    #
+    # + key - Key of the call. Refer `getSingleFlightKey()`
+    # + sharedTable - Table to which the rows of the call in flight are attached
+    # + return - `true` if the caller leads a new call and must complete it with `complete()`, `false` if the rows
+    #            of the call in flight were attached to `sharedTable`, else the `error` of the call in flight
+    function join(string key, LoadedTable sharedTable) returns boolean|error = external;
+
+    # Hands the result of a call led by the caller to the callers which joined it.
+    #
+    # + key - Key of the call
+    # + result - Result of the call
+    function complete(string key, LoadedTable|error result) = external;
+
+    # Returns the number of calls which shared the result of an identical call in flight.
+    #
+    # + return - The number of collapsed calls
+    function getCollapsedCallCount() returns int = external;
+};
+
+# Returns the key of a call, which is the same for calls with the same SQL and parameter values of the same types.
+#
+# + sqlQuery - SQL of the call
+# + parameters - Parameters of the call
+# + return - The key
+function getSingleFlightKey(string sqlQuery, sql:Param[] parameters) returns string = external;
@@ -0,0 +1,218 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+import ballerina/time;
+
+# Window over which `SlowQueryExplainOptions.maxExplainsPerMinute` is enforced.
+const int EXPLAIN_RATE_WINDOW_IN_MILLIS = 60000;
+
+# Options for capturing the execution plans of slow queries.
+#
+# + thresholdInMillis - Latency of a `select` or `update` call at or above which the plan of its SQL is captured
+# + maxExplainsPerMinute - Maximum number of plans captured per minute. Slow calls beyond this are not explained
+# + capacity - Number of captured plans kept. Once full, the oldest plan is dropped for each new plan. A capacity
+#              below 1 is treated as 1
+public type SlowQueryExplainOptions record {|
+    int thresholdInMillis = 1000;
+    int maxExplainsPerMinute = 10;
+    int capacity = 100;
+|};
+
+# Execution plan captured for a slow query.
+#
+# + fingerprint - Fingerprint of the SQL, which is the same for statements that only differ in their literal values,
+#                 white space, comments or the length of their parameter lists
+# + sqlQuery - SQL of the slow call
+# + latencyInMillis - Latency of the slow call
+# + capturedTime - Time at which the plan was captured, in milliseconds since the epoch
+# + plan - Rows returned by the EXPLAIN statement of the database, as a JSON string
+public type SlowQueryPlan record {|
+    string fingerprint;
+    string sqlQuery;
+    int latencyInMillis;
+    int capturedTime;
+    string plan;
+|};
+
+# Runs the EXPLAIN statement of the database for the SQL and parameters of slow `select` and `update` calls, and
+# keeps the plans in a ring buffer. Plans are captured in the background, on a single connection pool of their own,
+# so that they neither delay the slow call nor take connections from the pool of the client.
+type SlowQueryExplainer object {
+    private SlowQueryExplainOptions options;
+    private string explainPrefix;
+    private sql:Client? explainClient = ();
+    private SlowQueryPlan[] plans = [];
+    private int capturedCount = 0;
+    private int windowStart = 0;
+    private int windowCount = 0;
+
+    function __init(ClientEndpointConfig config, SlowQueryExplainOptions options) {
+        self.options = options.clone();
+        if (self.options.capacity < 1) {
+            self.options.capacity = 1;
+        }
+        self.explainPrefix = getExplainPrefix(config.url);
+        if (self.explainPrefix != "") {
+            self.explainClient = createExplainClient(config);
+        }
+    }
+
+    # Captures the plan of a completed call in the background if it was slow, unless the rate limit is reached.
+    #
+    # + sqlQuery - SQL of the call
+    # + parameters - Parameters of the call
+    # + latency - Latency of the call in milliseconds
+    function onQueryCompleted(string sqlQuery, sql:Param[] parameters, int latency) {
+        if (latency < self.options.thresholdInMillis || !self.isExplainable(sqlQuery, parameters)) {
+            return;
+        }
+        int now = time:currentTime().time;
+        boolean permitted = false;
+        lock {
+            if (now - self.windowStart >= EXPLAIN_RATE_WINDOW_IN_MILLIS) {
+                self.windowStart = now;
+                self.windowCount = 0;
+            }
+            if (self.windowCount < self.options.maxExplainsPerMinute) {
+                self.windowCount += 1;
+                permitted = true;
+            }
+        }
+        if (permitted) {
+            _ = start self.explain(sqlQuery, parameters, latency);
+        }
+    }
+
+    # Returns the captured plans, from the oldest to the newest.
+    #
+    # + return - The captured plans
+    function getPlans() returns SlowQueryPlan[] {
+        SlowQueryPlan[] plans = [];
+        lock {
+            int index = self.capturedCount - self.plans.length();
+            while (index < self.capturedCount) {
+                plans[plans.length()] = self.plans[index % self.options.capacity].clone();
+                index += 1;
+            }
+        }
+        return plans;
+    }
+
+    # Switches the plans to be captured from a database with the given configuration.
+    #
+    # + config - The new configuration of the client
+    function reconfigure(ClientEndpointConfig config) {
+        string explainPrefix = getExplainPrefix(config.url);
+        sql:Client? newClient = ();
+        if (explainPrefix != "") {
+            newClient = createExplainClient(config);
+        }
+        sql:Client? oldClient = ();
+        lock {
+            oldClient = self.explainClient;
+            self.explainClient = newClient;
+            self.explainPrefix = explainPrefix;
+        }
+        if (oldClient is sql:Client) {
+            _ = sql:close(oldClient);
+        }
+    }
+
+    function stop() {
+        sql:Client? explainClient = ();
+        lock {
+            explainClient = self.explainClient;
+            self.explainClient = ();
+        }
+        if (explainClient is sql:Client) {
+            _ = sql:close(explainClient);
+        }
+    }
+
+    # Checks whether the plan of a call can be captured. Only SELECT, INSERT, UPDATE and DELETE statements with IN
+    # parameters are explained.
+    function isExplainable(string sqlQuery, sql:Param[] parameters) returns boolean {
+        if (self.explainPrefix == "") {
+            return false;
+        }
+        string statement = sqlQuery.trim().toUpper();
+        if (!(statement.hasPrefix("SELECT") || statement.hasPrefix("WITH") || statement.hasPrefix("INSERT")
+                || statement.hasPrefix("UPDATE") || statement.hasPrefix("DELETE"))) {
+            return false;
+        }
+        foreach var param in parameters {
+            if (param is sql:Parameter) {
+                string? direction = param.direction;
+                if (direction is string && direction != sql:DIRECTION_IN) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    function explain(string sqlQuery, sql:Param[] parameters, int latency) {
+        sql:Client? explainClient = ();
+        string explainPrefix = "";
+        lock {
+            explainClient = self.explainClient;
+            explainPrefix = self.explainPrefix;
+        }
+        if (explainClient is ()) {
+            return;
+        }
+        var result = explainClient->select(explainPrefix + sqlQuery, (), loadToMemory = true, ...parameters);
+        if (result is error) {
+            return;
+        }
+        string plan = "";
+        var planJson = json.convert(result);
+        if (planJson is json) {
+            plan = planJson.toString();
+        }
+        SlowQueryPlan capturedPlan = {
+            fingerprint: getQueryFingerprint(sqlQuery),
+            sqlQuery: sqlQuery,
+            latencyInMillis: latency,
+            capturedTime: time:currentTime().time,
+            plan: plan
+        };
+        lock {
+            self.plans[self.capturedCount % self.options.capacity] = capturedPlan;
+            self.capturedCount += 1;
+        }
+    }
+};
+
+# Returns the prefix which turns a statement into the EXPLAIN statement of the database of the given URL.
+#
+# + url - JDBC URL of the database
+# + return - The prefix, or an empty string if plans are not captured for the database
+function getExplainPrefix(string url) returns string {
+    if (url.hasPrefix("jdbc:hsqldb:")) {
+        return "EXPLAIN PLAN FOR ";
+    } else if (url.hasPrefix("jdbc:h2:") || url.hasPrefix("jdbc:mysql:") || url.hasPrefix("jdbc:postgresql:")) {
+        return "EXPLAIN ";
+    }
+    return "";
+}
+
+function createExplainClient(ClientEndpointConfig config) returns sql:Client {
+    return createClientWithPool(config, { maximumPoolSize: 1, minimumIdle: 0 });
+}
+
+function getQueryFingerprint(string sqlQuery) returns string = external;
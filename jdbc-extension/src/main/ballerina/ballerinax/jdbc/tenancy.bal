@@ -0,0 +1,35 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+# Options of a tenant client, which shares the connection pool of the clients of other tenants on the same database
+# server. Create the clients of all the tenants with the same URL, credentials and `sql:PoolOptions` record (or with
+# the global pool), so that they share one pool. The schema and catalog of a connection are switched when a tenant
+# borrows a connection which was last used by another tenant. A tenant client cannot use an XA pool, since XA
+# connections are not switched, and creating or reconfiguring a client with both fails with an error.
+#
+# + schema - Schema of the tenant. If not given, the schema of the connections is not switched
+# + catalog - Catalog of the tenant, e.g. the database of the tenant on MySQL. If not given, the catalog of the
+#             connections is not switched
+# + maxConcurrentCalls - Maximum number of connections of the shared pool the tenant holds at a time, so that one
+#                        tenant cannot starve the others. Set to 0 for no limit
+# + acquireTimeoutInMillis - Maximum time a call waits for a connection while the tenant holds `maxConcurrentCalls`
+#                            connections
+public type TenantOptions record {|
+    string schema?;
+    string catalog?;
+    int maxConcurrentCalls = 0;
+    int acquireTimeoutInMillis = 30000;
+|};
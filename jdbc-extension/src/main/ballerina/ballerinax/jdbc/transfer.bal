@@ -0,0 +1,56 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Comma separated values, with a header row of the column names. SQL NULL is written as an empty field and an empty
+# string as `""`.
+public const EXPORT_CSV = "CSV";
+# One JSON object per row and line. NaN and infinite floating point values, which are not valid JSON numbers, are
+# written as strings.
+public const EXPORT_NDJSON = "NDJSON";
+
+# Format of a file written by `Client.exportTo()`.
+public type ExportFormat EXPORT_CSV|EXPORT_NDJSON;
+
+function exportQuery(sql:Client sqlClient, string sqlQuery, sql:Param[] parameters, string path, string format)
+                     returns int|error = external;
+
+# Options of `Client.importFrom()`.
+#
+# + batchSize - Number of records inserted and committed as one batch
+# + parallelism - Number of batches inserted in parallel, each on a connection of its own. With 1, the batches are
+#                 inserted one after the other while the file is parsed
+# + quarantinePath - Path of a CSV file to write the records which could not be converted or inserted to, together
+#                    with their error. If not given, such records are only counted
+public type ImportOptions record {|
+    int batchSize = 1000;
+    int parallelism = 1;
+    string quarantinePath?;
+|};
+
+# Outcome of `Client.importFrom()`.
+#
+# + importedRowCount - Number of records inserted into the table
+# + quarantinedRowCount - Number of records which could not be converted or inserted
+public type ImportResult record {|
+    int importedRowCount;
+    int quarantinedRowCount;
+|};
+
+function importCsv(sql:Client sqlClient, string path, string tableName, string[] fileColumns,
+                   string[] tableColumns, int batchSize, int parallelism, string quarantinePath)
+                   returns int[]|error = external;
@@ -0,0 +1,61 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Options for validating the connections borrowed from the connection pool of a client.
+#
+# + skipValidationWindowInMillis - A connection which was returned to the pool within this time is handed out again
+#                                  without validation. Other connections are validated with the `isValid` check of the
+#                                  driver, and broken connections are discarded. The connection pool validates
+#                                  connections which were not used within its alive bypass window of 500 milliseconds
+#                                  itself, so such connections are not validated again and a longer window only skips
+#                                  the validation of connections within 500 milliseconds
+# + validationTimeoutInSeconds - Timeout of the `isValid` check
+# + idleValidationIntervalInMillis - Interval at which the idle connections of the pool are validated in the
+#                                    background, while none of its connections is in use. Only as many connections
+#                                    as the pool reports idle are borrowed for this. Set to 0 to disable
+# + fatalSqlStates - SQLStates, or prefixes of them, of errors after which a connection is not reused. Once such an
+#                    error is seen, the client switches over to a new connection pool and closes the previous pool
+#                    once the calls in progress on it have completed, as with `Client.reconfigure()`. A connection which
+#                    fails validation is discarded without replacing the pool
+public type ValidationOptions record {|
+    int skipValidationWindowInMillis = 500;
+    int validationTimeoutInSeconds = 1;
+    int idleValidationIntervalInMillis = 30000;
+    string[] fatalSqlStates = ["08", "57P01", "57P02", "57P03", "01002"];
+|};
+
+# Counts of the connection validation of a client, including the connection pools it replaced. Refer
+# `ValidationOptions`.
+#
+# + validatedCount - Number of connections validated with the `isValid` check. Connections which were validated by
+#                    the connection pool itself are not counted
+# + skippedCount - Number of connections handed out without validation, as they were used within the skip window
+# + evictedCount - Number of connections discarded as broken
+# + poolRenewalCount - Number of times the client switched over to a new connection pool after a fatal error
+public type ValidationStats record {|
+    int validatedCount;
+    int skippedCount;
+    int evictedCount;
+    int poolRenewalCount;
+|};
+
+function takeFatalError(sql:Client sqlClient) returns boolean = external;
+
+function getValidationCounts(sql:Client sqlClient) returns int[] = external;
+
+function inheritValidationCounts(sql:Client sqlClient, sql:Client previousClient) = external;
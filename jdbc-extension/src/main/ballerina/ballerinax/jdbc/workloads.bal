@@ -0,0 +1,179 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Name of the workload class of the calls made directly on a `Client`.
+public const DEFAULT_WORKLOAD_CLASS = "default";
+
+# A class of calls which share the same latency expectations, e.g. interactive OLTP calls or reporting queries.
+#
+# + priority - Priority of the calls of the class when they wait for a connection of the shared pool. Waiting calls
+#              with a higher priority are admitted first, and calls with the same priority in arrival order
+# + poolOptions - Properties of a connection pool of the class's own. If given, the calls of the class use this pool
+#                 instead of the pool of the client and are not queued with the calls of other classes
+# + queueTimeoutInMillis - Maximum time a call of the class waits to be admitted to the shared pool
+public type WorkloadClass record {|
+    int priority = 0;
+    sql:PoolOptions poolOptions?;
+    int queueTimeoutInMillis = 30000;
+|};
+
+# Options for separating the calls of different workload classes on a client.
+#
+# + maxConcurrentCalls - Maximum number of calls running concurrently on the pool of the client. Set this to the
+#                        maximum pool size, so that calls queue by priority in the client rather than in the pool. A
+#                        `select` whose table is not loaded to memory runs until the table is closed or fully read,
+#                        and a coalesced `update` only counts while its batch is executed
+# + classes - Workload classes by name. The class named `DEFAULT_WORKLOAD_CLASS` applies to the calls made directly on
+#             the client. Calls of other classes are made on the client returned by `Client.getWorkloadClient()`
+public type WorkloadOptions record {|
+    int maxConcurrentCalls = 10;
+    map<WorkloadClass> classes = {};
+|};
+
+# SQL client a call is made with, as returned by `Client.acquireClient()`.
+#
+# + sqlClient - The SQL client
+# + generation - Generation of the connection pools of the client the SQL client belongs to
+# + gated - Indicates whether the call was admitted by the priority gate and has to return its permit
+type ClientLease record {|
+    sql:Client sqlClient;
+    int generation;
+    boolean gated;
+|};
+
+# Watches the connection a `select` call borrows for a table which is not loaded to memory. Such a table keeps its
+# connection until it is closed or all of its rows are read, so the lease of the call is only released once the
+# connection is returned to its pool.
+type ConnectionWatch object {
+    function __init() {
+        self.init();
+    }
+
+    function init() = external;
+
+    # Makes the next connection borrowed by the current call the watched connection.
+    function arm() = external;
+
+    # Stops waiting for the current call to borrow a connection.
+    #
+    # + return - `true` if the watched connection is still borrowed, else `false` if it was returned or no connection
+    #            was borrowed
+    function disarm() returns boolean = external;
+
+    # Waits until the watched connection is returned to its pool, without holding a worker thread.
+    function awaitReturn() = external;
+};
+
+# Admits calls to a connection pool by priority, once fewer than the maximum number of concurrent calls are running.
+type PriorityGate object {
+    function __init(int maxConcurrentCalls) {
+        self.init(maxConcurrentCalls);
+    }
+
+    function init(int maxConcurrentCalls) = external;
+
+    # Waits until the call is admitted or the timeout elapses.
+    #
+    # + priority - Priority of the call
+    # + timeoutInMillis - Maximum time to wait
+    # + return - `true` if the call was admitted, else `false`
+    function acquire(int priority, int timeoutInMillis) returns boolean = external;
+
+    # Returns the permit of an admitted call once it has completed.
+    function release() = external;
+};
+
+# Represents the calls of a workload class on a JDBC client. Calls are made with the connection pool and priority of
+# the class. The client is stopped together with the JDBC client it was obtained from.
+public type WorkloadClient client object {
+    *sql:AbstractSQLClient;
+    private Client dbClient;
+    private string workloadClass;
+
+    # Gets called when the workload client is obtained via `Client.getWorkloadClient()`.
+    public function __init(Client dbClient, string workloadClass) {
+        self.dbClient = dbClient;
+        self.workloadClass = workloadClass;
+    }
+
+    # The call remote function implementation to invoke stored procedures/functions as a call of the workload class.
+    #
+    # + sqlQuery - The SQL stored procedure to execute
+    # + recordType - Array of record types of the returned tables if there is any
+    # + parameters - The parameters to be passed to the procedure/function call. The number of parameters is variable
+    # + return - A `table[]` if there are tables returned by the call action and else nil,
+    #            `error` will be returned if there is any error
+    public remote function call(@sensitive string sqlQuery, typedesc[]? recordType, sql:Param... parameters)
+                               returns @tainted table<record {}>[]|()|error {
+        return self.dbClient.doCall(sqlQuery, recordType, parameters, self.workloadClass);
+    }
+
+    # The select remote function implementation to select data from tables as a call of the workload class.
+    #
+    # + sqlQuery - SQL query to execute
+    # + recordType - Type of the returned table
+    # + loadToMemory - Indicates whether to load the retrieved data to memory or not
+    # + parameters - The parameters to be passed to the select query. The number of parameters is variable
+    # + return - A `table` returned by the sql query statement else `error` will be returned if there is any error
+    public remote function select(@sensitive string sqlQuery, typedesc? recordType, boolean loadToMemory = false,
+                                  sql:Param... parameters) returns @tainted table<record {}>|error {
+        return self.dbClient.doSelect(sqlQuery, recordType, loadToMemory, parameters, self.workloadClass);
+    }
+
+    # The update remote function implementation to update data and schema of the database as a call of the workload
+    # class.
+    #
+    # + sqlQuery - SQL statement to execute
+    # + keyColumns - Names of auto generated columns for which the auto generated key values are returned
+    # + parameters - The parameters to be passed to the update query. The number of parameters is variable
+    # + return - `sql:UpdateResult` with the updated row count and key column values,
+    #             else  `error` will be returned if there is any error
+    public remote function update(@sensitive string sqlQuery, string[]? keyColumns = (), sql:Param... parameters)
+                               returns sql:UpdateResult|error {
+        return self.dbClient.doUpdate(sqlQuery, keyColumns, parameters, self.workloadClass);
+    }
+
+    # The batchUpdate remote function implementation to batch data insert as a call of the workload class.
+    #
+    # + sqlQuery - SQL statement to execute
+    # + parameters - Variable number of parameter arrays each representing the set of parameters of belonging to each
+    #                individual update
+    # + return - An `int[]` with the update count of each individual update, else an `error` if there is any error
+    public remote function batchUpdate(@sensitive string sqlQuery, sql:Param?[]... parameters) returns int[]|error {
+        return self.dbClient.doBatchUpdate(sqlQuery, parameters, self.workloadClass);
+    }
+};
+
+# Creates the connection pools of the workload classes which have pool options of their own.
+#
+# + config - Configuration of the client
+# + classes - Workload classes by name
+# + return - The SQL clients of the pools by workload class name
+function createWorkloadClients(ClientEndpointConfig config, map<WorkloadClass> classes) returns map<sql:Client> {
+    map<sql:Client> workloadClients = {};
+    foreach var name in classes.keys() {
+        var workload = classes[name];
+        if (workload is WorkloadClass) {
+            var poolOptions = workload.poolOptions;
+            if (poolOptions is sql:PoolOptions) {
+                workloadClients[name] = createClientWithPool(config, poolOptions);
+            }
+        }
+    }
+    return workloadClients;
+}
@@ -0,0 +1,183 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/sql;
+
+# Update count of a batch item which failed to execute.
+const int EXECUTE_FAILED = -3;
+
+# Options for coalescing concurrent single row updates into batches.
+#
+# + maxDelayInMillis - Maximum time an update waits for other updates with the same SQL before they are executed
+#                      together as a batch
+# + maxBatchSize - Maximum number of updates executed as one batch. A batch is executed as soon as it is full
+public type WriteCoalescingOptions record {|
+    int maxDelayInMillis = 5;
+    int maxBatchSize = 100;
+|};
+
+# Placement of a coalesced update in its batch, as recorded by `WriteCoalescer.enlist()`.
+#
+# + batchId - ID of the batch
+# + position - Position of the update in the batch
+# + leader - Indicates whether the update started the batch and has to execute it once the delay is over
+# + sealed - Indicates whether the update filled the batch and has to execute it right away
+type CoalescedWrite record {|
+    int batchId = -1;
+    int position = -1;
+    boolean leader = false;
+    boolean sealed = false;
+|};
+
+# Statistics of the batches executed by a client with `writeCoalescing` enabled.
+#
+# + batchCount - Number of batches which were executed
+# + updateCount - Number of updates which were executed as part of these batches
+# + largestBatchSize - Number of updates of the largest of these batches
+public type WriteCoalescingStats record {|
+    int batchCount = 0;
+    int updateCount = 0;
+    int largestBatchSize = 0;
+|};
+
+# Groups concurrent `update` calls with identical SQL into `batchUpdate` calls.
+type WriteCoalescer object {
+    private WriteCoalescingOptions options;
+
+    function __init(WriteCoalescingOptions options) {
+        self.options = options;
+        self.init(options.maxBatchSize);
+    }
+
+    # Checks whether an update can be coalesced. Only INSERT, UPDATE and DELETE statements with IN parameters which
+    # are not executed within a transaction are coalesced.
+    #
+    # + sqlQuery - SQL statement of the update
+    # + parameters - Parameters of the update
+    # + return - `true` if the update can be coalesced
+    function accepts(string sqlQuery, sql:Param[] parameters) returns boolean {
+        string statement = sqlQuery.trim().toUpper();
+        if (!(statement.hasPrefix("INSERT") || statement.hasPrefix("UPDATE") || statement.hasPrefix("DELETE"))) {
+            return false;
+        }
+        foreach var param in parameters {
+            if (param is sql:Parameter) {
+                string? direction = param.direction;
+                if (direction is string && direction != sql:DIRECTION_IN) {
+                    return false;
+                }
+            }
+        }
+        return !isInTransaction();
+    }
+
+    # Executes an update as part of a batch and returns its own result. A batch is executed in a local transaction,
+    # which is rolled back if any of its items fails. The updates of a rolled back batch are then executed on their
+    # own, so that each caller gets its own error and no update is applied twice. A lease of the client is only taken to
+    # execute the batch, so that updates waiting for their batch neither hold a connection nor a permit of the
+    # priority gate of the client.
+    #
+    # + dbClient - Client to take the lease to execute the batch from
+    # + workloadClass - Workload class of the update
+    # + sqlQuery - SQL statement of the update
+    # + parameters - Parameters of the update
+    # + return - `sql:UpdateResult` with the updated row count, else `error` if the update failed
+    function update(Client dbClient, string workloadClass, string sqlQuery, sql:Param[] parameters)
+                    returns sql:UpdateResult|error {
+        CoalescedWrite write = {};
+        self.enlist(sqlQuery, parameters, write);
+        if (write.sealed) {
+            self.flush(dbClient, workloadClass, sqlQuery, write.batchId, write.position + 1);
+        } else if (write.leader) {
+            self.awaitWindow(write.batchId, self.options.maxDelayInMillis);
+            int rowCount = self.seal(write.batchId);
+            if (rowCount > 0) {
+                self.flush(dbClient, workloadClass, sqlQuery, write.batchId, rowCount);
+            }
+        }
+        int updateCount = self.awaitResult(write.batchId, write.position);
+        if (updateCount == EXECUTE_FAILED) {
+            ClientLease lease = check dbClient.acquireClient(workloadClass);
+            var result = lease.sqlClient->update(sqlQuery, ...parameters);
+            dbClient.releaseClient(lease);
+            return result;
+        }
+        sql:UpdateResult result = { updatedRowCount: updateCount, generatedKeys: {} };
+        return result;
+    }
+
+    function flush(Client dbClient, string workloadClass, string sqlQuery, int batchId, int rowCount) {
+        sql:Param?[][] rows = [];
+        int position = 0;
+        while (position < rowCount) {
+            rows[position] = self.getRow(batchId, position);
+            position += 1;
+        }
+        int[]? batchCounts = ();
+        var lease = dbClient.acquireClient(workloadClass);
+        if (lease is ClientLease) {
+            int[] executedCounts = [];
+            transaction with retries = 0 {
+                var updateCounts = lease.sqlClient->batchUpdate(sqlQuery, ...rows);
+                if (updateCounts is int[] && isFullyExecuted(updateCounts, rowCount)) {
+                    executedCounts = updateCounts;
+                } else {
+                    abort;
+                }
+            } committed {
+                batchCounts = executedCounts;
+            }
+            dbClient.releaseClient(lease);
+        }
+        self.complete(batchId, batchCounts);
+    }
+
+    function init(int maxBatchSize) = external;
+
+    function enlist(string sqlQuery, sql:Param[] parameters, CoalescedWrite write) = external;
+
+    function awaitWindow(int batchId, int delayInMillis) = external;
+
+    function seal(int batchId) returns int = external;
+
+    function getRow(int batchId, int position) returns sql:Param[] = external;
+
+    function complete(int batchId, int[]? updateCounts) = external;
+
+    function awaitResult(int batchId, int position) returns int = external;
+
+    function getStats() returns int[] = external;
+};
+
+# Checks whether every item of a batch was executed. Drivers which continue after a failed item report it with
+# `EXECUTE_FAILED`, while others return fewer update counts than items.
+#
+# + updateCounts - Update counts returned for the batch
+# + rowCount - Number of items of the batch
+# + return - `true` if there is a successful update count for every item
+function isFullyExecuted(int[] updateCounts, int rowCount) returns boolean {
+    if (updateCounts.length() != rowCount) {
+        return false;
+    }
+    foreach var updateCount in updateCounts {
+        if (updateCount == EXECUTE_FAILED) {
+            return false;
+        }
+    }
+    return true;
+}
+
+function isInTransaction() returns boolean = external;
@@ -0,0 +1,170 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.BType;
+import org.ballerinalang.model.types.TypeTags;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plans how the array values of the parameters of a query are bound, i.e. which are bound as native SQL arrays and
+ * which are expanded into padded lists. Only arrays which are the sole member of an {@code IN (?)} list are bound
+ * either way, since padding an array elsewhere, e.g. in a {@code VALUES (?)} list, would change the statement.
+ * <p>
+ * Plans are cached by query and the value types of the parameters of its {@code IN} lists, so a statement which is
+ * executed repeatedly with parameters of the same types is planned once. A call with parameters of other types gets
+ * a plan of its own. The parameters of a query without {@code IN (?)} lists are not looked at.
+ *
+ * @since 0.992.0
+ */
+public final class ArrayBindingPlanner {
+
+    /**
+     * The parameter is bound as it is.
+     */
+    public static final long BIND_AS_IS = 0;
+    /**
+     * The array value of the parameter is bound as a single SQL array and its {@code IN (?)} list is rewritten.
+     */
+    public static final long BIND_AS_NATIVE_ARRAY = 1;
+    /**
+     * The array value of the parameter is expanded into an {@code IN} list, padded up to the next power of two.
+     */
+    public static final long BIND_AS_PADDED_LIST = 2;
+
+    private static final int PLAN_CACHE_SIZE = 1024;
+    private static final long[] EMPTY_PLAN = new long[0];
+    private static final String PARAMETER_TYPE_NAME = "Parameter";
+    private static final String SQL_TYPE_FIELD = "sqlType";
+    private static final String VALUE_FIELD = "value";
+    private static final String DIRECTION_FIELD = "direction";
+    private static final String SQL_TYPE_ARRAY = "ARRAY";
+    private static final String DIRECTION_IN = "IN";
+    private static final char NOT_EXPANDABLE = '.';
+
+    private static final Map<String, long[]> PLAN_CACHE = new ConcurrentHashMap<>();
+
+    private ArrayBindingPlanner() {
+    }
+
+    /**
+     * Returns the binding plan of the given parameters of a query.
+     *
+     * @param query        SQL query
+     * @param parameters   parameters of the query
+     * @param nativeArrays whether arrays which are the sole member of an {@code IN (?)} list may be bound as native
+     *                     SQL arrays
+     * @return an empty plan if all the parameters are bound as they are, else one of {@link #BIND_AS_IS},
+     * {@link #BIND_AS_NATIVE_ARRAY} and {@link #BIND_AS_PADDED_LIST} for each parameter
+     */
+    public static long[] getPlan(String query, BValueArray parameters, boolean nativeArrays) {
+        long[] inListPlaceholders = SQLQueryUtils.findInListPlaceholders(query);
+        if (inListPlaceholders.length == 0) {
+            return EMPTY_PLAN;
+        }
+        // Only the parameters of the IN lists are looked at, as the other parameters are bound as they are.
+        int parameterCount = (int) parameters.size();
+        char[] signature = new char[inListPlaceholders.length + 1];
+        signature[0] = nativeArrays ? '1' : '0';
+        boolean expandableFound = false;
+        for (int i = 0; i < inListPlaceholders.length; i++) {
+            int index = (int) inListPlaceholders[i];
+            signature[i + 1] = index < parameterCount ? getSignature(parameters.getRefValue(index)) : NOT_EXPANDABLE;
+            expandableFound |= signature[i + 1] != NOT_EXPANDABLE;
+        }
+        if (!expandableFound) {
+            return EMPTY_PLAN;
+        }
+        String planKey = String.valueOf(signature) + ' ' + query;
+        long[] cached = PLAN_CACHE.get(planKey);
+        if (cached != null && cached.length == parameterCount) {
+            return cached;
+        }
+        long[] plan = new long[parameterCount];
+        for (int i = 0; i < inListPlaceholders.length; i++) {
+            int index = (int) inListPlaceholders[i];
+            char parameterSignature = signature[i + 1];
+            if (parameterSignature == NOT_EXPANDABLE) {
+                continue;
+            }
+            if (nativeArrays && isNativelyBindable(parameterSignature)) {
+                plan[index] = BIND_AS_NATIVE_ARRAY;
+            } else {
+                plan[index] = BIND_AS_PADDED_LIST;
+            }
+        }
+        SQLQueryUtils.putBounded(PLAN_CACHE, planKey, plan, PLAN_CACHE_SIZE);
+        return plan;
+    }
+
+    /**
+     * Returns a character identifying the element type of the array value of a parameter which can be expanded, or
+     * {@link #NOT_EXPANDABLE}. Only non empty arrays of IN parameters which do not have the ARRAY SQL type can be
+     * expanded. Byte arrays are bound as binary values, but arrays of byte arrays can be expanded.
+     */
+    private static char getSignature(BRefType parameter) {
+        if (!(parameter instanceof BMap) || !PARAMETER_TYPE_NAME.equals(parameter.getType().getName())) {
+            return NOT_EXPANDABLE;
+        }
+        BMap<String, BValue> record = (BMap<String, BValue>) parameter;
+        BValue sqlType = record.get(SQL_TYPE_FIELD);
+        if (sqlType instanceof BString && SQL_TYPE_ARRAY.equals(sqlType.stringValue())) {
+            return NOT_EXPANDABLE;
+        }
+        BValue direction = record.get(DIRECTION_FIELD);
+        if (direction instanceof BString && !DIRECTION_IN.equals(direction.stringValue())) {
+            return NOT_EXPANDABLE;
+        }
+        BValue value = record.get(VALUE_FIELD);
+        if (!(value instanceof BValueArray) || ((BValueArray) value).size() == 0) {
+            return NOT_EXPANDABLE;
+        }
+        BType elementType = ((BArrayType) value.getType()).getElementType();
+        switch (elementType.getTag()) {
+        case TypeTags.INT_TAG:
+            return 'i';
+        case TypeTags.STRING_TAG:
+            return 's';
+        case TypeTags.FLOAT_TAG:
+            return 'f';
+        case TypeTags.BOOLEAN_TAG:
+            return 'b';
+        case TypeTags.DECIMAL_TAG:
+            return 'd';
+        case TypeTags.ARRAY_TAG:
+            BType nestedElementType = ((BArrayType) elementType).getElementType();
+            return nestedElementType.getTag() == TypeTags.BYTE_TAG ? 'y' : NOT_EXPANDABLE;
+        default:
+            return NOT_EXPANDABLE;
+        }
+    }
+
+    private static boolean isNativelyBindable(char signature) {
+        return signature != 'y';
+    }
+}
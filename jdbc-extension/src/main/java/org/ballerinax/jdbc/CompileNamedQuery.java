@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+import java.sql.SQLException;
+
+/**
+ * Rewrites a query with named parameter markers with positional parameter markers, and records the rewritten query
+ * and the names of its markers in the given record, with a single lookup of the compiled query.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "compileNamedQuery",
+        args = {@Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "namedQuery", type = TypeKind.RECORD, structType = "NamedQuery")},
+        returnType = {@ReturnType(type = TypeKind.NIL), @ReturnType(type = TypeKind.ERROR)}
+)
+public class CompileNamedQuery extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        String sqlQuery = context.getStringArgument(0);
+        BMap<String, BValue> namedQuery = (BMap<String, BValue>) context.getRefArgument(0);
+        try {
+            SQLQueryUtils.NamedQuery compiledQuery = SQLQueryUtils.compileNamedQuery(sqlQuery);
+            namedQuery.put("positionalQuery", new BString(compiledQuery.getPositionalQuery()));
+            namedQuery.put("parameterNames", new BValueArray(compiledQuery.getParameterNames()));
+            context.setReturnValues();
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+}
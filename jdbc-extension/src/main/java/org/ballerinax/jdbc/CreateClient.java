@@ -21,13 +21,20 @@ package org.ballerinax.jdbc;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
 import org.ballerinalang.database.sql.Constants;
+import org.ballerinalang.database.sql.SQLDatasource;
 import org.ballerinalang.database.sql.SQLDatasourceUtils;
 import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BMap;
 import org.ballerinalang.model.values.BRefType;
 import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.ballerinax.jdbc.lease.WatchingDatasource;
+import org.ballerinax.jdbc.tenancy.TenantDatasource;
+import org.ballerinax.jdbc.validation.ValidatingDatasource;
 
 import java.util.UUID;
 
@@ -46,6 +53,17 @@ import java.util.UUID;
 )
 public class CreateClient extends BlockingNativeCallableUnit {
 
+    private static final String TENANT_FIELD = "tenant";
+    private static final String SCHEMA_FIELD = "schema";
+    private static final String CATALOG_FIELD = "catalog";
+    private static final String MAX_CONCURRENT_CALLS_FIELD = "maxConcurrentCalls";
+    private static final String ACQUIRE_TIMEOUT_FIELD = "acquireTimeoutInMillis";
+    private static final String VALIDATION_FIELD = "validation";
+    private static final String SKIP_VALIDATION_WINDOW_FIELD = "skipValidationWindowInMillis";
+    private static final String VALIDATION_TIMEOUT_FIELD = "validationTimeoutInSeconds";
+    private static final String IDLE_VALIDATION_INTERVAL_FIELD = "idleValidationIntervalInMillis";
+    private static final String FATAL_SQL_STATES_FIELD = "fatalSqlStates";
+
     @Override
     public void execute(Context context) {
         BMap<String, BValue> clientEndpointConfig = (BMap<String, BValue>) context.getRefArgument(0);
@@ -53,6 +71,40 @@ public class CreateClient extends BlockingNativeCallableUnit {
         BMap<String, BValue> sqlClient = SQLDatasourceUtils
                 .createSQLDBClient(context, clientEndpointConfig, globalPoolOptions);
         sqlClient.addNativeData(Constants.CONNECTOR_ID_KEY, UUID.randomUUID().toString());
+        BValue tenant = clientEndpointConfig.get(TENANT_FIELD);
+        SQLDatasource pooledDatasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+        if (tenant instanceof BMap && pooledDatasource.isXAConnection()) {
+            // XA connections are borrowed from the XA datasource of the pool by the transaction manager, which would
+            // bypass the schema switch and let a tenant read the data of another tenant.
+            pooledDatasource.decrementClientCounterAndAttemptPoolShutdown();
+            throw new BallerinaException("error in creating the client: a tenant client cannot use an XA pool");
+        }
+        BValue validation = clientEndpointConfig.get(VALIDATION_FIELD);
+        if (validation instanceof BMap) {
+            BMap<String, BValue> validationOptions = (BMap<String, BValue>) validation;
+            ValidatingDatasource validatingDatasource = new ValidatingDatasource(pooledDatasource,
+                    ((BInteger) validationOptions.get(SKIP_VALIDATION_WINDOW_FIELD)).intValue(),
+                    (int) ((BInteger) validationOptions.get(VALIDATION_TIMEOUT_FIELD)).intValue(),
+                    ((BInteger) validationOptions.get(IDLE_VALIDATION_INTERVAL_FIELD)).intValue(),
+                    ((BValueArray) validationOptions.get(FATAL_SQL_STATES_FIELD)).getStringArray());
+            sqlClient.addNativeData(Constants.SQL_CLIENT, validatingDatasource);
+            sqlClient.addNativeData(ValidatingDatasource.NATIVE_DATA_KEY, validatingDatasource);
+        }
+        if (tenant instanceof BMap) {
+            BMap<String, BValue> tenantOptions = (BMap<String, BValue>) tenant;
+            SQLDatasource sharedDatasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+            sqlClient.addNativeData(Constants.SQL_CLIENT, new TenantDatasource(sharedDatasource,
+                    getString(tenantOptions, SCHEMA_FIELD), getString(tenantOptions, CATALOG_FIELD),
+                    (int) ((BInteger) tenantOptions.get(MAX_CONCURRENT_CALLS_FIELD)).intValue(),
+                    ((BInteger) tenantOptions.get(ACQUIRE_TIMEOUT_FIELD)).intValue()));
+        }
+        SQLDatasource datasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+        sqlClient.addNativeData(Constants.SQL_CLIENT, new WatchingDatasource(datasource));
         context.setReturnValues(sqlClient);
     }
+
+    private static String getString(BMap<String, BValue> record, String field) {
+        BValue value = record.get(field);
+        return value == null ? null : value.stringValue();
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+/**
+ * Returns the cached binding plan of the array values of the parameters of a query.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "getArrayBindingPlan",
+        args = {@Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "parameters", type = TypeKind.ARRAY),
+                @Argument(name = "nativeArrays", type = TypeKind.BOOLEAN)},
+        returnType = {@ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.INT)}
+)
+public class GetArrayBindingPlan extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        String sqlQuery = context.getStringArgument(0);
+        BValueArray parameters = (BValueArray) context.getRefArgument(0);
+        boolean nativeArrays = context.getBooleanArgument(0);
+        context.setReturnValues(new BValueArray(ArrayBindingPlanner.getPlan(sqlQuery, parameters, nativeArrays)));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+/**
+ * Returns the fingerprint of a query, which is the same for queries which only differ in their literal values.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "getQueryFingerprint",
+        args = {@Argument(name = "sqlQuery", type = TypeKind.STRING)},
+        returnType = {@ReturnType(type = TypeKind.STRING)}
+)
+public class GetQueryFingerprint extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        String sqlQuery = context.getStringArgument(0);
+        context.setReturnValues(new BString(SQLQueryUtils.fingerprint(sqlQuery)));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+/**
+ * Returns a non negative hash of a shard key. The hash of a key is the same across JVMs and releases, so that keys
+ * keep routing to the same shard.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "hashShardKey",
+        args = {@Argument(name = "shardKey", type = TypeKind.STRING)},
+        returnType = {@ReturnType(type = TypeKind.INT)}
+)
+public class HashShardKey extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        String shardKey = context.getStringArgument(0);
+        // String.hashCode() is fixed by the Java specification. Mix its bits so that sequential keys spread evenly.
+        int hash = shardKey.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        context.setReturnValues(new BInteger(hash & Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Utilities for scanning and rewriting SQL query text on the client side.
+ *
+ * @since 0.992.0
+ */
+public final class SQLQueryUtils {
+
+    private static final int QUERY_CACHE_SIZE = 1024;
+    private static final String ANY_ARRAY = "= ANY (?)";
+    private static final String ALL_ARRAY = "<> ALL (?)";
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Map<String, long[]> IN_LIST_PLACEHOLDER_CACHE = createCache(QUERY_CACHE_SIZE);
+    private static final Map<String, String> ARRAY_REWRITE_CACHE = createCache(QUERY_CACHE_SIZE);
+    private static final Map<String, NamedQuery> NAMED_QUERY_CACHE = createCache(QUERY_CACHE_SIZE);
+
+    private SQLQueryUtils() {
+    }
+
+    /**
+     * Creates a size bounded, thread safe cache which evicts the least recently used entry once full.
+     *
+     * @param maxSize maximum number of entries kept in the cache
+     * @param <K>     type of the keys
+     * @param <V>     type of the values
+     * @return the cache
+     */
+    static <K, V> Map<K, V> createCache(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Puts an entry into a concurrent cache, which is read without locking, evicting an arbitrary entry once the
+     * cache is full.
+     *
+     * @param cache   the cache
+     * @param key     key of the entry
+     * @param value   value of the entry
+     * @param maxSize maximum number of entries kept in the cache
+     * @param <K>     type of the keys
+     * @param <V>     type of the values
+     */
+    static <K, V> void putBounded(Map<K, V> cache, K key, V value, int maxSize) {
+        if (cache.size() >= maxSize) {
+            Iterator<K> keys = cache.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        cache.put(key, value);
+    }
+
+    /**
+     * Finds the offsets of the positional parameter markers ({@code ?}) of a query, skipping quoted literals,
+     * quoted identifiers and comments.
+     *
+     * @param query SQL query
+     * @return offsets of the parameter markers in the order they appear
+     */
+    public static List<Integer> findPlaceholders(String query) {
+        List<Integer> placeholders = new ArrayList<>();
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            char c = query.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(query, i, c);
+            } else if (c == '-' && i + 1 < length && query.charAt(i + 1) == '-') {
+                int end = query.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && query.charAt(i + 1) == '*') {
+                int end = query.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                if (c == '?') {
+                    placeholders.add(i);
+                }
+                i++;
+            }
+        }
+        return placeholders;
+    }
+
+    /**
+     * Returns the offset just after the closing quote of a quoted section which starts at the given offset.
+     * A doubled quote character is treated as an escaped quote.
+     */
+    static int skipQuoted(String query, int start, char quote) {
+        int length = query.length();
+        int i = start + 1;
+        while (i < length) {
+            if (query.charAt(i) == quote) {
+                if (i + 1 < length && query.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the indexes of the parameter markers which are the sole member of an {@code IN} list, i.e. which
+     * appear as {@code IN (?)} or {@code NOT IN (?)}.
+     *
+     * @param query SQL query
+     * @return indexes (in parameter order) of the sole {@code IN} list parameter markers
+     */
+    public static long[] findInListPlaceholders(String query) {
+        long[] cached = IN_LIST_PLACEHOLDER_CACHE.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        List<Integer> placeholders = findPlaceholders(query);
+        List<Long> inListPlaceholders = new ArrayList<>();
+        for (int index = 0; index < placeholders.size(); index++) {
+            if (findInList(query, placeholders.get(index)) != null) {
+                inListPlaceholders.add((long) index);
+            }
+        }
+        long[] indexes = new long[inListPlaceholders.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = inListPlaceholders.get(i);
+        }
+        IN_LIST_PLACEHOLDER_CACHE.put(query, indexes);
+        return indexes;
+    }
+
+    /**
+     * Rewrites the {@code IN (?)} lists of the given parameter markers as comparisons against a single array
+     * parameter, i.e. {@code IN (?)} becomes {@code = ANY (?)} and {@code NOT IN (?)} becomes {@code <> ALL (?)}.
+     * Markers which are not the sole member of an {@code IN} list are left untouched.
+     *
+     * @param query              SQL query
+     * @param placeholderIndexes indexes (in parameter order) of the parameter markers to rewrite
+     * @return the rewritten query
+     */
+    public static String rewriteInListsAsArrays(String query, long[] placeholderIndexes) {
+        if (placeholderIndexes.length == 0) {
+            return query;
+        }
+        StringBuilder keyBuilder = new StringBuilder();
+        for (long index : placeholderIndexes) {
+            keyBuilder.append(index).append(',');
+        }
+        String cacheKey = keyBuilder.append('|').append(query).toString();
+        String cached = ARRAY_REWRITE_CACHE.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        List<Integer> placeholders = findPlaceholders(query);
+        StringBuilder rewritten = new StringBuilder(query);
+        // Rewrite from the end of the query so that the offsets of the remaining markers stay valid.
+        long[] sortedIndexes = placeholderIndexes.clone();
+        Arrays.sort(sortedIndexes);
+        for (int i = sortedIndexes.length - 1; i >= 0; i--) {
+            int index = (int) sortedIndexes[i];
+            if (index < 0 || index >= placeholders.size()) {
+                continue;
+            }
+            int[] inList = findInList(query, placeholders.get(index));
+            if (inList != null) {
+                rewritten.replace(inList[0], inList[1], inList[2] == 1 ? ALL_ARRAY : ANY_ARRAY);
+            }
+        }
+        String result = rewritten.toString();
+        ARRAY_REWRITE_CACHE.put(cacheKey, result);
+        return result;
+    }
+
+    /**
+     * Parses a query with named parameter markers ({@code :name}) into a query with positional parameter markers.
+     * Markers within quoted literals, quoted identifiers and comments, and PostgreSQL style casts ({@code ::type}),
+     * are left untouched. The parsed query is cached by its text.
+     *
+     * @param query SQL query with named parameter markers
+     * @return the parsed query
+     * @throws SQLException if the query has positional parameter markers as well
+     */
+    public static NamedQuery compileNamedQuery(String query) throws SQLException {
+        NamedQuery cached = NAMED_QUERY_CACHE.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        StringBuilder positionalQuery = new StringBuilder(query.length());
+        List<String> parameterNames = new ArrayList<>();
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            char c = query.charAt(i);
+            int end = i + 1;
+            if (c == '\'' || c == '"' || c == '`') {
+                end = skipQuoted(query, i, c);
+            } else if (c == '-' && i + 1 < length && query.charAt(i + 1) == '-') {
+                end = query.indexOf('\n', i);
+                end = end < 0 ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && query.charAt(i + 1) == '*') {
+                end = query.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+            } else if (c == ':' && i + 1 < length && query.charAt(i + 1) == ':') {
+                end = i + 2;
+            } else if (c == ':' && i + 1 < length && isNameStart(query.charAt(i + 1))) {
+                end = i + 2;
+                while (end < length && (Character.isLetterOrDigit(query.charAt(end)) || query.charAt(end) == '_')) {
+                    end++;
+                }
+                parameterNames.add(query.substring(i + 1, end));
+                positionalQuery.append('?');
+                i = end;
+                continue;
+            } else if (c == '?') {
+                throw new SQLException("Query mixes positional (?) and named (:name) parameter markers");
+            }
+            positionalQuery.append(query, i, end);
+            i = end;
+        }
+        NamedQuery namedQuery = new NamedQuery(positionalQuery.toString(),
+                parameterNames.toArray(new String[0]));
+        NAMED_QUERY_CACHE.put(query, namedQuery);
+        return namedQuery;
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    /**
+     * Returns the fingerprint of a query, which is the same for queries which only differ in their literal values,
+     * comments, white space, letter case or the length of their parameter marker lists. String and numeric literals
+     * are replaced with {@code ?} and lists of parameter markers are collapsed into a single marker.
+     *
+     * @param query SQL query
+     * @return the fingerprint
+     */
+    public static String fingerprint(String query) {
+        StringBuilder fingerprint = new StringBuilder(query.length());
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            char c = query.charAt(i);
+            if (c == '\'') {
+                i = skipQuoted(query, i, c);
+                fingerprint.append('?');
+            } else if (c == '"' || c == '`') {
+                int end = skipQuoted(query, i, c);
+                fingerprint.append(query, i, end);
+                i = end;
+            } else if (c == '-' && i + 1 < length && query.charAt(i + 1) == '-') {
+                int end = query.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+                appendSpace(fingerprint);
+            } else if (c == '/' && i + 1 < length && query.charAt(i + 1) == '*') {
+                int end = query.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                appendSpace(fingerprint);
+            } else if (Character.isWhitespace(c)) {
+                appendSpace(fingerprint);
+                i++;
+            } else if (Character.isDigit(c) && (i == 0 || !isIdentifierPart(query.charAt(i - 1)))) {
+                while (i < length && (Character.isLetterOrDigit(query.charAt(i)) || query.charAt(i) == '.')) {
+                    i++;
+                }
+                fingerprint.append('?');
+            } else {
+                fingerprint.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        return PLACEHOLDER_LIST.matcher(fingerprint.toString().trim()).replaceAll("(?)");
+    }
+
+    private static void appendSpace(StringBuilder builder) {
+        if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ' ') {
+            builder.append(' ');
+        }
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * Checks whether the parameter marker at the given offset is the sole member of an {@code IN} list.
+     *
+     * @return {@code null} if it is not, else the start offset (inclusive) of the {@code IN} or {@code NOT} keyword,
+     * the end offset (exclusive) of the closing parenthesis and 1 if the list is negated or 0 if not
+     */
+    private static int[] findInList(String query, int placeholder) {
+        int close = skipWhitespace(query, placeholder + 1);
+        if (close >= query.length() || query.charAt(close) != ')') {
+            return null;
+        }
+        int open = skipWhitespaceBackwards(query, placeholder - 1);
+        if (open < 0 || query.charAt(open) != '(') {
+            return null;
+        }
+        int keywordEnd = skipWhitespaceBackwards(query, open - 1);
+        int inStart = keywordEnd - 1;
+        if (inStart < 0 || !query.regionMatches(true, inStart, "IN", 0, 2) || !isWordStart(query, inStart)) {
+            return null;
+        }
+        int notEnd = skipWhitespaceBackwards(query, inStart - 1);
+        int notStart = notEnd - 2;
+        if (notStart >= 0 && notEnd < inStart - 1 && query.regionMatches(true, notStart, "NOT", 0, 3)
+                && isWordStart(query, notStart)) {
+            return new int[] { notStart, close + 1, 1 };
+        }
+        return new int[] { inStart, close + 1, 0 };
+    }
+
+    private static boolean isWordStart(String query, int offset) {
+        return offset == 0 || !Character.isLetterOrDigit(query.charAt(offset - 1)) && query.charAt(offset - 1) != '_';
+    }
+
+    private static int skipWhitespace(String query, int offset) {
+        while (offset < query.length() && Character.isWhitespace(query.charAt(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private static int skipWhitespaceBackwards(String query, int offset) {
+        while (offset >= 0 && Character.isWhitespace(query.charAt(offset))) {
+            offset--;
+        }
+        return offset;
+    }
+
+    /**
+     * A query with named parameter markers, parsed into a query with positional parameter markers.
+     */
+    public static final class NamedQuery {
+
+        private final String positionalQuery;
+        private final String[] parameterNames;
+
+        NamedQuery(String positionalQuery, String[] parameterNames) {
+            this.positionalQuery = positionalQuery;
+            this.parameterNames = parameterNames;
+        }
+
+        /**
+         * Returns the query with a positional parameter marker ({@code ?}) in place of each named marker.
+         *
+         * @return the positional query
+         */
+        public String getPositionalQuery() {
+            return positionalQuery;
+        }
+
+        /**
+         * Returns the names of the parameter markers, in the order of the positional markers. A name appears once
+         * for each of its markers. The array is shared by all the callers and must not be modified.
+         *
+         * @return the parameter names
+         */
+        public String[] getParameterNames() {
+            return parameterNames;
+        }
+    }
+}
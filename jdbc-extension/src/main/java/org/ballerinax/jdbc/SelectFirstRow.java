@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.Constants;
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.BField;
+import org.ballerinalang.model.types.BMapType;
+import org.ballerinalang.model.types.BStructureType;
+import org.ballerinalang.model.types.BType;
+import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BTypeDescValue;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.cursor.ColumnValues;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * Executes a query on a connection of the pool of an SQL client and reads its first row, as a record of the given
+ * type or as a map keyed by column label. Like the tables of {@code select}, columns are mapped to the fields of the
+ * record in order, and temporal columns are read as {@code int}, {@code string} or {@code time:Time} fields.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "selectFirstRow",
+        args = {@Argument(name = "sqlClient", type = TypeKind.OBJECT, structType = "Client"),
+                @Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "recordType", type = TypeKind.UNION),
+                @Argument(name = "parameters", type = TypeKind.ARRAY)},
+        returnType = {@ReturnType(type = TypeKind.MAP), @ReturnType(type = TypeKind.NIL),
+                @ReturnType(type = TypeKind.ERROR)}
+)
+public class SelectFirstRow extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> sqlClient = (BMap<String, BValue>) context.getRefArgument(0);
+        BValue recordType = context.getRefArgument(1);
+        BValueArray parameters = (BValueArray) context.getRefArgument(2);
+        String sqlQuery = context.getStringArgument(0);
+        SQLDatasource datasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+        BStructureType structType = recordType == null ? null
+                : (BStructureType) ((BTypeDescValue) recordType).value();
+        try {
+            context.setReturnValues(SingleRowQuery.execute(datasource, sqlQuery, parameters,
+                    resultSet -> structType == null ? readMap(resultSet)
+                            : readRecord(resultSet, structType, context)));
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+
+    private static BMap<String, BValue> readMap(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        BMap<String, BValue> row = new BMap<>(new BMapType(BTypes.typeAnydata));
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            row.put(metaData.getColumnLabel(column),
+                    ColumnValues.toBValue(ColumnValues.readTyped(resultSet, column, metaData.getColumnType(column))));
+        }
+        return row;
+    }
+
+    private static BMap<String, BValue> readRecord(ResultSet resultSet, BStructureType structType, Context context)
+            throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        if (structType.getFields().size() != columnCount) {
+            throw new SQLException("Query returns " + columnCount + " columns but record type "
+                    + structType.getName() + " has " + structType.getFields().size() + " fields");
+        }
+        BMap<String, BValue> row = new BMap<>(structType);
+        Iterator<BField> fields = structType.getFields().values().iterator();
+        for (int column = 1; column <= columnCount; column++) {
+            BField field = fields.next();
+            BType fieldType = field.getFieldType();
+            Object value = ColumnValues.readTyped(resultSet, column, metaData.getColumnType(column));
+            row.put(field.getFieldName(), ColumnValues.toBValue(value, fieldType, column, context));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.Constants;
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.cursor.ColumnValues;
+
+import java.sql.SQLException;
+
+/**
+ * Executes a query on a connection of the pool of an SQL client and reads the first column of its first row.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "selectFirstValue",
+        args = {@Argument(name = "sqlClient", type = TypeKind.OBJECT, structType = "Client"),
+                @Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "parameters", type = TypeKind.ARRAY)},
+        returnType = {@ReturnType(type = TypeKind.ANYDATA), @ReturnType(type = TypeKind.ERROR)}
+)
+public class SelectFirstValue extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> sqlClient = (BMap<String, BValue>) context.getRefArgument(0);
+        BValueArray parameters = (BValueArray) context.getRefArgument(1);
+        String sqlQuery = context.getStringArgument(0);
+        SQLDatasource datasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+        try {
+            context.setReturnValues(SingleRowQuery.execute(datasource, sqlQuery, parameters,
+                    resultSet -> ColumnValues.toBValue(ColumnValues.read(resultSet, 1,
+                            resultSet.getMetaData().getColumnType(1)))));
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.model.values.BValueArray;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Executes queries of which only the first row is read. The driver is asked for a single row, and the connection is
+ * returned to the pool as soon as the row is read.
+ *
+ * @since 0.992.0
+ */
+public final class SingleRowQuery {
+
+    private SingleRowQuery() {
+    }
+
+    /**
+     * Reads the first row of the result of a query.
+     *
+     * @param resultSet reads the row the result set is on
+     * @param <T>       type of the value read from the row
+     */
+    public interface RowReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Executes a query on a connection of the pool of an SQL client and reads its first row.
+     *
+     * @param datasource datasource of the SQL client
+     * @param query      SQL query
+     * @param parameters the {@code sql:Param} values of the parameters of the query
+     * @param reader     reader of the first row
+     * @param <T>        type of the value read from the row
+     * @return the value read from the first row, or {@code null} if the query returned no rows
+     * @throws SQLException if the query failed or the row could not be read
+     */
+    public static <T> T execute(SQLDatasource datasource, String query, BValueArray parameters, RowReader<T> reader)
+            throws SQLException {
+        try (Connection connection = datasource.getSQLConnection();
+             PreparedStatement statement = StatementBinder.prepare(connection, query, parameters)) {
+            statement.setMaxRows(1);
+            statement.setFetchSize(1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? reader.read(resultSet) : null;
+            }
+        }
+    }
+}
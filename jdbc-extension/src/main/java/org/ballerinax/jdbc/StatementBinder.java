@@ -0,0 +1,328 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.BType;
+import org.ballerinalang.model.types.TypeTags;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BDecimal;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepares statements with the {@code sql:Param} values of a Ballerina call, for operations which run on a
+ * connection of the pool of an SQL client directly rather than through its remote functions. Array values of
+ * parameters other than byte arrays are expanded into one parameter marker per element.
+ * <p>
+ * The setters of the parameters are planned once for each query and signature of parameter value types, SQL types
+ * and array lengths, so that a statement which is executed repeatedly binds its parameters by direct setter calls.
+ * A call whose signature differs gets a plan of its own.
+ *
+ * @since 0.992.0
+ */
+public final class StatementBinder {
+
+    private static final String SQL_TYPE_FIELD = "sqlType";
+    private static final String VALUE_FIELD = "value";
+    private static final String DIRECTION_FIELD = "direction";
+    private static final String DIRECTION_IN = "IN";
+    private static final String SQL_TYPE_DATETIME = "DATETIME";
+    private static final int UNKNOWN_SQL_TYPE = Integer.MIN_VALUE;
+    private static final int PLAN_CACHE_SIZE = 1024;
+
+    private static final int SET_ANY = 0;
+    private static final int SET_NULL = 1;
+    private static final int SET_STRING = 2;
+    private static final int SET_LONG = 3;
+    private static final int SET_DOUBLE = 4;
+    private static final int SET_BOOLEAN = 5;
+    private static final int SET_DECIMAL = 6;
+    private static final int SET_BYTES = 7;
+    private static final int SET_ARRAY = 8;
+
+    private static final Map<String, BindingPlan> PLAN_CACHE = new ConcurrentHashMap<>();
+
+    private StatementBinder() {
+    }
+
+    /**
+     * Prepares a forward only, read only statement of a query and binds its parameters.
+     *
+     * @param connection connection to prepare the statement with
+     * @param query      SQL query with positional parameter markers
+     * @param parameters the {@code sql:Param} values of the parameters
+     * @return the prepared statement
+     * @throws SQLException if the statement could not be prepared or a parameter is not an IN parameter
+     */
+    public static PreparedStatement prepare(Connection connection, String query, BValueArray parameters)
+            throws SQLException {
+        int parameterCount = (int) parameters.size();
+        BValue[] values = new BValue[parameterCount];
+        String[] sqlTypeNames = new String[parameterCount];
+        StringBuilder planKey = new StringBuilder();
+        for (int i = 0; i < parameterCount; i++) {
+            BValue parameter = parameters.getRefValue(i);
+            BValue value = parameter;
+            if (parameter instanceof BMap) {
+                BMap<String, BValue> record = (BMap<String, BValue>) parameter;
+                BValue direction = record.get(DIRECTION_FIELD);
+                if (direction != null && !DIRECTION_IN.equals(direction.stringValue())) {
+                    throw new SQLException("Only IN parameters are supported, but parameter " + (i + 1) + " is "
+                            + direction.stringValue());
+                }
+                value = record.get(VALUE_FIELD);
+                BValue sqlType = record.get(SQL_TYPE_FIELD);
+                sqlTypeNames[i] = sqlType == null ? null : sqlType.stringValue();
+            }
+            values[i] = value;
+            int setter = getSetter(value);
+            planKey.append(sqlTypeNames[i]).append(':').append(setter);
+            if (setter == SET_ARRAY) {
+                BValueArray array = (BValueArray) value;
+                planKey.append(getElementSetter(array)).append('*').append(array.size());
+            }
+            planKey.append(';');
+        }
+        planKey.append(query);
+        String key = planKey.toString();
+        BindingPlan plan = PLAN_CACHE.get(key);
+        if (plan == null) {
+            plan = createPlan(query, values, sqlTypeNames);
+            SQLQueryUtils.putBounded(PLAN_CACHE, key, plan, PLAN_CACHE_SIZE);
+        }
+        PreparedStatement statement = connection.prepareStatement(plan.expandedQuery,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            plan.bind(statement, values);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+
+    private static BindingPlan createPlan(String query, BValue[] values, String[] sqlTypeNames) throws SQLException {
+        List<Integer> placeholders = SQLQueryUtils.findPlaceholders(query);
+        int parameterCount = values.length;
+        if (parameterCount != placeholders.size()) {
+            throw new SQLException("Query has " + placeholders.size() + " parameter markers but " + parameterCount
+                    + " parameters are given");
+        }
+        int[] setters = new int[parameterCount];
+        int[] elementSetters = new int[parameterCount];
+        int[] sqlTypes = new int[parameterCount];
+        StringBuilder expandedQuery = new StringBuilder(query);
+        // Expand from the end of the query so that the offsets of the remaining markers stay valid.
+        for (int i = parameterCount - 1; i >= 0; i--) {
+            sqlTypes[i] = toSqlType(sqlTypeNames[i]);
+            setters[i] = getSetter(values[i]);
+            if (setters[i] != SET_ARRAY) {
+                continue;
+            }
+            BValueArray array = (BValueArray) values[i];
+            elementSetters[i] = getElementSetter(array);
+            long elementCount = array.size();
+            if (elementCount != 1) {
+                StringBuilder markers = new StringBuilder();
+                for (long j = 0; j < elementCount; j++) {
+                    markers.append(j == 0 ? "?" : ", ?");
+                }
+                int offset = placeholders.get(i);
+                expandedQuery.replace(offset, offset + 1, markers.toString());
+            }
+        }
+        return new BindingPlan(expandedQuery.toString(), setters, elementSetters, sqlTypes);
+    }
+
+    /**
+     * Returns the setter a value is bound with, or {@link #SET_ARRAY} if the value is expanded into its elements.
+     */
+    private static int getSetter(BValue value) {
+        if (value == null) {
+            return SET_NULL;
+        } else if (value instanceof BString) {
+            return SET_STRING;
+        } else if (value instanceof BInteger) {
+            return SET_LONG;
+        } else if (value instanceof BFloat) {
+            return SET_DOUBLE;
+        } else if (value instanceof BBoolean) {
+            return SET_BOOLEAN;
+        } else if (value instanceof BDecimal) {
+            return SET_DECIMAL;
+        } else if (isByteArray(value)) {
+            return SET_BYTES;
+        } else if (value instanceof BValueArray) {
+            return SET_ARRAY;
+        }
+        return SET_ANY;
+    }
+
+    /**
+     * Returns the setter the elements of an array are bound with, by the element type of the array. The elements of
+     * arrays of other element types, such as nilable ones, are bound by their values.
+     */
+    private static int getElementSetter(BValueArray array) {
+        BType elementType = ((BArrayType) array.getType()).getElementType();
+        switch (elementType.getTag()) {
+        case TypeTags.STRING_TAG:
+            return SET_STRING;
+        case TypeTags.INT_TAG:
+            return SET_LONG;
+        case TypeTags.FLOAT_TAG:
+            return SET_DOUBLE;
+        case TypeTags.BOOLEAN_TAG:
+            return SET_BOOLEAN;
+        case TypeTags.DECIMAL_TAG:
+            return SET_DECIMAL;
+        case TypeTags.ARRAY_TAG:
+            return ((BArrayType) elementType).getElementType().getTag() == TypeTags.BYTE_TAG ? SET_BYTES : SET_ANY;
+        default:
+            return SET_ANY;
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int index, int setter, BValue value, int sqlType)
+            throws SQLException {
+        if (sqlType != UNKNOWN_SQL_TYPE) {
+            bind(statement, index, toJavaValue(value), sqlType);
+            return;
+        }
+        switch (setter) {
+        case SET_NULL:
+            statement.setNull(index, Types.NULL);
+            break;
+        case SET_STRING:
+            statement.setString(index, value.stringValue());
+            break;
+        case SET_LONG:
+            statement.setLong(index, ((BInteger) value).intValue());
+            break;
+        case SET_DOUBLE:
+            statement.setDouble(index, ((BFloat) value).floatValue());
+            break;
+        case SET_BOOLEAN:
+            statement.setBoolean(index, ((BBoolean) value).booleanValue());
+            break;
+        case SET_DECIMAL:
+            statement.setBigDecimal(index, ((BDecimal) value).decimalValue());
+            break;
+        case SET_BYTES:
+            statement.setBytes(index, ((BValueArray) value).getBytes());
+            break;
+        default:
+            bind(statement, index, toJavaValue(value), sqlType);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType == UNKNOWN_SQL_TYPE ? Types.NULL : sqlType);
+        } else if (sqlType == UNKNOWN_SQL_TYPE) {
+            statement.setObject(index, value);
+        } else {
+            statement.setObject(index, value, sqlType);
+        }
+    }
+
+    private static Object toJavaValue(BValue value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof BString) {
+            return value.stringValue();
+        } else if (value instanceof BInteger) {
+            return ((BInteger) value).intValue();
+        } else if (value instanceof BFloat) {
+            return ((BFloat) value).floatValue();
+        } else if (value instanceof BBoolean) {
+            return ((BBoolean) value).booleanValue();
+        } else if (value instanceof BDecimal) {
+            return ((BDecimal) value).decimalValue();
+        } else if (isByteArray(value)) {
+            return ((BValueArray) value).getBytes();
+        }
+        return value.stringValue();
+    }
+
+    private static boolean isByteArray(BValue value) {
+        return value instanceof BValueArray
+                && ((BArrayType) value.getType()).getElementType().getTag() == TypeTags.BYTE_TAG;
+    }
+
+    private static int toSqlType(String typeName) {
+        if (typeName == null) {
+            return UNKNOWN_SQL_TYPE;
+        }
+        if (SQL_TYPE_DATETIME.equals(typeName)) {
+            return Types.TIMESTAMP;
+        }
+        try {
+            return JDBCType.valueOf(typeName).getVendorTypeNumber();
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN_SQL_TYPE;
+        }
+    }
+
+    /**
+     * The expanded query of a query and signature, and the setters and SQL types of its parameters.
+     */
+    private static final class BindingPlan {
+        private final String expandedQuery;
+        private final int[] setters;
+        private final int[] elementSetters;
+        private final int[] sqlTypes;
+
+        private BindingPlan(String expandedQuery, int[] setters, int[] elementSetters, int[] sqlTypes) {
+            this.expandedQuery = expandedQuery;
+            this.setters = setters;
+            this.elementSetters = elementSetters;
+            this.sqlTypes = sqlTypes;
+        }
+
+        private void bind(PreparedStatement statement, BValue[] values) throws SQLException {
+            int index = 1;
+            for (int i = 0; i < values.length; i++) {
+                if (setters[i] == SET_ARRAY) {
+                    BValueArray array = (BValueArray) values[i];
+                    for (long j = 0; j < array.size(); j++) {
+                        StatementBinder.bind(statement, index++, elementSetters[i], array.getBValue(j), sqlTypes[i]);
+                    }
+                } else {
+                    StatementBinder.bind(statement, index++, setters[i], values[i], sqlTypes[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.model.values.BValueArray;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A query executed on a connection of its own, whose rows are fetched from the database in batches as they are read
+ * rather than all at once. The connection is returned to the pool when the query is closed.
+ *
+ * @since 0.992.0
+ */
+public class StreamingQuery implements AutoCloseable {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String MYSQL = "MySQL";
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final boolean autoCommitDisabled;
+
+    private StreamingQuery(Connection connection, PreparedStatement statement, ResultSet resultSet,
+                           boolean autoCommitDisabled) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.autoCommitDisabled = autoCommitDisabled;
+    }
+
+    /**
+     * Executes a query on a connection of the pool of an SQL client.
+     *
+     * @param datasource datasource of the SQL client
+     * @param query      SQL query
+     * @param parameters the {@code sql:Param} values of the parameters of the query
+     * @return the executed query
+     * @throws SQLException if the query failed
+     */
+    public static StreamingQuery execute(SQLDatasource datasource, String query, BValueArray parameters)
+            throws SQLException {
+        Connection connection = datasource.getSQLConnection();
+        boolean autoCommitDisabled = false;
+        PreparedStatement statement = null;
+        try {
+            String databaseProductName = connection.getMetaData().getDatabaseProductName();
+            // The PostgreSQL driver only fetches rows in batches within a transaction.
+            if (POSTGRESQL.equals(databaseProductName) && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                autoCommitDisabled = true;
+            }
+            statement = StatementBinder.prepare(connection, query, parameters);
+            // The MySQL driver only streams rows one by one when the fetch size is Integer.MIN_VALUE.
+            statement.setFetchSize(MYSQL.equals(databaseProductName) ? Integer.MIN_VALUE : FETCH_SIZE);
+            ResultSet resultSet = statement.executeQuery();
+            return new StreamingQuery(connection, statement, resultSet, autoCommitDisabled);
+        } catch (SQLException e) {
+            close(connection, statement, autoCommitDisabled);
+            throw e;
+        }
+    }
+
+    public ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            resultSet.close();
+        } finally {
+            close(connection, statement, autoCommitDisabled);
+        }
+    }
+
+    private static void close(Connection connection, PreparedStatement statement, boolean autoCommitDisabled)
+            throws SQLException {
+        try {
+            if (statement != null) {
+                statement.close();
+            }
+            if (autoCommitDisabled) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.Constants;
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens the given number of connections of the pool of an SQL client at once and returns them to the pool, so that
+ * the pool holds them as idle connections before it receives any load.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "warmUp",
+        args = {@Argument(name = "sqlClient", type = TypeKind.OBJECT, structType = "Client"),
+                @Argument(name = "connectionCount", type = TypeKind.INT)},
+        returnType = {@ReturnType(type = TypeKind.ERROR)}
+)
+public class WarmUp extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> sqlClient = (BMap<String, BValue>) context.getRefArgument(0);
+        long connectionCount = context.getIntArgument(0);
+        SQLDatasource datasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (long i = 0; i < connectionCount; i++) {
+                connections.add(datasource.getSQLConnection());
+            }
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignore) {
+                    // The connection is discarded by the pool.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.buffering;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Signals the progress of the flushes of a buffered writer, i.e. rows taken out of its buffer and flushes which
+ * completed, to the writers waiting for space in the buffer and to a writer being stopped. Progress is counted by a
+ * version, so that a signal which is sent after the waiter read the version but before it started waiting is not
+ * missed.
+ *
+ * @since 0.992.0
+ */
+public class FlushProgress {
+
+    static final String NATIVE_DATA_KEY = "FlushProgress";
+
+    private long version;
+    private CompletableFuture<Void> nextProgress = new CompletableFuture<>();
+
+    /**
+     * Returns a future which completes once the progress moves past the given version.
+     *
+     * @param seenVersion version of the progress last seen by the caller
+     * @return the future
+     */
+    synchronized CompletableFuture<Void> await(long seenVersion) {
+        return version > seenVersion ? CompletableFuture.completedFuture(null) : nextProgress;
+    }
+
+    /**
+     * Moves the progress to the given version and wakes up the callers waiting for an earlier version.
+     *
+     * @param newVersion the new version
+     */
+    void signal(long newVersion) {
+        CompletableFuture<Void> progress;
+        synchronized (this) {
+            if (newVersion <= version) {
+                return;
+            }
+            version = newVersion;
+            progress = nextProgress;
+            nextProgress = new CompletableFuture<>();
+        }
+        progress.complete(null);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.coalescing;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.model.NativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+/**
+ * Waits, without blocking a worker thread, for the update count of a row of a batch.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "awaitResult",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "WriteCoalescer",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "batchId", type = TypeKind.INT),
+                @Argument(name = "position", type = TypeKind.INT)},
+        returnType = {@ReturnType(type = TypeKind.INT)}
+)
+public class AwaitResult implements NativeCallableUnit {
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        BMap<String, BValue> coalescer = (BMap<String, BValue>) context.getRefArgument(0);
+        long batchId = context.getIntArgument(0);
+        int position = (int) context.getIntArgument(1);
+        ((WriteCoalescer) coalescer.getNativeData(WriteCoalescer.NATIVE_DATA_KEY)).getResult(batchId, position)
+                .thenAccept(updateCount -> {
+                    context.setReturnValues(new BInteger(updateCount));
+                    callback.notifySuccess();
+                });
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.coalescing;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+
+/**
+ * Adds a row to the pending batch of its query and records the placement of the row in the given
+ * {@code CoalescedWrite} record.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "enlist",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "WriteCoalescer",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "parameters", type = TypeKind.ARRAY),
+                @Argument(name = "write", type = TypeKind.RECORD, structType = "CoalescedWrite")}
+)
+public class Enlist extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> coalescer = (BMap<String, BValue>) context.getRefArgument(0);
+        String sqlQuery = context.getStringArgument(0);
+        BValueArray parameters = (BValueArray) context.getRefArgument(1);
+        BMap<String, BValue> write = (BMap<String, BValue>) context.getRefArgument(2);
+        WriteCoalescer.Enlistment enlistment = ((WriteCoalescer) coalescer
+                .getNativeData(WriteCoalescer.NATIVE_DATA_KEY)).enlist(sqlQuery, parameters);
+        write.put("batchId", new BInteger(enlistment.batchId));
+        write.put("position", new BInteger(enlistment.position));
+        write.put("leader", new BBoolean(enlistment.leader));
+        write.put("sealed", new BBoolean(enlistment.sealed));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.ballerinax.jdbc.coalescing;
+
+import org.ballerinalang.model.values.BValueArray;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Groups concurrent single row updates with identical SQL into batches.
+ * <p>
+ * The first caller of a batch is its leader and flushes it after the coalescing window, unless the batch fills up
+ * earlier, in which case the caller that fills it flushes it and the leader stops waiting. The result of each row is
+ * handed back to its caller through a future.
+ *
+ * @since 0.992.0
+ */
+public class WriteCoalescer {
+
+    static final String NATIVE_DATA_KEY = "WriteCoalescer";
+    /**
+     * Update count of a row whose batch failed. Callers re-execute such rows individually.
+     */
+    static final long EXECUTE_FAILED = -3;
+
+    private static final ScheduledExecutorService WINDOW_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "jdbc-write-coalescing-window");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final int maxBatchSize;
+    private final Map<String, Batch> pendingBatches = new HashMap<>();
+    private final Map<Long, Batch> batches = new ConcurrentHashMap<>();
+    private long nextBatchId = 0;
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong largestBatchSize = new AtomicLong();
+
+    WriteCoalescer(int maxBatchSize) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Adds a row to the pending batch of the given query, starting a new batch if there is none.
+     *
+     * @param sqlQuery   SQL query of the update
+     * @param parameters parameters of the row
+     * @return the enlistment of the row
+     */
+    Enlistment enlist(String sqlQuery, BValueArray parameters) {
+        Batch batch;
+        int position;
+        boolean leader = false;
+        boolean sealed;
+        synchronized (this) {
+            batch = pendingBatches.get(sqlQuery);
+            if (batch == null) {
+                batch = new Batch(nextBatchId++, sqlQuery);
+                pendingBatches.put(sqlQuery, batch);
+                batches.put(batch.id, batch);
+                leader = true;
+            }
+            position = batch.add(parameters);
+            sealed = batch.rows.size() >= maxBatchSize;
+            if (sealed) {
+                batch.sealed = true;
+                pendingBatches.remove(sqlQuery);
+            }
+        }
+        if (sealed) {
+            batch.sealedByRow.complete(null);
+        }
+        return new Enlistment(batch.id, position, leader, sealed);
+    }
+
+    /**
+     * Waits for the coalescing window of a batch, which ends early if the batch fills up.
+     *
+     * @param batchId       id of the batch
+     * @param delayInMillis length of the coalescing window
+     * @return a future which completes once the window has ended, without holding a thread in the meantime
+     */
+    CompletableFuture<Object> awaitWindow(long batchId, long delayInMillis) {
+        Batch batch = batches.get(batchId);
+        if (batch == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> elapsed = new CompletableFuture<>();
+        WINDOW_SCHEDULER.schedule(() -> elapsed.complete(null), delayInMillis, TimeUnit.MILLISECONDS);
+        return CompletableFuture.anyOf(elapsed, batch.sealedByRow);
+    }
+
+    /**
+     * Closes the batch for further rows.
+     *
+     * @param batchId id of the batch
+     * @return the number of rows in the batch, or -1 if the batch has already been sealed by another caller
+     */
+    synchronized int seal(long batchId) {
+        Batch batch = batches.get(batchId);
+        if (batch == null || batch.sealed) {
+            return -1;
+        }
+        batch.sealed = true;
+        pendingBatches.remove(batch.sqlQuery, batch);
+        return batch.rows.size();
+    }
+
+    synchronized BValueArray getRow(long batchId, int position) {
+        return batches.get(batchId).rows.get(position);
+    }
+
+    /**
+     * Hands the update counts of a flushed batch over to the callers waiting on it.
+     *
+     * @param batchId      id of the batch
+     * @param updateCounts update counts returned for the batch, or {@code null} if the batch failed
+     */
+    void complete(long batchId, long[] updateCounts) {
+        Batch batch = batches.get(batchId);
+        if (batch == null) {
+            return;
+        }
+        if (updateCounts != null) {
+            int size = batch.results.size();
+            batchCount.incrementAndGet();
+            updateCount.addAndGet(size);
+            largestBatchSize.accumulateAndGet(size, Math::max);
+        }
+        for (int i = 0; i < batch.results.size(); i++) {
+            long count = updateCounts != null && i < updateCounts.length ? updateCounts[i] : EXECUTE_FAILED;
+            batch.results.get(i).complete(count);
+        }
+    }
+
+    /**
+     * Returns the number of batches which were executed, the number of updates executed in them and the number of
+     * updates of the largest of them. Batches which failed and whose updates were executed on their own are not
+     * counted.
+     *
+     * @return the batch count, update count and largest batch size
+     */
+    long[] getStats() {
+        return new long[] { batchCount.get(), updateCount.get(), largestBatchSize.get() };
+    }
+
+    /**
+     * Returns the future result of a row. Each row's result is expected to be requested exactly once.
+     *
+     * @param batchId  id of the batch
+     * @param position position of the row in the batch
+     * @return the future update count of the row
+     */
+    CompletableFuture<Long> getResult(long batchId, int position) {
+        Batch batch = batches.get(batchId);
+        CompletableFuture<Long> result = batch.results.get(position);
+        if (batch.unclaimedResults.decrementAndGet() == 0) {
+            batches.remove(batchId);
+        }
+        return result;
+    }
+
+    /**
+     * A batch of rows with the same SQL.
+     */
+    private static class Batch {
+        private final long id;
+        private final String sqlQuery;
+        private final List<BValueArray> rows = new ArrayList<>();
+        private final List<CompletableFuture<Long>> results = new ArrayList<>();
+        private final AtomicInteger unclaimedResults = new AtomicInteger();
+        private final CompletableFuture<Void> sealedByRow = new CompletableFuture<>();
+        private boolean sealed;
+
+        private Batch(long id, String sqlQuery) {
+            this.id = id;
+            this.sqlQuery = sqlQuery;
+        }
+
+        private int add(BValueArray parameters) {
+            rows.add(parameters);
+            results.add(new CompletableFuture<>());
+            unclaimedResults.incrementAndGet();
+            return rows.size() - 1;
+        }
+    }
+
+    /**
+     * Describes where a row was placed and what its caller has to do.
+     */
+    static class Enlistment {
+        final long batchId;
+        final int position;
+        final boolean leader;
+        final boolean sealed;
+
+        private Enlistment(long batchId, int position, boolean leader, boolean sealed) {
+            this.batchId = batchId;
+            this.position = position;
+            this.leader = leader;
+            this.sealed = sealed;
+        }
+    }
+}
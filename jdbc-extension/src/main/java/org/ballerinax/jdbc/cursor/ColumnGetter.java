@@ -0,0 +1,58 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.cursor;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+
+import java.sql.SQLException;
+
+/**
+ * Base of the natives which read a column of the current row of a cursor. SQL NULL is returned as nil.
+ *
+ * @since 0.992.0
+ */
+abstract class ColumnGetter extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> cursorObject = (BMap<String, BValue>) context.getRefArgument(0);
+        String column = context.getStringArgument(0);
+        ResultCursor cursor = (ResultCursor) cursorObject.getNativeData(ResultCursor.NATIVE_DATA_KEY);
+        try {
+            context.setReturnValues(getValue(cursor, column));
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+
+    /**
+     * Reads a column of the current row.
+     *
+     * @param cursor the cursor
+     * @param column name of the column
+     * @return the value, or {@code null} if the column is SQL NULL
+     * @throws SQLException if the cursor is not on a row or the column could not be read
+     */
+    abstract BValue getValue(ResultCursor cursor, String column) throws SQLException;
+}
@@ -0,0 +1,306 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.cursor;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.BType;
+import org.ballerinalang.model.types.BUnionType;
+import org.ballerinalang.model.types.TypeTags;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BDecimal;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Conversions of column values between their SQL types, Java values and Ballerina values.
+ *
+ * @since 0.992.0
+ */
+public final class ColumnValues {
+
+    private static final String TIME_PACKAGE = "ballerina/time";
+    private static final String TIME_TYPE = "Time";
+    private static final String TIME_ZONE_TYPE = "TimeZone";
+    private static final String UTC = "UTC";
+
+    private ColumnValues() {
+    }
+
+    /**
+     * Reads a column as a {@link Long}, {@link Double}, {@link BigDecimal}, {@link Boolean}, {@code byte[]} or, for
+     * all other SQL types, a {@link String}.
+     *
+     * @param resultSet  result set on the row to read
+     * @param column     index of the column
+     * @param columnType SQL type of the column
+     * @return the value, or {@code null} if the column is SQL NULL
+     * @throws SQLException if the column could not be read
+     */
+    public static Object read(ResultSet resultSet, int column, int columnType) throws SQLException {
+        switch (columnType) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+            long longValue = resultSet.getLong(column);
+            return resultSet.wasNull() ? null : longValue;
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            double doubleValue = resultSet.getDouble(column);
+            return resultSet.wasNull() ? null : doubleValue;
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            return resultSet.getBigDecimal(column);
+        case Types.BOOLEAN:
+        case Types.BIT:
+            boolean booleanValue = resultSet.getBoolean(column);
+            return resultSet.wasNull() ? null : booleanValue;
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+        case Types.BLOB:
+            return resultSet.getBytes(column);
+        default:
+            return resultSet.getString(column);
+        }
+    }
+
+    /**
+     * Reads a column as a {@link Date}, like the tables of {@code select} do, if it is of a temporal SQL type. Other
+     * columns are read by {@link #read}.
+     *
+     * @param resultSet  result set on the row to read
+     * @param column     index of the column
+     * @param columnType SQL type of the column
+     * @return the value, or {@code null} if the column is SQL NULL
+     * @throws SQLException if the column could not be read
+     */
+    public static Object readTyped(ResultSet resultSet, int column, int columnType) throws SQLException {
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(UTC));
+        switch (columnType) {
+        case Types.DATE:
+            return resultSet.getDate(column, utcCalendar);
+        case Types.TIME:
+        case Types.TIME_WITH_TIMEZONE:
+            return resultSet.getTime(column, utcCalendar);
+        case Types.TIMESTAMP:
+        case Types.TIMESTAMP_WITH_TIMEZONE:
+            return resultSet.getTimestamp(column, utcCalendar);
+        default:
+            return read(resultSet, column, columnType);
+        }
+    }
+
+    /**
+     * Converts a value read by {@link #read} to a Ballerina value.
+     *
+     * @param value the value
+     * @return the Ballerina value, or {@code null} for SQL NULL
+     */
+    public static BValue toBValue(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Long) {
+            return new BInteger((Long) value);
+        } else if (value instanceof Double) {
+            return new BFloat((Double) value);
+        } else if (value instanceof BigDecimal) {
+            return new BDecimal((BigDecimal) value);
+        } else if (value instanceof Boolean) {
+            return new BBoolean((Boolean) value);
+        } else if (value instanceof byte[]) {
+            return new BValueArray((byte[]) value);
+        } else if (value instanceof Date) {
+            return new BString(SQLDatasourceUtils.getString((Date) value));
+        }
+        return new BString(value.toString());
+    }
+
+    /**
+     * Converts a value read by {@link #read} or {@link #readTyped} to a Ballerina value of the given type, e.g. the
+     * type of the record field the column is mapped to. The types are {@code int}, {@code float}, {@code decimal},
+     * {@code string}, {@code boolean}, {@code byte[]}, {@code time:Time} for temporal columns, their nilable forms,
+     * {@code anydata} and unions which have the type of {@link #toBValue(Object)} as a member. Temporal columns are
+     * read as epoch milliseconds by {@code int} and in ISO 8601 format by {@code string}, like the tables of
+     * {@code select} read them.
+     *
+     * @param value   the value
+     * @param type    Ballerina type to convert to
+     * @param column  index of the column, for the error message
+     * @param context context of the native call, to create {@code time:Time} values
+     * @return the Ballerina value, or {@code null} for SQL NULL
+     * @throws SQLException if the value cannot be converted to the type or is NULL for a type which is not nilable
+     */
+    public static BValue toBValue(Object value, BType type, int column, Context context) throws SQLException {
+        BType valueType = type;
+        boolean nilable = false;
+        if (type.getTag() == TypeTags.UNION_TAG) {
+            BType memberType = null;
+            for (BType member : ((BUnionType) type).getMemberTypes()) {
+                if (member.getTag() == TypeTags.NULL_TAG) {
+                    nilable = true;
+                } else {
+                    memberType = memberType == null ? member : type;
+                }
+            }
+            valueType = memberType == null ? type : memberType;
+        }
+        if (value == null) {
+            if (nilable || valueType.getTag() == TypeTags.ANYDATA_TAG || valueType.getTag() == TypeTags.JSON_TAG
+                    || valueType.getTag() == TypeTags.ANY_TAG) {
+                return null;
+            }
+            throw new SQLException("Column " + column + " is NULL but cannot be read as " + valueType.getName());
+        }
+        switch (valueType.getTag()) {
+        case TypeTags.INT_TAG:
+            return new BInteger(value instanceof Date ? ((Date) value).getTime() : toLong(value, column));
+        case TypeTags.FLOAT_TAG:
+            return new BFloat(toDouble(value, column));
+        case TypeTags.DECIMAL_TAG:
+            return new BDecimal(toBigDecimal(value, column));
+        case TypeTags.STRING_TAG:
+            return new BString(value instanceof Date ? SQLDatasourceUtils.getString((Date) value)
+                    : toString(value, column));
+        case TypeTags.BOOLEAN_TAG:
+            return new BBoolean(toBoolean(value, column));
+        case TypeTags.ARRAY_TAG:
+            if (((BArrayType) valueType).getElementType().getTag() != TypeTags.BYTE_TAG) {
+                throw cannotConvert(column, valueType.getName());
+            }
+            return new BValueArray(toBytes(value, column));
+        case TypeTags.RECORD_TYPE_TAG:
+            if (!(value instanceof Date) || !TIME_PACKAGE.equals(valueType.getPackagePath())
+                    || !TIME_TYPE.equals(valueType.getName())) {
+                throw cannotConvert(column, valueType.getName());
+            }
+            return BLangConnectorSPIUtil.createBStruct(context, TIME_PACKAGE, TIME_TYPE, ((Date) value).getTime(),
+                    BLangConnectorSPIUtil.createBStruct(context, TIME_PACKAGE, TIME_ZONE_TYPE, UTC, 0L));
+        case TypeTags.ANYDATA_TAG:
+        case TypeTags.JSON_TAG:
+        case TypeTags.ANY_TAG:
+            return toBValue(value);
+        case TypeTags.UNION_TAG:
+            BValue unionValue = toBValue(value);
+            for (BType member : ((BUnionType) valueType).getMemberTypes()) {
+                if (member.getTag() == unionValue.getType().getTag()) {
+                    return unionValue;
+                }
+            }
+            throw cannotConvert(column, valueType.getName());
+        default:
+            throw cannotConvert(column, valueType.getName());
+        }
+    }
+
+    static Long toLong(Object value, int column) throws SQLException {
+        if (value == null || value instanceof Long) {
+            return (Long) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        } else if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                throw cannotConvert(column, "int");
+            }
+        }
+        throw cannotConvert(column, "int");
+    }
+
+    static Double toDouble(Object value, int column) throws SQLException {
+        if (value == null || value instanceof Double) {
+            return (Double) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException e) {
+                throw cannotConvert(column, "float");
+            }
+        }
+        throw cannotConvert(column, "float");
+    }
+
+    static BigDecimal toBigDecimal(Object value, int column) throws SQLException {
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof Long) {
+            return BigDecimal.valueOf((Long) value);
+        } else if (value instanceof Double) {
+            return BigDecimal.valueOf((Double) value);
+        } else if (value instanceof String) {
+            try {
+                return new BigDecimal(((String) value).trim());
+            } catch (NumberFormatException e) {
+                throw cannotConvert(column, "decimal");
+            }
+        }
+        throw cannotConvert(column, "decimal");
+    }
+
+    static String toString(Object value, int column) throws SQLException {
+        if (value instanceof byte[]) {
+            throw cannotConvert(column, "string");
+        }
+        return value == null ? null : value.toString();
+    }
+
+    static Boolean toBoolean(Object value, int column) throws SQLException {
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        } else if (value instanceof String) {
+            String stringValue = ((String) value).trim();
+            return "1".equals(stringValue) || Boolean.parseBoolean(stringValue);
+        }
+        throw cannotConvert(column, "boolean");
+    }
+
+    static byte[] toBytes(Object value, int column) throws SQLException {
+        if (value == null || value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        throw cannotConvert(column, "byte[]");
+    }
+
+    private static SQLException cannotConvert(int column, String type) {
+        return new SQLException("Column " + column + " cannot be read as " + type);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.cursor;
+
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+import java.sql.SQLException;
+
+/**
+ * Reads a boolean column of the current row of a cursor.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "getBoolean",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "ResultCursor",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "column", type = TypeKind.STRING)},
+        returnType = {@ReturnType(type = TypeKind.BOOLEAN),
+                @ReturnType(type = TypeKind.NIL),
+                @ReturnType(type = TypeKind.ERROR)}
+)
+public class GetBoolean extends ColumnGetter {
+
+    @Override
+    BValue getValue(ResultCursor cursor, String column) throws SQLException {
+        Boolean value = cursor.getBoolean(column);
+        return value == null ? null : new BBoolean(value);
+    }
+}
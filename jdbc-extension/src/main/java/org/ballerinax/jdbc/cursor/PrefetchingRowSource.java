@@ -0,0 +1,179 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.cursor;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the rows of a cursor ahead of the consumer. A background thread fetches and decodes rows into a bounded
+ * buffer, so that the round trips of the driver for the next batch of rows overlap with the processing of the
+ * current rows. The background thread waits while the buffer is full.
+ *
+ * @since 0.992.0
+ */
+class PrefetchingRowSource implements RowSource {
+
+    private static final long OFFER_INTERVAL_IN_MILLIS = 100;
+    private static final Object END_OF_ROWS = new Object();
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "jdbc-cursor-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ResultSet resultSet;
+    private final int[] columnTypes;
+    private final BlockingQueue<Object> rows;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean cancelled = false;
+    private Object[] currentRow;
+    private boolean exhausted = false;
+
+    PrefetchingRowSource(ResultSet resultSet, int[] columnTypes, int capacity) {
+        this.resultSet = resultSet;
+        this.columnTypes = columnTypes;
+        this.rows = new ArrayBlockingQueue<>(capacity);
+        PREFETCH_EXECUTOR.execute(this::prefetch);
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        if (exhausted) {
+            return false;
+        }
+        Object row;
+        try {
+            row = rows.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the next row", e);
+        }
+        if (row instanceof Object[]) {
+            currentRow = (Object[]) row;
+            return true;
+        }
+        exhausted = true;
+        currentRow = null;
+        if (row instanceof SQLException) {
+            SQLException e = (SQLException) row;
+            throw new SQLException(e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+        }
+        return false;
+    }
+
+    @Override
+    public Long getLong(int column) throws SQLException {
+        return ColumnValues.toLong(currentRow[column - 1], column);
+    }
+
+    @Override
+    public Double getDouble(int column) throws SQLException {
+        return ColumnValues.toDouble(currentRow[column - 1], column);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int column) throws SQLException {
+        return ColumnValues.toBigDecimal(currentRow[column - 1], column);
+    }
+
+    @Override
+    public String getString(int column) throws SQLException {
+        return ColumnValues.toString(currentRow[column - 1], column);
+    }
+
+    @Override
+    public Boolean getBoolean(int column) throws SQLException {
+        return ColumnValues.toBoolean(currentRow[column - 1], column);
+    }
+
+    @Override
+    public byte[] getBytes(int column) throws SQLException {
+        return ColumnValues.toBytes(currentRow[column - 1], column);
+    }
+
+    @Override
+    public Object getValue(int column) {
+        return currentRow[column - 1];
+    }
+
+    /**
+     * Stops the background thread and waits until it no longer uses the result set, so that the result set can be
+     * closed. A fetch which is in progress is completed first.
+     */
+    @Override
+    public void close() {
+        cancelled = true;
+        rows.clear();
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rows.clear();
+        currentRow = null;
+        exhausted = true;
+    }
+
+    private void prefetch() {
+        try {
+            while (!cancelled && resultSet.next()) {
+                Object[] row = new Object[columnTypes.length];
+                for (int column = 1; column <= row.length; column++) {
+                    row[column - 1] = ColumnValues.read(resultSet, column, columnTypes[column - 1]);
+                }
+                if (!enqueue(row)) {
+                    return;
+                }
+            }
+            if (!cancelled) {
+                enqueue(END_OF_ROWS);
+            }
+        } catch (SQLException e) {
+            if (!cancelled) {
+                enqueue(e);
+            }
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private boolean enqueue(Object item) {
+        try {
+            while (!rows.offer(item, OFFER_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cancelled) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
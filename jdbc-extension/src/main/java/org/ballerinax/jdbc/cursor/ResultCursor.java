@@ -0,0 +1,198 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.cursor;
+
+import org.ballerinalang.model.types.BMapType;
+import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinax.jdbc.StreamingQuery;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Iterates the rows of a streamed query. Columns are read from the result set and converted only when they are
+ * accessed, so reading a few columns of a wide row costs no more than selecting only those columns. When rows are
+ * prefetched, they are instead decoded ahead of the consumer on a background thread.
+ *
+ * @since 0.992.0
+ */
+public class ResultCursor {
+
+    static final String NATIVE_DATA_KEY = "ResultCursor";
+
+    private final StreamingQuery query;
+    private final RowSource rowSource;
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    private BMap<String, BValue> reusedRow;
+    private boolean onRow = false;
+    private boolean closed = false;
+
+    /**
+     * Creates a cursor over the rows of a query.
+     *
+     * @param query        the executed query
+     * @param prefetchRows number of rows to read ahead on a background thread, or 0 to read rows as they are
+     *                     consumed
+     * @throws SQLException if the columns of the result could not be read
+     */
+    ResultCursor(StreamingQuery query, int prefetchRows) throws SQLException {
+        this.query = query;
+        ResultSet resultSet = query.getResultSet();
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        columnNames = new String[metaData.getColumnCount()];
+        int[] columnTypes = new int[columnNames.length];
+        for (int column = 1; column <= columnNames.length; column++) {
+            columnNames[column - 1] = metaData.getColumnLabel(column);
+            columnTypes[column - 1] = metaData.getColumnType(column);
+            columnIndexes.putIfAbsent(columnNames[column - 1], column);
+            columnIndexes.putIfAbsent(columnNames[column - 1].toUpperCase(Locale.ENGLISH), column);
+        }
+        rowSource = prefetchRows > 0 ? new PrefetchingRowSource(resultSet, columnTypes, prefetchRows)
+                : new ResultSetRowSource(resultSet, columnTypes);
+    }
+
+    /**
+     * Moves to the next row. The cursor is closed once there are no more rows.
+     *
+     * @return {@code false} if there are no more rows
+     * @throws SQLException if the next row could not be fetched
+     */
+    boolean next() throws SQLException {
+        if (closed) {
+            return false;
+        }
+        onRow = rowSource.next();
+        if (!onRow) {
+            close();
+        }
+        return onRow;
+    }
+
+    String[] getColumnNames() {
+        return columnNames.clone();
+    }
+
+    Long getLong(String column) throws SQLException {
+        return rowSource.getLong(getColumnIndex(column));
+    }
+
+    Double getDouble(String column) throws SQLException {
+        return rowSource.getDouble(getColumnIndex(column));
+    }
+
+    BigDecimal getBigDecimal(String column) throws SQLException {
+        return rowSource.getBigDecimal(getColumnIndex(column));
+    }
+
+    String getString(String column) throws SQLException {
+        return rowSource.getString(getColumnIndex(column));
+    }
+
+    Boolean getBoolean(String column) throws SQLException {
+        return rowSource.getBoolean(getColumnIndex(column));
+    }
+
+    byte[] getBytes(String column) throws SQLException {
+        return rowSource.getBytes(getColumnIndex(column));
+    }
+
+    /**
+     * Refills the single row map of the cursor with the columns of the current row. The same map is returned for
+     * every row, so that iterating does not allocate a map per row.
+     *
+     * @return the reused row map
+     * @throws SQLException if the cursor is not on a row or a column could not be read
+     */
+    BMap<String, BValue> readReusedRow() throws SQLException {
+        checkOnRow();
+        if (reusedRow == null) {
+            reusedRow = new BMap<>(new BMapType(BTypes.typeAnydata));
+        }
+        fillRow(reusedRow);
+        return reusedRow;
+    }
+
+    /**
+     * Reads the columns of the current row into a new map, which is not affected by later rows.
+     *
+     * @return the row map
+     * @throws SQLException if the cursor is not on a row or a column could not be read
+     */
+    BMap<String, BValue> copyRow() throws SQLException {
+        checkOnRow();
+        BMap<String, BValue> row = new BMap<>(new BMapType(BTypes.typeAnydata));
+        fillRow(row);
+        return row;
+    }
+
+    private void fillRow(BMap<String, BValue> row) throws SQLException {
+        for (int column = 1; column <= columnNames.length; column++) {
+            row.put(columnNames[column - 1], ColumnValues.toBValue(rowSource.getValue(column)));
+        }
+    }
+
+    /**
+     * Closes the result set and returns the connection of the cursor to the pool.
+     *
+     * @throws SQLException if the cursor could not be closed
+     */
+    void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        onRow = false;
+        if (reusedRow != null) {
+            // A reused row kept past the end of the loop must not keep showing the last row.
+            reusedRow.clear();
+        }
+        try {
+            rowSource.close();
+        } finally {
+            query.close();
+        }
+    }
+
+    private void checkOnRow() throws SQLException {
+        if (!onRow) {
+            throw new SQLException(closed ? "Cursor is closed" : "Cursor is not on a row, call next() first");
+        }
+    }
+
+    private int getColumnIndex(String column) throws SQLException {
+        checkOnRow();
+        Integer index = columnIndexes.get(column);
+        if (index == null) {
+            index = columnIndexes.get(column.toUpperCase(Locale.ENGLISH));
+            if (index == null) {
+                throw new SQLException("Column " + column + " is not in the result");
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.cursor;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the rows of a cursor directly from its result set, converting a column only when it is accessed.
+ *
+ * @since 0.992.0
+ */
+class ResultSetRowSource implements RowSource {
+
+    private final ResultSet resultSet;
+    private final int[] columnTypes;
+
+    ResultSetRowSource(ResultSet resultSet, int[] columnTypes) {
+        this.resultSet = resultSet;
+        this.columnTypes = columnTypes;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        return resultSet.next();
+    }
+
+    @Override
+    public Long getLong(int column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    @Override
+    public Double getDouble(int column) throws SQLException {
+        double value = resultSet.getDouble(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int column) throws SQLException {
+        return resultSet.getBigDecimal(column);
+    }
+
+    @Override
+    public String getString(int column) throws SQLException {
+        return resultSet.getString(column);
+    }
+
+    @Override
+    public Boolean getBoolean(int column) throws SQLException {
+        boolean value = resultSet.getBoolean(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    @Override
+    public byte[] getBytes(int column) throws SQLException {
+        return resultSet.getBytes(column);
+    }
+
+    @Override
+    public Object getValue(int column) throws SQLException {
+        return ColumnValues.read(resultSet, column, columnTypes[column - 1]);
+    }
+
+    @Override
+    public void close() {
+        // Nothing is read ahead, and the result set is closed by the cursor.
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.cursor;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+/**
+ * Source of the rows of a cursor. Columns are addressed by their 1 based index, and SQL NULL is read as
+ * {@code null}.
+ *
+ * @since 0.992.0
+ */
+interface RowSource {
+
+    /**
+     * Moves to the next row.
+     *
+     * @return {@code false} if there are no more rows
+     * @throws SQLException if the next row could not be fetched
+     */
+    boolean next() throws SQLException;
+
+    Long getLong(int column) throws SQLException;
+
+    Double getDouble(int column) throws SQLException;
+
+    BigDecimal getBigDecimal(int column) throws SQLException;
+
+    String getString(int column) throws SQLException;
+
+    Boolean getBoolean(int column) throws SQLException;
+
+    byte[] getBytes(int column) throws SQLException;
+
+    /**
+     * Reads a column as the Java value of its SQL type. Refer {@link ColumnValues#read}.
+     *
+     * @param column index of the column
+     * @return the value
+     * @throws SQLException if the column could not be read
+     */
+    Object getValue(int column) throws SQLException;
+
+    /**
+     * Stops reading rows. The result set itself is closed by the cursor.
+     */
+    void close();
+}
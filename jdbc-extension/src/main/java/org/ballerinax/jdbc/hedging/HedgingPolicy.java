@@ -0,0 +1,117 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derives the delay after which a read is hedged from the latencies of recent reads, and limits the share of reads
+ * which are hedged with a token bucket. Each completed read adds {@code maxHedgeRatio} tokens and each hedge takes
+ * one, so that no more than that ratio of reads are hedged over time. The bucket starts with a single token, so that
+ * a read which stalls before any read has completed can be hedged as well.
+ *
+ * @since 0.992.0
+ */
+public class HedgingPolicy {
+
+    static final String NATIVE_DATA_KEY = "HedgingPolicy";
+
+    private static final int SAMPLE_COUNT = 1024;
+    private static final int MIN_SAMPLE_COUNT = 64;
+    private static final int RECOMPUTE_INTERVAL = 64;
+    private static final double MAX_HEDGE_TOKENS = 10;
+    private static final double INITIAL_HEDGE_TOKENS = 1;
+
+    private static final ScheduledExecutorService DELAY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "jdbc-hedging-delay");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final double percentile;
+    private final long minDelayInMillis;
+    private final long maxDelayInMillis;
+    private final double maxHedgeRatio;
+    private final long[] samples = new long[SAMPLE_COUNT];
+    private long sampleCount = 0;
+    private volatile long hedgeDelay;
+    private double hedgeTokens = INITIAL_HEDGE_TOKENS;
+
+    HedgingPolicy(double percentile, long minDelayInMillis, long maxDelayInMillis, double maxHedgeRatio) {
+        this.percentile = Math.min(100, Math.max(0, percentile));
+        this.minDelayInMillis = minDelayInMillis;
+        this.maxDelayInMillis = Math.max(minDelayInMillis, maxDelayInMillis);
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.hedgeDelay = this.maxDelayInMillis;
+    }
+
+    /**
+     * Returns the delay after which a read is hedged. Until enough latencies have been recorded, this is the maximum
+     * delay.
+     */
+    long getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    /**
+     * Records the latency of a completed read and adds to the hedge budget.
+     *
+     * @param latencyInMillis latency of the read
+     */
+    synchronized void recordLatency(long latencyInMillis) {
+        samples[(int) (sampleCount % SAMPLE_COUNT)] = latencyInMillis;
+        sampleCount++;
+        hedgeTokens = Math.min(MAX_HEDGE_TOKENS, hedgeTokens + maxHedgeRatio);
+        if (sampleCount >= MIN_SAMPLE_COUNT && sampleCount % RECOMPUTE_INTERVAL == 0) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(sampleCount, SAMPLE_COUNT));
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            long delay = sorted[Math.max(0, index)];
+            hedgeDelay = Math.min(maxDelayInMillis, Math.max(minDelayInMillis, delay));
+        }
+    }
+
+    /**
+     * Takes a token from the hedge budget.
+     *
+     * @return {@code true} if the read may be hedged, else {@code false} if the budget is used up
+     */
+    synchronized boolean tryHedge() {
+        if (hedgeTokens < 1) {
+            return false;
+        }
+        hedgeTokens--;
+        return true;
+    }
+
+    /**
+     * Returns a future which completes once the given delay has elapsed, without holding a thread in the meantime.
+     */
+    static CompletableFuture<Void> delay(long delayInMillis) {
+        CompletableFuture<Void> elapsed = new CompletableFuture<>();
+        DELAY_SCHEDULER.schedule(() -> elapsed.complete(null), delayInMillis, TimeUnit.MILLISECONDS);
+        return elapsed;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.hedging;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+
+/**
+ * Initializes the native state of a hedging policy.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "init",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "HedgingPolicy",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "percentile", type = TypeKind.FLOAT),
+                @Argument(name = "minDelayInMillis", type = TypeKind.INT),
+                @Argument(name = "maxDelayInMillis", type = TypeKind.INT),
+                @Argument(name = "maxHedgeRatio", type = TypeKind.FLOAT)}
+)
+public class Init extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> policy = (BMap<String, BValue>) context.getRefArgument(0);
+        policy.addNativeData(HedgingPolicy.NATIVE_DATA_KEY, new HedgingPolicy(context.getFloatArgument(0),
+                context.getIntArgument(0), context.getIntArgument(1), context.getFloatArgument(1)));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.lease;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Watches the connection borrowed by a call for a table which is not loaded to memory. Such a table keeps its
+ * connection until it is closed or all of its rows are read, so the call is only complete once the connection is
+ * returned to the pool. The watch is armed on the thread of the call before the query is executed, and the next
+ * connection borrowed on that thread from a {@link WatchingDatasource} is the watched connection.
+ *
+ * @since 0.992.0
+ */
+public class ConnectionWatch {
+
+    static final String NATIVE_DATA_KEY = "ConnectionWatch";
+
+    private static final ThreadLocal<ConnectionWatch> ARMED_WATCH = new ThreadLocal<>();
+
+    private final CompletableFuture<Void> returned = new CompletableFuture<>();
+    private volatile boolean watching = false;
+
+    /**
+     * Makes the next connection borrowed on the current thread the watched connection.
+     */
+    void arm() {
+        ARMED_WATCH.set(this);
+    }
+
+    /**
+     * Stops waiting for a connection to be borrowed on the current thread. If no connection was borrowed since the
+     * watch was armed, the watch completes.
+     *
+     * @return {@code true} if the watched connection is still borrowed
+     */
+    boolean disarm() {
+        if (ARMED_WATCH.get() == this) {
+            ARMED_WATCH.remove();
+        }
+        if (!watching) {
+            returned.complete(null);
+        }
+        return !returned.isDone();
+    }
+
+    /**
+     * Returns a future which completes once the watched connection is returned to its pool.
+     *
+     * @return the future
+     */
+    CompletableFuture<Void> whenReturned() {
+        return returned;
+    }
+
+    /**
+     * Hands a connection borrowed on the current thread to the watch armed on the thread, if there is one.
+     *
+     * @param connection the borrowed connection
+     * @return the connection to hand out to the caller
+     */
+    static Connection watchIfArmed(Connection connection) {
+        ConnectionWatch watch = ARMED_WATCH.get();
+        if (watch == null) {
+            return connection;
+        }
+        ARMED_WATCH.remove();
+        return watch.watch(connection);
+    }
+
+    private Connection watch(Connection connection) {
+        watching = true;
+        Class<?>[] interfaces = { Connection.class };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if ("close".equals(method.getName())) {
+                            returned.complete(null);
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.lease;
+
+import org.ballerinalang.database.sql.SQLDatasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.XADataSource;
+
+/**
+ * Datasource which hands the connections borrowed from another datasource to the {@link ConnectionWatch} armed on
+ * the borrowing thread, if there is one. Connections borrowed without an armed watch are handed out unchanged.
+ *
+ * @since 0.992.0
+ */
+public class WatchingDatasource extends SQLDatasource {
+
+    private final SQLDatasource datasource;
+
+    /**
+     * Creates a watching datasource.
+     *
+     * @param datasource datasource to borrow connections from
+     */
+    public WatchingDatasource(SQLDatasource datasource) {
+        this.datasource = datasource;
+    }
+
+    @Override
+    public Connection getSQLConnection() throws SQLException {
+        return ConnectionWatch.watchIfArmed(datasource.getSQLConnection());
+    }
+
+    @Override
+    public String getPeerAddress() {
+        return datasource.getPeerAddress();
+    }
+
+    @Override
+    public String getDatabaseName() {
+        return datasource.getDatabaseName();
+    }
+
+    @Override
+    public String getDatabaseProductName() {
+        return datasource.getDatabaseProductName();
+    }
+
+    @Override
+    public String getConnectorId() {
+        return datasource.getConnectorId();
+    }
+
+    @Override
+    public boolean isXAConnection() {
+        return datasource.isXAConnection();
+    }
+
+    @Override
+    public XADataSource getXADataSource() {
+        return datasource.getXADataSource();
+    }
+
+    @Override
+    public void closeConnectionPool() {
+        datasource.closeConnectionPool();
+    }
+
+    @Override
+    public void incrementClientCounter() {
+        datasource.incrementClientCounter();
+    }
+
+    @Override
+    public void decrementClientCounterAndAttemptPoolShutdown() {
+        datasource.decrementClientCounterAndAttemptPoolShutdown();
+    }
+}
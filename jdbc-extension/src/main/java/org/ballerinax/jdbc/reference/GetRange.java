@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.reference;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+import java.sql.SQLException;
+
+/**
+ * Returns the rows of a reference table whose range column value is within a range.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "getRange",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "ReferenceTable",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "fromValue", type = TypeKind.ANYDATA),
+                @Argument(name = "toValue", type = TypeKind.ANYDATA)},
+        returnType = {@ReturnType(type = TypeKind.ARRAY), @ReturnType(type = TypeKind.ERROR)}
+)
+public class GetRange extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> referenceTable = (BMap<String, BValue>) context.getRefArgument(0);
+        BValue fromValue = context.getRefArgument(1);
+        BValue toValue = context.getRefArgument(2);
+        ReferenceIndex index = (ReferenceIndex) referenceTable.getNativeData(ReferenceIndex.NATIVE_DATA_KEY);
+        try {
+            context.setReturnValues(index.range(fromValue, toValue));
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.reference;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.Constants;
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.StreamingQuery;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the change tracking value of a reference table, which is the first column of the first row of a
+ * query, as a string.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "readVersion",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "ReferenceTable",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "sqlClient", type = TypeKind.OBJECT, structType = "Client"),
+                @Argument(name = "changeQuery", type = TypeKind.STRING),
+                @Argument(name = "parameters", type = TypeKind.ARRAY)},
+        returnType = {@ReturnType(type = TypeKind.STRING), @ReturnType(type = TypeKind.ERROR)}
+)
+public class ReadVersion extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> referenceTable = (BMap<String, BValue>) context.getRefArgument(0);
+        BMap<String, BValue> sqlClient = (BMap<String, BValue>) context.getRefArgument(1);
+        BValueArray parameters = (BValueArray) context.getRefArgument(2);
+        String changeQuery = context.getStringArgument(0);
+        SQLDatasource datasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+        try (StreamingQuery query = StreamingQuery.execute(datasource, changeQuery, parameters)) {
+            ResultSet resultSet = query.getResultSet();
+            String version = resultSet.next() ? resultSet.getString(1) : null;
+            context.setReturnValues(new BString(version == null ? "" : version));
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.reference;
+
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.BMapType;
+import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BDecimal;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinax.jdbc.cursor.ColumnValues;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Indexes the rows of a reference table by their key columns for constant time lookups, and optionally by a range
+ * column for range queries. A reload builds a new snapshot of the rows and indexes and swaps it in, so that lookups
+ * never wait for a reload and always see a complete snapshot.
+ *
+ * @since 0.992.0
+ */
+public class ReferenceIndex {
+
+    static final String NATIVE_DATA_KEY = "ReferenceTable";
+
+    private final String[] keyColumns;
+    private final String rangeColumn;
+    private volatile Snapshot snapshot = new Snapshot(new String[0], Collections.emptyMap(), null);
+
+    ReferenceIndex(String[] keyColumns, String rangeColumn) {
+        this.keyColumns = keyColumns;
+        this.rangeColumn = rangeColumn;
+    }
+
+    /**
+     * Builds a new snapshot from the rows of a result set and swaps it in.
+     *
+     * @param resultSet the rows of the reference table
+     * @throws SQLException if the rows could not be read or a key or range column is not in the result
+     */
+    void reload(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        String[] columnNames = new String[metaData.getColumnCount()];
+        int[] columnTypes = new int[columnNames.length];
+        for (int column = 1; column <= columnNames.length; column++) {
+            columnNames[column - 1] = metaData.getColumnLabel(column);
+            columnTypes[column - 1] = metaData.getColumnType(column);
+        }
+        int[] keyIndexes = new int[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            keyIndexes[i] = findColumn(columnNames, keyColumns[i]);
+        }
+        int rangeIndex = rangeColumn.isEmpty() ? -1 : findColumn(columnNames, rangeColumn);
+
+        Map<String, Object[]> rowsByKey = new HashMap<>();
+        NavigableMap<Comparable<Object>, List<Object[]>> rowsByRange = rangeIndex < 0 ? null : new TreeMap<>();
+        Object[] keyValues = new Object[keyIndexes.length];
+        while (resultSet.next()) {
+            Object[] row = new Object[columnNames.length];
+            for (int column = 1; column <= row.length; column++) {
+                row[column - 1] = ColumnValues.read(resultSet, column, columnTypes[column - 1]);
+            }
+            for (int i = 0; i < keyIndexes.length; i++) {
+                keyValues[i] = row[keyIndexes[i]];
+            }
+            rowsByKey.put(toKey(keyValues), row);
+            if (rowsByRange != null) {
+                Comparable<Object> rangeValue = toRangeValue(row[rangeIndex]);
+                if (rangeValue != null) {
+                    rowsByRange.computeIfAbsent(rangeValue, value -> new ArrayList<>()).add(row);
+                }
+            }
+        }
+        snapshot = new Snapshot(columnNames, rowsByKey, rowsByRange);
+    }
+
+    /**
+     * Looks up a row by the values of its key columns.
+     *
+     * @param keyValues values of the key columns, in the order of the key columns
+     * @return the row, or {@code null} if there is no row with the key
+     * @throws SQLException if the number of values does not match the number of key columns
+     */
+    BMap<String, BValue> lookup(BValueArray keyValues) throws SQLException {
+        if (keyValues.size() != keyColumns.length) {
+            throw new SQLException("Expected " + keyColumns.length + " key values, but found " + keyValues.size());
+        }
+        Object[] values = new Object[keyColumns.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = toJavaValue(keyValues.getRefValue(i));
+        }
+        Snapshot current = snapshot;
+        Object[] row = current.rowsByKey.get(toKey(values));
+        return row == null ? null : current.toRowMap(row);
+    }
+
+    /**
+     * Returns the rows whose range column value is within a range.
+     *
+     * @param from lower bound of the range, inclusive
+     * @param to   upper bound of the range, exclusive
+     * @return the rows, ordered by their range column value
+     * @throws SQLException if there is no range column or the bounds cannot be compared with its values
+     */
+    BValueArray range(BValue from, BValue to) throws SQLException {
+        Snapshot current = snapshot;
+        if (rangeColumn.isEmpty()) {
+            throw new SQLException("Reference table has no range column");
+        }
+        Comparable<Object> fromValue = toRangeValue(toJavaValue(from));
+        Comparable<Object> toValue = toRangeValue(toJavaValue(to));
+        if (fromValue == null || toValue == null) {
+            throw new SQLException("Range bounds must be numbers or strings");
+        }
+        BValueArray rows = new BValueArray(new BArrayType(new BMapType(BTypes.typeAnydata)));
+        if (current.rowsByRange == null || current.rowsByRange.isEmpty()) {
+            return rows;
+        }
+        Collection<List<Object[]>> rowLists;
+        try {
+            if (fromValue.compareTo(toValue) >= 0) {
+                return rows;
+            }
+            rowLists = current.rowsByRange.subMap(fromValue, true, toValue, false).values();
+        } catch (ClassCastException e) {
+            throw new SQLException("Range bounds cannot be compared with the values of " + rangeColumn, e);
+        }
+        int index = 0;
+        for (List<Object[]> rowList : rowLists) {
+            for (Object[] row : rowList) {
+                rows.add(index++, current.toRowMap(row));
+            }
+        }
+        return rows;
+    }
+
+    int getRowCount() {
+        return snapshot.rowsByKey.size();
+    }
+
+    private static int findColumn(String[] columnNames, String column) throws SQLException {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equals(column)) {
+                return i;
+            }
+        }
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        throw new SQLException("Column " + column + " is not in the result");
+    }
+
+    /**
+     * Returns the hash key of the given key values. Numbers of different types which are numerically equal, such as
+     * an {@code int} and a {@code decimal}, have the same key.
+     */
+    private static String toKey(Object[] values) {
+        StringBuilder key = new StringBuilder();
+        for (Object value : values) {
+            if (value == null) {
+                key.append('-');
+            } else if (value instanceof Number) {
+                key.append('n').append(toBigDecimal((Number) value).stripTrailingZeros().toPlainString());
+            } else if (value instanceof byte[]) {
+                key.append('x').append(Base64.getEncoder().encodeToString((byte[]) value));
+            } else if (value instanceof Boolean) {
+                key.append('b').append(value);
+            } else {
+                key.append('s').append(value);
+            }
+            key.append('\0');
+        }
+        return key.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> toRangeValue(Object value) {
+        if (value instanceof Number) {
+            return (Comparable<Object>) (Comparable<?>) toBigDecimal((Number) value);
+        } else if (value instanceof String) {
+            return (Comparable<Object>) (Comparable<?>) value;
+        }
+        return null;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof Double) {
+            return BigDecimal.valueOf((Double) value);
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+
+    private static Object toJavaValue(BValue value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof BInteger) {
+            return ((BInteger) value).intValue();
+        } else if (value instanceof BFloat) {
+            return ((BFloat) value).floatValue();
+        } else if (value instanceof BDecimal) {
+            return ((BDecimal) value).decimalValue();
+        } else if (value instanceof BBoolean) {
+            return ((BBoolean) value).booleanValue();
+        } else if (value instanceof BValueArray) {
+            return ((BValueArray) value).getBytes();
+        } else if (value instanceof BString) {
+            return value.stringValue();
+        }
+        return value.stringValue();
+    }
+
+    /**
+     * An immutable snapshot of the rows of the reference table and their indexes.
+     */
+    private static class Snapshot {
+
+        private final String[] columnNames;
+        private final Map<String, Object[]> rowsByKey;
+        private final NavigableMap<Comparable<Object>, List<Object[]>> rowsByRange;
+
+        Snapshot(String[] columnNames, Map<String, Object[]> rowsByKey,
+                 NavigableMap<Comparable<Object>, List<Object[]>> rowsByRange) {
+            this.columnNames = columnNames;
+            this.rowsByKey = rowsByKey;
+            this.rowsByRange = rowsByRange;
+        }
+
+        BMap<String, BValue> toRowMap(Object[] row) {
+            BMap<String, BValue> rowMap = new BMap<>(new BMapType(BTypes.typeAnydata));
+            for (int column = 0; column < columnNames.length; column++) {
+                rowMap.put(columnNames[column], ColumnValues.toBValue(row[column]));
+            }
+            return rowMap;
+        }
+    }
+}
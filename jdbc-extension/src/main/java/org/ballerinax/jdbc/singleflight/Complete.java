@@ -0,0 +1,62 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.singleflight;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BError;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinax.jdbc.spill.LoadedRows;
+
+/**
+ * Completes a call led by the caller and hands its result, a loaded table or an error, to the callers which joined
+ * it.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "complete",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "SingleFlightGroup",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "key", type = TypeKind.STRING),
+                @Argument(name = "result", type = TypeKind.UNION)}
+)
+public class Complete extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> groupObject = (BMap<String, BValue>) context.getRefArgument(0);
+        BValue result = context.getRefArgument(1);
+        String key = context.getStringArgument(0);
+        SingleFlightGroup group = (SingleFlightGroup) groupObject.getNativeData(SingleFlightGroup.NATIVE_DATA_KEY);
+        if (result instanceof BError) {
+            group.complete(key, result);
+        } else {
+            group.complete(key, ((BMap<String, BValue>) result).getNativeData(LoadedRows.NATIVE_DATA_KEY));
+        }
+    }
+}
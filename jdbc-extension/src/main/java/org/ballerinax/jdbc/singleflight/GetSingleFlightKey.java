@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.singleflight;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+/**
+ * Returns the key of a call, which is the same for calls with the same SQL and parameter values of the same types.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "getSingleFlightKey",
+        args = {@Argument(name = "sqlQuery", type = TypeKind.STRING),
+                @Argument(name = "parameters", type = TypeKind.ARRAY)},
+        returnType = {@ReturnType(type = TypeKind.STRING)}
+)
+public class GetSingleFlightKey extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        String sqlQuery = context.getStringArgument(0);
+        BValueArray parameters = (BValueArray) context.getRefArgument(0);
+        StringBuilder key = new StringBuilder(sqlQuery);
+        for (int i = 0; i < parameters.size(); i++) {
+            BValue parameter = parameters.getRefValue(i);
+            key.append('\0');
+            if (parameter != null) {
+                key.append(parameter.getType().getName()).append(':').append(parameter.stringValue());
+            }
+        }
+        context.setReturnValues(new BString(key.toString()));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.singleflight;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.model.NativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BError;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinax.jdbc.spill.LoadedRows;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Joins the identical call in flight, waiting without blocking a worker thread for its result, or makes the caller
+ * the leader of a new call. A loaded table which is shared is attached to the given loaded table of the caller.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "join",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "SingleFlightGroup",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "key", type = TypeKind.STRING),
+                @Argument(name = "sharedTable", type = TypeKind.OBJECT, structType = "LoadedTable")},
+        returnType = {@ReturnType(type = TypeKind.BOOLEAN), @ReturnType(type = TypeKind.ERROR)}
+)
+public class Join implements NativeCallableUnit {
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        BMap<String, BValue> groupObject = (BMap<String, BValue>) context.getRefArgument(0);
+        BMap<String, BValue> sharedTable = (BMap<String, BValue>) context.getRefArgument(1);
+        String key = context.getStringArgument(0);
+        join((SingleFlightGroup) groupObject.getNativeData(SingleFlightGroup.NATIVE_DATA_KEY), key, sharedTable,
+                context, callback);
+    }
+
+    private static void join(SingleFlightGroup group, String key, BMap<String, BValue> sharedTable, Context context,
+                             CallableUnitCallback callback) {
+        CompletableFuture<Object> flight = group.join(key);
+        if (flight == null) {
+            context.setReturnValues(new BBoolean(true));
+            callback.notifySuccess();
+            return;
+        }
+        flight.thenAccept(result -> {
+            if (result instanceof LoadedRows) {
+                LoadedRows rows = (LoadedRows) result;
+                if (!rows.retain()) {
+                    // The leader has already closed its table, so the result can no longer be shared.
+                    join(group, key, sharedTable, context, callback);
+                    return;
+                }
+                sharedTable.addNativeData(LoadedRows.NATIVE_DATA_KEY, rows);
+                context.setReturnValues(new BBoolean(false));
+            } else {
+                context.setReturnValues((BError) result);
+            }
+            callback.notifySuccess();
+        });
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.singleflight;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the calls of a client which are in flight by their key, so that identical concurrent calls share the result
+ * of the first one instead of running again. Nothing is cached: a call is forgotten as soon as it completes.
+ *
+ * @since 0.992.0
+ */
+public class SingleFlightGroup {
+
+    static final String NATIVE_DATA_KEY = "SingleFlightGroup";
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong collapsedCallCount = new AtomicLong();
+
+    /**
+     * Joins the call in flight with the given key, or starts one.
+     *
+     * @param key key of the call
+     * @return {@code null} if the caller leads a new call and must complete it, else the result of the call in flight
+     */
+    CompletableFuture<Object> join(String key) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(key, flight);
+        if (existing == null) {
+            return null;
+        }
+        collapsedCallCount.incrementAndGet();
+        return existing;
+    }
+
+    /**
+     * Completes the call led by the caller and hands its result to the callers which joined it.
+     *
+     * @param key    key of the call
+     * @param result result of the call
+     */
+    void complete(String key, Object result) {
+        CompletableFuture<Object> flight = flights.remove(key);
+        if (flight != null) {
+            flight.complete(result);
+        }
+    }
+
+    long getCollapsedCallCount() {
+        return collapsedCallCount.get();
+    }
+}
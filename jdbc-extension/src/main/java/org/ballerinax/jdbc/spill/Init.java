@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.spill;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+
+/**
+ * Initializes the native state of the table memory budget of a client.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "init",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "TableMemoryBudget",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "maxTableMemoryInBytes", type = TypeKind.INT),
+                @Argument(name = "maxTotalMemoryInBytes", type = TypeKind.INT),
+                @Argument(name = "spillDirectory", type = TypeKind.STRING)}
+)
+public class Init extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> budget = (BMap<String, BValue>) context.getRefArgument(0);
+        long maxTableBytes = context.getIntArgument(0);
+        long maxTotalBytes = context.getIntArgument(1);
+        String spillDirectory = context.getStringArgument(0);
+        if (spillDirectory.isEmpty()) {
+            spillDirectory = System.getProperty("java.io.tmpdir");
+        }
+        budget.addNativeData(MemoryBudget.NATIVE_DATA_KEY,
+                new MemoryBudget(maxTableBytes, maxTotalBytes, spillDirectory));
+    }
+}
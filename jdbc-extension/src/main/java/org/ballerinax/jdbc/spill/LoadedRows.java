@@ -0,0 +1,210 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.spill;
+
+import org.ballerinalang.model.types.BMapType;
+import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinax.jdbc.cursor.ColumnValues;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The rows of a query, loaded for random access. Rows are kept on the heap while the table and the client stay
+ * within their {@link MemoryBudget}, and the remaining rows are spilled to a memory mapped {@link SpillFile}.
+ *
+ * @since 0.992.0
+ */
+public class LoadedRows {
+
+    public static final String NATIVE_DATA_KEY = "LoadedTable";
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int STRING_BYTES = 40;
+
+    private final MemoryBudget budget;
+    private final String[] columnNames;
+    private final List<Object[]> heapRows = new ArrayList<>();
+    private long reservedBytes = 0;
+    private SpillFile spillFile;
+    private long[] spillOffsets = new long[0];
+    private int spilledRowCount = 0;
+    private int references = 1;
+    private boolean closed = false;
+
+    private LoadedRows(MemoryBudget budget, String[] columnNames) {
+        this.budget = budget;
+        this.columnNames = columnNames;
+    }
+
+    /**
+     * Reads all the rows of a result set.
+     *
+     * @param resultSet the result set
+     * @param budget    heap memory available to the rows
+     * @return the loaded rows
+     * @throws SQLException if the rows could not be read
+     * @throws IOException  if the rows could not be spilled
+     */
+    static LoadedRows load(ResultSet resultSet, MemoryBudget budget) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        String[] columnNames = new String[metaData.getColumnCount()];
+        int[] columnTypes = new int[columnNames.length];
+        for (int column = 1; column <= columnNames.length; column++) {
+            columnNames[column - 1] = metaData.getColumnLabel(column);
+            columnTypes[column - 1] = metaData.getColumnType(column);
+        }
+        LoadedRows rows = new LoadedRows(budget, columnNames);
+        try {
+            while (resultSet.next()) {
+                Object[] row = new Object[columnTypes.length];
+                for (int column = 1; column <= row.length; column++) {
+                    row[column - 1] = ColumnValues.read(resultSet, column, columnTypes[column - 1]);
+                }
+                rows.add(row);
+            }
+            if (rows.spillFile != null) {
+                rows.spillFile.finish();
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            rows.close();
+            throw e;
+        }
+        return rows;
+    }
+
+    int getRowCount() {
+        return heapRows.size() + spilledRowCount;
+    }
+
+    boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Returns a row as a new map.
+     *
+     * @param index index of the row
+     * @return the row
+     * @throws IOException if the table is closed or the index is out of range
+     */
+    synchronized BMap<String, BValue> getRow(long index) throws IOException {
+        if (closed) {
+            throw new IOException("Table is closed");
+        }
+        if (index < 0 || index >= getRowCount()) {
+            throw new IOException("Row index " + index + " is out of range, the table has " + getRowCount() + " rows");
+        }
+        Object[] row = index < heapRows.size() ? heapRows.get((int) index)
+                : spillFile.read(spillOffsets[(int) index - heapRows.size()], columnNames.length);
+        BMap<String, BValue> rowMap = new BMap<>(new BMapType(BTypes.typeAnydata));
+        for (int column = 0; column < columnNames.length; column++) {
+            rowMap.put(columnNames[column], ColumnValues.toBValue(row[column]));
+        }
+        return rowMap;
+    }
+
+    /**
+     * Adds a reference to the rows, for a loaded table which shares them.
+     *
+     * @return {@code false} if the rows are already closed
+     */
+    public synchronized boolean retain() {
+        if (closed) {
+            return false;
+        }
+        references++;
+        return true;
+    }
+
+    /**
+     * Removes a reference to the rows. Once no loaded table references them, the heap memory of the rows is released
+     * and the spill file is deleted.
+     *
+     * @throws IOException if the spill file could not be deleted
+     */
+    synchronized void release() throws IOException {
+        if (closed || --references > 0) {
+            return;
+        }
+        close();
+    }
+
+    /**
+     * Releases the heap memory of the rows and deletes the spill file.
+     *
+     * @throws IOException if the spill file could not be deleted
+     */
+    private void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        heapRows.clear();
+        budget.release(reservedBytes);
+        reservedBytes = 0;
+        if (spillFile != null) {
+            spillFile.delete();
+        }
+    }
+
+    private void add(Object[] row) throws IOException {
+        if (spillFile == null) {
+            long rowBytes = estimateSize(row);
+            if (reservedBytes + rowBytes <= budget.getMaxTableBytes() && budget.tryReserve(rowBytes)) {
+                reservedBytes += rowBytes;
+                heapRows.add(row);
+                return;
+            }
+            // Once a row is spilled, all later rows are spilled too, so that the rows keep their order.
+            spillFile = new SpillFile(Paths.get(budget.getSpillDirectory()));
+        }
+        if (spilledRowCount == spillOffsets.length) {
+            spillOffsets = Arrays.copyOf(spillOffsets, Math.max(1024, spillOffsets.length * 2));
+        }
+        spillOffsets[spilledRowCount++] = spillFile.append(row);
+    }
+
+    private static long estimateSize(Object[] row) {
+        long size = OBJECT_HEADER_BYTES + REFERENCE_BYTES * (row.length + 1);
+        for (Object value : row) {
+            if (value instanceof String) {
+                size += STRING_BYTES + 2L * ((String) value).length();
+            } else if (value instanceof byte[]) {
+                size += OBJECT_HEADER_BYTES + ((byte[]) value).length;
+            } else if (value instanceof BigDecimal) {
+                size += STRING_BYTES;
+            } else if (value != null) {
+                size += OBJECT_HEADER_BYTES;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.spill;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap memory available to the loaded tables of a client. Each loaded table may keep up to a per table limit of rows
+ * on the heap, as long as the tables of the client together stay within a total limit. The remaining rows of a table
+ * are spilled to a file.
+ *
+ * @since 0.992.0
+ */
+public class MemoryBudget {
+
+    static final String NATIVE_DATA_KEY = "TableMemoryBudget";
+
+    private final long maxTableBytes;
+    private final long maxTotalBytes;
+    private final String spillDirectory;
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    MemoryBudget(long maxTableBytes, long maxTotalBytes, String spillDirectory) {
+        this.maxTableBytes = maxTableBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    long getMaxTableBytes() {
+        return maxTableBytes;
+    }
+
+    String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Reserves heap memory for rows, if it is available within the total limit.
+     *
+     * @param bytes estimated size of the rows
+     * @return {@code true} if the memory was reserved
+     */
+    boolean tryReserve(long bytes) {
+        while (true) {
+            long used = usedBytes.get();
+            if (used + bytes > maxTotalBytes) {
+                return false;
+            }
+            if (usedBytes.compareAndSet(used, used + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long bytes) {
+        usedBytes.addAndGet(-bytes);
+    }
+}
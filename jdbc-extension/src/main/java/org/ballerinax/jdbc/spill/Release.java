@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.spill;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Releases the rows of a loaded table. The heap memory of the rows is released and their spill file is deleted
+ * once no loaded table shares them.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "release",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "LoadedTable",
+                structPackage = "ballerinax/jdbc"),
+        returnType = {@ReturnType(type = TypeKind.NIL), @ReturnType(type = TypeKind.ERROR)}
+)
+public class Release extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> loadedTable = (BMap<String, BValue>) context.getRefArgument(0);
+        LoadedRows rows = (LoadedRows) loadedTable.getNativeData(LoadedRows.NATIVE_DATA_KEY);
+        try {
+            rows.release();
+            context.setReturnValues();
+        } catch (IOException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context,
+                    new SQLException("Failed to delete the spill file: " + e.getMessage(), e)));
+        }
+    }
+}
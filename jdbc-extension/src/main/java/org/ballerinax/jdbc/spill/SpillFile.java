@@ -0,0 +1,265 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.spill;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Temporary file holding the spilled rows of a loaded table. Rows are appended in a compact tagged binary encoding
+ * while the table is loaded, after which the file is memory mapped, so that reading a row does not copy the file
+ * through the heap and the operating system decides which parts of it stay in memory.
+ *
+ * @since 0.992.0
+ */
+class SpillFile {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long REGION_SIZE = 1L << 30;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte DECIMAL = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte BYTES = 5;
+    private static final byte STRING = 6;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private long size = 0;
+    private MappedByteBuffer[] regions;
+
+    SpillFile(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        path = Files.createTempFile(directory, "ballerina-jdbc-", ".spill");
+        path.toFile().deleteOnExit();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param row values of the columns of the row, as read by {@code ColumnValues.read}
+     * @return offset of the row in the file
+     * @throws IOException if the row could not be written
+     */
+    long append(Object[] row) throws IOException {
+        long offset = size;
+        for (Object value : row) {
+            if (value == null) {
+                putByte(NULL);
+            } else if (value instanceof Long) {
+                putByte(LONG);
+                ensureSpace(Long.BYTES);
+                writeBuffer.putLong((Long) value);
+                size += Long.BYTES;
+            } else if (value instanceof Double) {
+                putByte(DOUBLE);
+                ensureSpace(Double.BYTES);
+                writeBuffer.putDouble((Double) value);
+                size += Double.BYTES;
+            } else if (value instanceof BigDecimal) {
+                putByte(DECIMAL);
+                putBytes(((BigDecimal) value).toString().getBytes(StandardCharsets.UTF_8));
+            } else if (value instanceof Boolean) {
+                putByte(BOOLEAN);
+                putByte((Boolean) value ? (byte) 1 : (byte) 0);
+            } else if (value instanceof byte[]) {
+                putByte(BYTES);
+                putBytes((byte[]) value);
+            } else {
+                putByte(STRING);
+                putBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Flushes the appended rows and maps the file for reading. No rows can be appended afterwards.
+     *
+     * @throws IOException if the file could not be written or mapped
+     */
+    void finish() throws IOException {
+        flush();
+        int regionCount = (int) ((size + REGION_SIZE - 1) / REGION_SIZE);
+        regions = new MappedByteBuffer[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            long start = region * REGION_SIZE;
+            regions[region] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+        }
+    }
+
+    /**
+     * Reads a row.
+     *
+     * @param offset      offset of the row in the file
+     * @param columnCount number of columns of the row
+     * @return values of the columns of the row
+     */
+    Object[] read(long offset, int columnCount) {
+        Object[] row = new Object[columnCount];
+        long position = offset;
+        for (int column = 0; column < columnCount; column++) {
+            byte tag = getByte(position++);
+            switch (tag) {
+            case LONG:
+                row[column] = getLong(position);
+                position += Long.BYTES;
+                break;
+            case DOUBLE:
+                row[column] = Double.longBitsToDouble(getLong(position));
+                position += Double.BYTES;
+                break;
+            case DECIMAL:
+            case BYTES:
+            case STRING:
+                byte[] bytes = new byte[getInt(position)];
+                position += Integer.BYTES;
+                getBytes(position, bytes);
+                position += bytes.length;
+                if (tag == DECIMAL) {
+                    row[column] = new BigDecimal(new String(bytes, StandardCharsets.UTF_8));
+                } else if (tag == STRING) {
+                    row[column] = new String(bytes, StandardCharsets.UTF_8);
+                } else {
+                    row[column] = bytes;
+                }
+                break;
+            case BOOLEAN:
+                row[column] = getByte(position++) == 1;
+                break;
+            default:
+                row[column] = null;
+                break;
+            }
+        }
+        return row;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Closes and deletes the file. The mapped regions are released once they are garbage collected.
+     *
+     * @throws IOException if the file could not be deleted
+     */
+    void delete() throws IOException {
+        regions = null;
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private void putByte(byte value) throws IOException {
+        ensureSpace(1);
+        writeBuffer.put(value);
+        size++;
+    }
+
+    private void putBytes(byte[] value) throws IOException {
+        ensureSpace(Integer.BYTES);
+        writeBuffer.putInt(value.length);
+        size += Integer.BYTES;
+        if (value.length > writeBuffer.remaining()) {
+            flush();
+            if (value.length > writeBuffer.capacity()) {
+                ByteBuffer source = ByteBuffer.wrap(value);
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+                size += value.length;
+                return;
+            }
+        }
+        writeBuffer.put(value);
+        size += value.length;
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        if (writeBuffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private byte getByte(long position) {
+        return regions[(int) (position / REGION_SIZE)].get((int) (position % REGION_SIZE));
+    }
+
+    private int getInt(long position) {
+        int index = (int) (position % REGION_SIZE);
+        MappedByteBuffer region = regions[(int) (position / REGION_SIZE)];
+        if (index + Integer.BYTES <= region.limit()) {
+            return region.getInt(index);
+        }
+        // The value crosses into the next region.
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            value = (value << 8) | (getByte(position + i) & 0xff);
+        }
+        return value;
+    }
+
+    private long getLong(long position) {
+        int index = (int) (position % REGION_SIZE);
+        MappedByteBuffer region = regions[(int) (position / REGION_SIZE)];
+        if (index + Long.BYTES <= region.limit()) {
+            return region.getLong(index);
+        }
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (getByte(position + i) & 0xff);
+        }
+        return value;
+    }
+
+    private void getBytes(long position, byte[] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            long current = position + copied;
+            ByteBuffer region = regions[(int) (current / REGION_SIZE)].duplicate();
+            region.position((int) (current % REGION_SIZE));
+            int length = Math.min(bytes.length - copied, region.remaining());
+            region.get(bytes, copied, length);
+            copied += length;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.tenancy;
+
+import org.ballerinalang.database.sql.SQLDatasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.XADataSource;
+
+/**
+ * Datasource of a tenant client, which borrows connections from the pool of another datasource and switches them to
+ * the schema and catalog of the tenant. The schema and catalog are set on the physical connection, so that they stay
+ * in place when the connection is returned to the pool and are only set again when a connection which was last used
+ * by another tenant is borrowed. The number of connections a tenant holds at a time can be capped, so that one tenant
+ * cannot take all the connections of the shared pool. XA connections are not switched, so tenant datasources are not
+ * created over XA pools.
+ *
+ * @since 0.992.0
+ */
+public class TenantDatasource extends SQLDatasource {
+
+    /**
+     * Schema and catalog last set on each physical connection. Connections which are evicted from the pool are
+     * dropped from the map once they are garbage collected.
+     */
+    private static final Map<Connection, String> CONNECTION_STATES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final SQLDatasource sharedDatasource;
+    private final String schema;
+    private final String catalog;
+    private final String state;
+    private final Semaphore permits;
+    private final long acquireTimeoutInMillis;
+
+    /**
+     * Creates the datasource of a tenant.
+     *
+     * @param sharedDatasource       datasource of the shared pool
+     * @param schema                 schema of the tenant, or {@code null} to leave the schema unchanged
+     * @param catalog                catalog of the tenant, or {@code null} to leave the catalog unchanged
+     * @param maxConcurrentCalls     maximum number of connections the tenant holds at a time, or 0 for no limit
+     * @param acquireTimeoutInMillis maximum time to wait for a connection once the tenant holds the maximum number
+     */
+    public TenantDatasource(SQLDatasource sharedDatasource, String schema, String catalog, int maxConcurrentCalls,
+                            long acquireTimeoutInMillis) {
+        this.sharedDatasource = sharedDatasource;
+        this.schema = schema;
+        this.catalog = catalog;
+        this.state = catalog + "/" + schema;
+        this.permits = maxConcurrentCalls > 0 ? new Semaphore(maxConcurrentCalls, true) : null;
+        this.acquireTimeoutInMillis = acquireTimeoutInMillis;
+    }
+
+    @Override
+    public Connection getSQLConnection() throws SQLException {
+        acquirePermit();
+        Connection connection;
+        try {
+            connection = sharedDatasource.getSQLConnection();
+            switchState(connection);
+        } catch (SQLException | RuntimeException e) {
+            releasePermit();
+            throw e;
+        }
+        return permits == null ? connection : releasingPermitOnClose(connection);
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (permits == null) {
+            return;
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutInMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a connection: the tenant holds the maximum number of "
+                        + "concurrent connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private void releasePermit() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Sets the schema and catalog of the tenant on the physical connection behind a pooled connection, unless they
+     * were the last ones set on it.
+     */
+    private void switchState(Connection connection) throws SQLException {
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        if (Objects.equals(CONNECTION_STATES.get(physicalConnection), state)) {
+            return;
+        }
+        if (catalog != null) {
+            physicalConnection.setCatalog(catalog);
+        }
+        if (schema != null) {
+            physicalConnection.setSchema(schema);
+        }
+        CONNECTION_STATES.put(physicalConnection, state);
+    }
+
+    /**
+     * Wraps a connection so that the permit of the tenant is released when the connection is closed, i.e. returned
+     * to the pool.
+     */
+    private Connection releasingPermitOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        Class<?>[] interfaces = { Connection.class };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            releasePermit();
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public String getPeerAddress() {
+        return sharedDatasource.getPeerAddress();
+    }
+
+    @Override
+    public String getDatabaseName() {
+        return sharedDatasource.getDatabaseName();
+    }
+
+    @Override
+    public String getDatabaseProductName() {
+        return sharedDatasource.getDatabaseProductName();
+    }
+
+    @Override
+    public String getConnectorId() {
+        return sharedDatasource.getConnectorId();
+    }
+
+    @Override
+    public boolean isXAConnection() {
+        return sharedDatasource.isXAConnection();
+    }
+
+    @Override
+    public XADataSource getXADataSource() {
+        return sharedDatasource.getXADataSource();
+    }
+
+    @Override
+    public void closeConnectionPool() {
+        sharedDatasource.closeConnectionPool();
+    }
+
+    @Override
+    public void incrementClientCounter() {
+        sharedDatasource.incrementClientCounter();
+    }
+
+    @Override
+    public void decrementClientCounterAndAttemptPoolShutdown() {
+        sharedDatasource.decrementClientCounterAndAttemptPoolShutdown();
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.transfer;
+
+import org.ballerinalang.database.sql.SQLDatasource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the records of a CSV file into a table with batched inserts. Records are parsed and converted to the types
+ * of their columns on the calling thread, and inserted either on the calling thread or, in parallel, by workers which
+ * each insert whole batches on a connection of their own. Records which cannot be converted or inserted are written
+ * to a quarantine file instead of failing the import.
+ *
+ * @since 0.992.0
+ */
+final class CsvImporter {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)?");
+    private static final List<Object[]> END_OF_IMPORT = Collections.emptyList();
+    private static final long QUEUE_POLL_INTERVAL_IN_MILLIS = 100;
+    private static final String ERROR_COLUMN = "error";
+
+    private final SQLDatasource datasource;
+    private final String tableName;
+    private final int batchSize;
+    private final int parallelism;
+    private final String quarantinePath;
+    private final AtomicLong importedRowCount = new AtomicLong();
+    private final AtomicLong quarantinedRowCount = new AtomicLong();
+    private String[] columns;
+    private int[] fieldIndexes;
+    private int[] columnTypes;
+    private String insertQuery;
+    private ChannelWriter quarantine;
+
+    /**
+     * Creates an importer of CSV files into a table.
+     *
+     * @param datasource     datasource of the SQL client to insert the records with
+     * @param tableName      name of the table
+     * @param batchSize      number of records inserted with one batch
+     * @param parallelism    number of batches inserted in parallel. With 1, batches are inserted on the calling thread
+     * @param quarantinePath path of the file to write the records which failed to, or an empty string to only count
+     *                       them
+     */
+    CsvImporter(SQLDatasource datasource, String tableName, int batchSize, int parallelism, String quarantinePath) {
+        this.datasource = datasource;
+        this.tableName = tableName;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.quarantinePath = quarantinePath;
+    }
+
+    /**
+     * Imports a CSV file whose first record holds the names of its columns.
+     *
+     * @param path         path of the CSV file
+     * @param fileColumns  names of the columns of the file to import, or an empty array to import all the columns
+     *                     of the file into the table columns of the same names
+     * @param tableColumns names of the table columns the file columns are imported into, in the same order
+     * @return the number of records imported and the number of records quarantined
+     * @throws SQLException if the table could not be accessed
+     * @throws IOException  if the file could not be read
+     */
+    long[] importFile(String path, String[] fileColumns, String[] tableColumns) throws SQLException, IOException {
+        try (CsvReader reader = new CsvReader(Paths.get(path))) {
+            if (!reader.next()) {
+                return new long[] { 0, 0 };
+            }
+            resolveColumns(reader, fileColumns, tableColumns);
+            if (!quarantinePath.isEmpty()) {
+                quarantine = new ChannelWriter(Paths.get(quarantinePath));
+                StringBuilder header = new StringBuilder();
+                for (int fieldIndex : fieldIndexes) {
+                    QueryExporter.appendCsvField(header, reader.getString(fieldIndex));
+                    header.append(',');
+                }
+                quarantine.write(header.append(ERROR_COLUMN).append("\r\n"));
+            }
+            try {
+                if (parallelism == 1) {
+                    importSequentially(reader);
+                } else {
+                    importInParallel(reader);
+                }
+            } finally {
+                if (quarantine != null) {
+                    quarantine.close();
+                }
+            }
+        }
+        return new long[] { importedRowCount.get(), quarantinedRowCount.get() };
+    }
+
+    private void resolveColumns(CsvReader header, String[] fileColumns, String[] tableColumns) throws SQLException {
+        int columnCount = fileColumns.length == 0 ? header.getFieldCount() : fileColumns.length;
+        columns = new String[columnCount];
+        fieldIndexes = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            if (fileColumns.length == 0) {
+                columns[i] = header.getString(i).trim();
+                fieldIndexes[i] = i;
+            } else {
+                columns[i] = tableColumns[i];
+                fieldIndexes[i] = findField(header, fileColumns[i]);
+            }
+        }
+        if (!IDENTIFIER.matcher(tableName).matches()) {
+            throw new SQLException("Invalid table name: " + tableName);
+        }
+        StringBuilder columnList = new StringBuilder();
+        StringBuilder markers = new StringBuilder();
+        for (String column : columns) {
+            if (!IDENTIFIER.matcher(column).matches()) {
+                throw new SQLException("Invalid column name: " + column);
+            }
+            columnList.append(columnList.length() == 0 ? "" : ", ").append(column);
+            markers.append(markers.length() == 0 ? "?" : ", ?");
+        }
+        insertQuery = "INSERT INTO " + tableName + " (" + columnList + ") VALUES (" + markers + ")";
+        columnTypes = new int[columnCount];
+        try (Connection connection = datasource.getSQLConnection();
+             Statement statement = connection.createStatement()) {
+            ResultSetMetaData metaData = statement.executeQuery("SELECT " + columnList + " FROM " + tableName
+                    + " WHERE 1 = 0").getMetaData();
+            for (int i = 0; i < columnCount; i++) {
+                columnTypes[i] = metaData.getColumnType(i + 1);
+            }
+        }
+    }
+
+    private static int findField(CsvReader header, String fileColumn) throws SQLException {
+        for (int field = 0; field < header.getFieldCount(); field++) {
+            if (header.getString(field).trim().equals(fileColumn)) {
+                return field;
+            }
+        }
+        throw new SQLException("Column " + fileColumn + " is not found in the file");
+    }
+
+    private void importSequentially(CsvReader reader) throws SQLException, IOException {
+        try (Connection connection = datasource.getSQLConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+                List<Object[]> batch;
+                while (!(batch = readBatch(reader)).isEmpty()) {
+                    insertBatch(connection, statement, batch);
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void importInParallel(CsvReader reader) throws SQLException, IOException {
+        BlockingQueue<List<Object[]>> batches = new ArrayBlockingQueue<>(parallelism * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<Future<Void>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                workers.add(executor.submit(() -> {
+                    insertBatches(batches);
+                    return null;
+                }));
+            }
+            List<Object[]> batch;
+            do {
+                batch = readBatch(reader);
+                // Workers which failed stop taking batches, so check on them while the queue is full.
+                while (!batches.offer(batch, QUEUE_POLL_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS)) {
+                    checkWorkers(workers, false);
+                }
+            } while (!batch.isEmpty());
+            for (int i = 1; i < parallelism; i++) {
+                while (!batches.offer(END_OF_IMPORT, QUEUE_POLL_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS)) {
+                    checkWorkers(workers, false);
+                }
+            }
+            checkWorkers(workers, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Import was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void checkWorkers(List<Future<Void>> workers, boolean waitForCompletion)
+            throws SQLException, InterruptedException {
+        for (Future<Void> worker : workers) {
+            if (!waitForCompletion && !worker.isDone()) {
+                continue;
+            }
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw new SQLException("Import failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void insertBatches(BlockingQueue<List<Object[]>> batches)
+            throws SQLException, IOException, InterruptedException {
+        try (Connection connection = datasource.getSQLConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(insertQuery)) {
+                List<Object[]> batch;
+                while (!(batch = batches.take()).isEmpty()) {
+                    insertBatch(connection, statement, batch);
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Reads and converts the records of the next batch. Records which cannot be converted are quarantined.
+     *
+     * @return the converted records, or an empty list once the end of the file is reached
+     */
+    private List<Object[]> readBatch(CsvReader reader) throws IOException {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && reader.next()) {
+            Object[] row = new Object[columns.length];
+            try {
+                for (int i = 0; i < columns.length; i++) {
+                    if (fieldIndexes[i] >= reader.getFieldCount()) {
+                        throw new IllegalArgumentException("Record " + reader.getRecordNumber() + " has only "
+                                + reader.getFieldCount() + " fields");
+                    }
+                    row[i] = convert(reader, fieldIndexes[i], columnTypes[i]);
+                }
+                batch.add(row);
+            } catch (IllegalArgumentException e) {
+                String[] fields = new String[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    fields[i] = fieldIndexes[i] < reader.getFieldCount() ? reader.getString(fieldIndexes[i]) : null;
+                }
+                quarantine(fields, e.getMessage());
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Inserts a batch of records and commits it. If the batch fails, its records are inserted one by one, so that
+     * only the records which fail are quarantined.
+     */
+    private void insertBatch(Connection connection, PreparedStatement statement, List<Object[]> batch)
+            throws SQLException, IOException {
+        try {
+            for (Object[] row : batch) {
+                bind(statement, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+            importedRowCount.addAndGet(batch.size());
+            return;
+        } catch (SQLException e) {
+            connection.rollback();
+            statement.clearBatch();
+        }
+        for (Object[] row : batch) {
+            try {
+                bind(statement, row);
+                statement.executeUpdate();
+                connection.commit();
+                importedRowCount.incrementAndGet();
+            } catch (SQLException e) {
+                connection.rollback();
+                String[] fields = new String[row.length];
+                for (int i = 0; i < row.length; i++) {
+                    fields[i] = toText(row[i]);
+                }
+                quarantine(fields, e.getMessage());
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, Object[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] == null) {
+                statement.setNull(i + 1, columnTypes[i]);
+            } else if (row[i] instanceof String) {
+                statement.setObject(i + 1, row[i], columnTypes[i]);
+            } else {
+                statement.setObject(i + 1, row[i]);
+            }
+        }
+    }
+
+    /**
+     * Converts a field to the Java type of its column. Integers are parsed from the record buffer directly.
+     *
+     * @throws IllegalArgumentException if the field is not a valid value of the column type
+     */
+    private static Object convert(CsvReader reader, int field, int columnType) {
+        if (reader.isNull(field)) {
+            return null;
+        }
+        switch (columnType) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+            return reader.getLong(field);
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            return new BigDecimal(reader.getString(field).trim());
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            return Double.parseDouble(reader.getString(field));
+        default:
+            if (QueryExporter.isBoolean(columnType)) {
+                return toBoolean(reader.getString(field).trim());
+            } else if (QueryExporter.isBinary(columnType)) {
+                return Base64.getDecoder().decode(reader.getString(field).trim());
+            }
+            return reader.getString(field);
+        }
+    }
+
+    private static boolean toBoolean(String value) {
+        if ("true".equalsIgnoreCase(value) || "1".equals(value)) {
+            return true;
+        } else if ("false".equalsIgnoreCase(value) || "0".equals(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof byte[]) {
+            return Base64.getEncoder().encodeToString((byte[]) value);
+        }
+        return value == null ? null : value.toString();
+    }
+
+    private void quarantine(String[] fields, String error) throws IOException {
+        quarantinedRowCount.incrementAndGet();
+        if (quarantine == null) {
+            return;
+        }
+        StringBuilder row = new StringBuilder();
+        for (String field : fields) {
+            if (field != null) {
+                QueryExporter.appendCsvField(row, field);
+            }
+            row.append(',');
+        }
+        QueryExporter.appendCsvField(row, String.valueOf(error));
+        synchronized (this) {
+            quarantine.write(row.append("\r\n"));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the records of a CSV file (RFC 4180) one at a time. The fields of a record are unescaped into a reused
+ * character buffer and are only turned into strings on request, so that numeric fields are parsed without creating a
+ * string per field.
+ *
+ * @since 0.992.0
+ */
+class CsvReader implements Closeable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+    private int readPosition = 0;
+    private int readLimit = 0;
+
+    private char[] record = new char[1024];
+    private int recordLength = 0;
+    private int[] fieldStarts = new int[64];
+    private int[] fieldEnds = new int[64];
+    private boolean[] fieldQuoted = new boolean[64];
+    private int fieldCount = 0;
+    private long recordNumber = 0;
+
+    CsvReader(Path path) throws IOException {
+        this.reader = Channels.newReader(FileChannel.open(path, StandardOpenOption.READ),
+                StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads the next record. Empty lines are skipped.
+     *
+     * @return {@code false} if the end of the file is reached
+     * @throws IOException if the file could not be read
+     */
+    boolean next() throws IOException {
+        do {
+            if (!readRecord()) {
+                return false;
+            }
+        } while (fieldCount == 1 && fieldEnds[0] == fieldStarts[0] && !fieldQuoted[0]);
+        recordNumber++;
+        return true;
+    }
+
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns the number of the current record, starting from 1 for the first record of the file.
+     */
+    long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Checks whether a field is empty and unquoted, which is read as SQL NULL.
+     */
+    boolean isNull(int field) {
+        return fieldEnds[field] == fieldStarts[field] && !fieldQuoted[field];
+    }
+
+    String getString(int field) {
+        return new String(record, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+    /**
+     * Parses a field as a decimal integer without creating a string.
+     *
+     * @throws NumberFormatException if the field is not a decimal integer
+     */
+    long getLong(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        while (start < end && record[start] == ' ') {
+            start++;
+        }
+        while (end > start && record[end - 1] == ' ') {
+            end--;
+        }
+        boolean negative = start < end && record[start] == '-';
+        int i = negative || start < end && record[start] == '+' ? start + 1 : start;
+        if (i == end || end - i > 18) {
+            // Too long to rule out overflow digit by digit.
+            return Long.parseLong(getString(field).trim());
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = record[i];
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not an integer: " + getString(field));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private boolean readRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        int c = read();
+        if (c == EOF) {
+            return false;
+        }
+        while (true) {
+            int fieldStart = recordLength;
+            boolean quoted = c == '"';
+            if (quoted) {
+                c = read();
+                while (c != EOF) {
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    append((char) c);
+                    c = read();
+                }
+            }
+            while (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                append((char) c);
+                c = read();
+            }
+            addField(fieldStart, recordLength, quoted);
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                c = read();
+                if (c != '\n' && c != EOF) {
+                    readPosition--;
+                }
+            }
+            return true;
+        }
+    }
+
+    private int read() throws IOException {
+        if (readPosition == readLimit) {
+            readLimit = reader.read(readBuffer, 0, readBuffer.length);
+            readPosition = 0;
+            if (readLimit <= 0) {
+                readLimit = 0;
+                return EOF;
+            }
+        }
+        return readBuffer[readPosition++];
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length) {
+            char[] grown = new char[record.length * 2];
+            System.arraycopy(record, 0, grown, 0, recordLength);
+            record = grown;
+        }
+        record[recordLength++] = c;
+    }
+
+    private void addField(int start, int end, boolean quoted) {
+        if (fieldCount == fieldStarts.length) {
+            int[] grownStarts = new int[fieldCount * 2];
+            int[] grownEnds = new int[fieldCount * 2];
+            boolean[] grownQuoted = new boolean[fieldCount * 2];
+            System.arraycopy(fieldStarts, 0, grownStarts, 0, fieldCount);
+            System.arraycopy(fieldEnds, 0, grownEnds, 0, fieldCount);
+            System.arraycopy(fieldQuoted, 0, grownQuoted, 0, fieldCount);
+            fieldStarts = grownStarts;
+            fieldEnds = grownEnds;
+            fieldQuoted = grownQuoted;
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldQuoted[fieldCount] = quoted;
+        fieldCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.transfer;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.database.sql.Constants;
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.database.sql.SQLDatasourceUtils;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Imports a CSV file into a table with connections of the pool of an SQL client.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "importCsv",
+        args = {@Argument(name = "sqlClient", type = TypeKind.OBJECT, structType = "Client"),
+                @Argument(name = "path", type = TypeKind.STRING),
+                @Argument(name = "tableName", type = TypeKind.STRING),
+                @Argument(name = "fileColumns", type = TypeKind.ARRAY, elementType = TypeKind.STRING),
+                @Argument(name = "tableColumns", type = TypeKind.ARRAY, elementType = TypeKind.STRING),
+                @Argument(name = "batchSize", type = TypeKind.INT),
+                @Argument(name = "parallelism", type = TypeKind.INT),
+                @Argument(name = "quarantinePath", type = TypeKind.STRING)},
+        returnType = {@ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.INT),
+                @ReturnType(type = TypeKind.ERROR)}
+)
+public class ImportCsv extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BMap<String, BValue> sqlClient = (BMap<String, BValue>) context.getRefArgument(0);
+        String path = context.getStringArgument(0);
+        String tableName = context.getStringArgument(1);
+        String quarantinePath = context.getStringArgument(2);
+        String[] fileColumns = ((BValueArray) context.getRefArgument(1)).getStringArray();
+        String[] tableColumns = ((BValueArray) context.getRefArgument(2)).getStringArray();
+        int batchSize = (int) context.getIntArgument(0);
+        int parallelism = (int) context.getIntArgument(1);
+        SQLDatasource datasource = (SQLDatasource) sqlClient.getNativeData(Constants.SQL_CLIENT);
+        CsvImporter importer = new CsvImporter(datasource, tableName, batchSize, parallelism, quarantinePath);
+        try {
+            context.setReturnValues(new BValueArray(importer.importFile(path, fileColumns, tableColumns)));
+        } catch (SQLException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context, e));
+        } catch (IOException e) {
+            context.setReturnValues(SQLDatasourceUtils.getSQLConnectorError(context,
+                    new SQLException("Failed to import from " + path + ": " + e.getMessage(), e)));
+        }
+    }
+}
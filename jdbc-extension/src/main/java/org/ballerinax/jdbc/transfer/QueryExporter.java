@@ -0,0 +1,262 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.transfer;
+
+import org.ballerinalang.database.sql.SQLDatasource;
+import org.ballerinalang.model.values.BValueArray;
+import org.ballerinax.jdbc.StreamingQuery;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Base64;
+
+/**
+ * Streams the result of a query to a CSV or NDJSON file. Rows are read with a forward only cursor and written as
+ * they are read, so that memory use does not grow with the size of the result.
+ *
+ * @since 0.992.0
+ */
+final class QueryExporter {
+
+    static final String FORMAT_CSV = "CSV";
+    static final String FORMAT_NDJSON = "NDJSON";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private QueryExporter() {
+    }
+
+    /**
+     * Exports the result of a query to a file.
+     *
+     * @param datasource datasource of the SQL client to run the query with
+     * @param query      SQL query
+     * @param parameters the {@code sql:Param} values of the parameters of the query
+     * @param path       path of the file. An existing file is overwritten
+     * @param format     {@link #FORMAT_CSV} or {@link #FORMAT_NDJSON}
+     * @return the number of rows exported
+     * @throws SQLException if the query failed
+     * @throws IOException  if the file could not be written
+     */
+    static long export(SQLDatasource datasource, String query, BValueArray parameters, String path, String format)
+            throws SQLException, IOException {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        try (StreamingQuery streamingQuery = StreamingQuery.execute(datasource, query, parameters);
+             ChannelWriter writer = new ChannelWriter(Paths.get(path))) {
+            if (FORMAT_CSV.equals(format)) {
+                return writeCsv(streamingQuery.getResultSet(), writer);
+            }
+            return writeNdjson(streamingQuery.getResultSet(), writer);
+        }
+    }
+
+    private static long writeCsv(ResultSet resultSet, ChannelWriter writer) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        StringBuilder row = new StringBuilder();
+        for (int column = 1; column <= columnCount; column++) {
+            if (column > 1) {
+                row.append(',');
+            }
+            appendCsvField(row, metaData.getColumnLabel(column));
+        }
+        writer.write(row.append("\r\n"));
+        int[] columnTypes = getColumnTypes(metaData);
+        long rowCount = 0;
+        while (resultSet.next()) {
+            row.setLength(0);
+            for (int column = 1; column <= columnCount; column++) {
+                if (column > 1) {
+                    row.append(',');
+                }
+                if (isBinary(columnTypes[column - 1])) {
+                    byte[] bytes = resultSet.getBytes(column);
+                    if (bytes != null) {
+                        row.append(Base64.getEncoder().encodeToString(bytes));
+                    }
+                } else {
+                    String value = resultSet.getString(column);
+                    if (value != null) {
+                        appendCsvField(row, value);
+                    }
+                }
+            }
+            writer.write(row.append("\r\n"));
+            rowCount++;
+        }
+        return rowCount;
+    }
+
+    private static long writeNdjson(ResultSet resultSet, ChannelWriter writer) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] keys = new String[columnCount];
+        for (int column = 1; column <= columnCount; column++) {
+            StringBuilder key = new StringBuilder();
+            appendJsonString(key, metaData.getColumnLabel(column));
+            keys[column - 1] = key.append(':').toString();
+        }
+        int[] columnTypes = getColumnTypes(metaData);
+        StringBuilder row = new StringBuilder();
+        long rowCount = 0;
+        while (resultSet.next()) {
+            row.setLength(0);
+            row.append('{');
+            for (int column = 1; column <= columnCount; column++) {
+                if (column > 1) {
+                    row.append(',');
+                }
+                row.append(keys[column - 1]);
+                int columnType = columnTypes[column - 1];
+                if (isBinary(columnType)) {
+                    byte[] bytes = resultSet.getBytes(column);
+                    if (bytes == null) {
+                        row.append("null");
+                    } else {
+                        row.append('"').append(Base64.getEncoder().encodeToString(bytes)).append('"');
+                    }
+                } else if (isBoolean(columnType)) {
+                    boolean value = resultSet.getBoolean(column);
+                    row.append(resultSet.wasNull() ? "null" : String.valueOf(value));
+                } else {
+                    String value = resultSet.getString(column);
+                    if (value == null) {
+                        row.append("null");
+                    } else if (isNumeric(columnType) && isFiniteNumber(value)) {
+                        row.append(value);
+                    } else {
+                        appendJsonString(row, value);
+                    }
+                }
+            }
+            writer.write(row.append("}\n"));
+            rowCount++;
+        }
+        return rowCount;
+    }
+
+    private static int[] getColumnTypes(ResultSetMetaData metaData) throws SQLException {
+        int[] columnTypes = new int[metaData.getColumnCount()];
+        for (int column = 1; column <= columnTypes.length; column++) {
+            columnTypes[column - 1] = metaData.getColumnType(column);
+        }
+        return columnTypes;
+    }
+
+    /**
+     * Appends a field to a CSV row, quoting it if needed. An empty string is quoted, so that it is not read back as
+     * SQL NULL, which is written as an empty unquoted field.
+     *
+     * @param row   the row to append to
+     * @param value value of the field
+     */
+    static void appendCsvField(StringBuilder row, String value) {
+        boolean quoted = value.isEmpty();
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private static void appendJsonString(StringBuilder row, String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                row.append("\\\"");
+                break;
+            case '\\':
+                row.append("\\\\");
+                break;
+            case '\n':
+                row.append("\\n");
+                break;
+            case '\r':
+                row.append("\\r");
+                break;
+            case '\t':
+                row.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    row.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+                } else {
+                    row.append(c);
+                }
+            }
+        }
+        row.append('"');
+    }
+
+    static boolean isBinary(int columnType) {
+        return columnType == Types.BINARY || columnType == Types.VARBINARY || columnType == Types.LONGVARBINARY
+                || columnType == Types.BLOB;
+    }
+
+    static boolean isBoolean(int columnType) {
+        return columnType == Types.BOOLEAN || columnType == Types.BIT;
+    }
+
+    /**
+     * Checks whether the string value of a numeric column is a finite number, which can be written as a JSON number.
+     * JSON numbers end with a digit, while NaN and infinite values of floating point columns, which JSON can not
+     * represent, are read as strings such as {@code NaN} or {@code -Infinity} and are written as JSON strings.
+     */
+    private static boolean isFiniteNumber(String value) {
+        return !value.isEmpty() && Character.isDigit(value.charAt(value.length() - 1));
+    }
+
+    private static boolean isNumeric(int columnType) {
+        switch (columnType) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            return true;
+        default:
+            return false;
+        }
+    }
+}
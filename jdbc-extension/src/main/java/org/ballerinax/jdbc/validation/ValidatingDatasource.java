@@ -0,0 +1,461 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.validation;
+
+import org.ballerinalang.database.sql.SQLDatasource;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import javax.sql.XADataSource;
+
+/**
+ * Datasource which validates the connections it borrows from the pool of another datasource. A connection which was
+ * returned to the pool within the skip window is handed out without validation, since it was working moments ago.
+ * Other connections are validated with the {@link Connection#isValid(int)} check of the driver rather than a test
+ * query, and broken connections are discarded. Idle connections are also validated in the background while no
+ * connection is in use, so that broken connections are discarded before they are borrowed. Each datasource validates
+ * its idle connections on a thread of its own, and only borrows as many connections as the pool reports idle.
+ * <p>
+ * The pool itself validates a connection which has not been used for longer than its alive bypass window when the
+ * connection is borrowed. Such connections are not validated again, so the skip window only takes effect up to the
+ * bypass window of the pool, and they are not counted as validated.
+ * <p>
+ * Errors with a fatal SQLState raised by a borrowed connection, its statements or their result sets cause the
+ * connection to be discarded when it is returned, and are reported by {@link #takeFatalError()}, so that the client
+ * can replace the whole pool.
+ * A connection which fails validation is only discarded, since a single connection may have been dropped by the
+ * database while it was idle, e.g. after the wait timeout of MySQL, without the others being affected.
+ *
+ * @since 0.992.0
+ */
+public class ValidatingDatasource extends SQLDatasource {
+
+    public static final String NATIVE_DATA_KEY = "ValidatingDatasource";
+
+    private static final int MAX_BORROW_ATTEMPTS = 3;
+
+    /**
+     * Time since its last use after which HikariCP validates a connection itself when it is borrowed.
+     */
+    private static final long POOL_ALIVE_BYPASS_WINDOW_IN_MILLIS = Long.getLong("com.zaxxer.hikari.aliveBypassWindowMs",
+            500);
+    /**
+     * Time after which a borrow of the idle validation is considered to have waited for a connection, which ends the
+     * validation round so that it does not hold connections while callers wait.
+     */
+    private static final long MAX_IDLE_BORROW_TIME_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final String HIKARI_DATASOURCE_CLASS = "com.zaxxer.hikari.HikariDataSource";
+    private static final AtomicInteger IDLE_VALIDATOR_COUNT = new AtomicInteger();
+
+    /**
+     * Time each physical connection was last returned to the pool or validated. Connections which are evicted from
+     * the pool are dropped from the map once they are garbage collected.
+     */
+    private final Map<Connection, Long> lastUsedTimes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final SQLDatasource pooledDatasource;
+    private final long skipValidationWindowInMillis;
+    private final int validationTimeoutInSeconds;
+    private final String[] fatalSqlStates;
+    private final IntSupplier idleConnectionCounter;
+    private final ScheduledExecutorService idleValidator;
+    private final AtomicInteger inUseCount = new AtomicInteger();
+    private final AtomicLong validatedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicBoolean fatalErrorSeen = new AtomicBoolean(false);
+    private volatile long lastBorrowTime;
+
+    /**
+     * Creates a validating datasource.
+     *
+     * @param pooledDatasource               datasource of the pool to borrow connections from
+     * @param skipValidationWindowInMillis   time since a connection was last used within which it is not validated
+     * @param validationTimeoutInSeconds     timeout of the {@code isValid} check
+     * @param idleValidationIntervalInMillis interval of validating the idle connections, or 0 to not validate them
+     * @param fatalSqlStates                 SQLStates, or prefixes of them, of errors after which a connection is
+     *                                       not reused
+     */
+    public ValidatingDatasource(SQLDatasource pooledDatasource, long skipValidationWindowInMillis,
+                                int validationTimeoutInSeconds, long idleValidationIntervalInMillis,
+                                String[] fatalSqlStates) {
+        this.pooledDatasource = pooledDatasource;
+        this.skipValidationWindowInMillis = skipValidationWindowInMillis;
+        this.validationTimeoutInSeconds = validationTimeoutInSeconds;
+        this.fatalSqlStates = fatalSqlStates;
+        this.idleConnectionCounter = getIdleConnectionCounter(pooledDatasource);
+        if (idleValidationIntervalInMillis > 0 && idleConnectionCounter != null) {
+            idleValidator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jdbc-idle-validator-" + IDLE_VALIDATOR_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            idleValidator.scheduleWithFixedDelay(this::validateIdleConnections, idleValidationIntervalInMillis,
+                    idleValidationIntervalInMillis, TimeUnit.MILLISECONDS);
+        } else {
+            idleValidator = null;
+        }
+    }
+
+    @Override
+    public Connection getSQLConnection() throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            Connection connection = pooledDatasource.getSQLConnection();
+            Connection physicalConnection;
+            try {
+                physicalConnection = connection.unwrap(Connection.class);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            if (isUsable(physicalConnection)) {
+                inUseCount.incrementAndGet();
+                lastBorrowTime = System.currentTimeMillis();
+                return tracking(connection, physicalConnection);
+            }
+            evict(connection, physicalConnection);
+            if (attempt == MAX_BORROW_ATTEMPTS) {
+                throw new SQLException("Failed to borrow a valid connection after " + attempt + " attempts",
+                        "08001");
+            }
+        }
+    }
+
+    /**
+     * Returns whether an error with a fatal SQLState was seen since the last call, and clears the indication.
+     *
+     * @return {@code true} if an error with a fatal SQLState was seen
+     */
+    public boolean takeFatalError() {
+        return fatalErrorSeen.getAndSet(false);
+    }
+
+    /**
+     * Returns the number of connections which were validated with {@code isValid}, which were handed out without
+     * validation and which were discarded as broken. Connections validated by the pool itself are not counted.
+     *
+     * @return the validated, skipped and evicted connection counts
+     */
+    public long[] getCounts() {
+        return new long[] { validatedCount.get(), skippedCount.get(), evictedCount.get() };
+    }
+
+    /**
+     * Inherits the counts of the datasource of a pool the client switched away from, so that the counts of a client
+     * are kept when its pool is replaced.
+     *
+     * @param previousDatasource the datasource of the previous pool
+     */
+    public void inheritCounts(ValidatingDatasource previousDatasource) {
+        long[] previousCounts = previousDatasource.getCounts();
+        validatedCount.addAndGet(previousCounts[0]);
+        skippedCount.addAndGet(previousCounts[1]);
+        evictedCount.addAndGet(previousCounts[2]);
+    }
+
+    private boolean isUsable(Connection physicalConnection) {
+        long idleTime = getIdleTime(physicalConnection);
+        if (idleTime >= 0 && idleTime < skipValidationWindowInMillis) {
+            skippedCount.incrementAndGet();
+            return true;
+        }
+        return validate(physicalConnection, idleTime);
+    }
+
+    /**
+     * Returns the time since a connection was last used, or {@code -1} if it was not handed out by this datasource
+     * before.
+     */
+    private long getIdleTime(Connection physicalConnection) {
+        Long lastUsedTime = lastUsedTimes.get(physicalConnection);
+        return lastUsedTime == null ? -1 : System.currentTimeMillis() - lastUsedTime;
+    }
+
+    private boolean validate(Connection physicalConnection, long idleTime) {
+        if (idleTime >= POOL_ALIVE_BYPASS_WINDOW_IN_MILLIS) {
+            // Validated by the pool when it was borrowed.
+            return true;
+        }
+        validatedCount.incrementAndGet();
+        try {
+            return physicalConnection.isValid(validationTimeoutInSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes the physical connection behind a pooled connection and returns the pooled connection, so that the pool
+     * sees the connection as broken and discards it rather than handing it out again.
+     */
+    private void evict(Connection connection, Connection physicalConnection) {
+        evictedCount.incrementAndGet();
+        lastUsedTimes.remove(physicalConnection);
+        try {
+            physicalConnection.close();
+        } catch (SQLException ignore) {
+            // The connection is already broken.
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignore) {
+            // The pool discards the connection as broken.
+        }
+    }
+
+    /**
+     * Validates the idle connections of the pool which were not used within the skip window, while no connection is
+     * in use, so that the borrowing does not hold up callers. Connections are only borrowed while the pool reports
+     * idle connections, so that the pool neither creates connections for the validation nor makes it wait for one,
+     * and the round ends at the first borrow which took longer than an idle connection takes to hand out.
+     */
+    private void validateIdleConnections() {
+        if (inUseCount.get() > 0 || System.currentTimeMillis() - lastBorrowTime < skipValidationWindowInMillis) {
+            return;
+        }
+        int connectionCount = Math.min(lastUsedTimes.size(), idleConnectionCounter.getAsInt());
+        List<Connection> connections = new ArrayList<>(connectionCount);
+        try {
+            for (int i = 0; i < connectionCount && inUseCount.get() == 0 && idleConnectionCounter.getAsInt() > 0;
+                 i++) {
+                long borrowStartTime = System.nanoTime();
+                Connection connection = pooledDatasource.getSQLConnection();
+                connections.add(connection);
+                if (System.nanoTime() - borrowStartTime > MAX_IDLE_BORROW_TIME_IN_NANOS) {
+                    break;
+                }
+                Connection physicalConnection = connection.unwrap(Connection.class);
+                long idleTime = getIdleTime(physicalConnection);
+                if (idleTime >= 0 && idleTime < skipValidationWindowInMillis) {
+                    continue;
+                }
+                if (validate(physicalConnection, idleTime)) {
+                    lastUsedTimes.put(physicalConnection, System.currentTimeMillis());
+                } else {
+                    connections.remove(connection);
+                    evict(connection, physicalConnection);
+                }
+            }
+        } catch (SQLException | RuntimeException ignore) {
+            // Connections which cannot be borrowed now are validated at the next interval.
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignore) {
+                    // The connection is discarded by the pool.
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a supplier of the number of idle connections of the HikariCP pool behind a datasource, or {@code null}
+     * if the pool cannot be found. The pool is not exposed by {@link SQLDatasource}, so it is looked up by the type of
+     * the field which holds it.
+     */
+    private static IntSupplier getIdleConnectionCounter(SQLDatasource datasource) {
+        try {
+            for (Class<?> type = datasource.getClass(); type != null; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (HIKARI_DATASOURCE_CLASS.equals(field.getType().getName())) {
+                        field.setAccessible(true);
+                        Object hikariDatasource = field.get(datasource);
+                        Method getPool = hikariDatasource.getClass().getMethod("getHikariPoolMXBean");
+                        return () -> {
+                            try {
+                                Object pool = getPool.invoke(hikariDatasource);
+                                return pool == null ? 0
+                                        : (int) pool.getClass().getMethod("getIdleConnections").invoke(pool);
+                            } catch (ReflectiveOperationException | RuntimeException e) {
+                                return 0;
+                            }
+                        };
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignore) {
+            // Idle connections are then only validated when they are borrowed.
+        }
+        return null;
+    }
+
+    /**
+     * Wraps a borrowed connection to record when it is returned to the pool and to watch it, its statements and their
+     * result sets for errors with a fatal SQLState. A connection which raised such an error is discarded when it is
+     * returned.
+     */
+    private Connection tracking(Connection connection, Connection physicalConnection) {
+        AtomicBoolean returned = new AtomicBoolean(false);
+        AtomicBoolean broken = new AtomicBoolean(false);
+        Class<?>[] interfaces = { Connection.class };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && returned.compareAndSet(false, true)) {
+                        inUseCount.decrementAndGet();
+                        if (broken.get()) {
+                            evict(connection, physicalConnection);
+                            return null;
+                        }
+                        lastUsedTimes.put(physicalConnection, System.currentTimeMillis());
+                    }
+                    Object result = invoke(connection, method, args, broken);
+                    return watching(result, (Connection) proxy, null, broken);
+                });
+    }
+
+    /**
+     * Wraps a statement or result set, so that errors with a fatal SQLState raised by it are seen as well. Its
+     * references back to the connection and the statement return the wrappers. Other values are returned as they
+     * are.
+     */
+    private Object watching(Object value, Connection connection, Object statement, AtomicBoolean broken) {
+        Class<?> watchedType = getWatchedType(value);
+        if (watchedType == null) {
+            return value;
+        }
+        Class<?>[] interfaces = { watchedType };
+        return Proxy.newProxyInstance(watchedType.getClassLoader(), interfaces, (proxy, method, args) -> {
+            boolean noArgs = args == null || args.length == 0;
+            if (noArgs && "getConnection".equals(method.getName())) {
+                return connection;
+            }
+            if (noArgs && statement != null && "getStatement".equals(method.getName())) {
+                return statement;
+            }
+            Object result = invoke(value, method, args, broken);
+            return watching(result, connection, value instanceof Statement ? proxy : statement, broken);
+        });
+    }
+
+    private static Class<?> getWatchedType(Object value) {
+        if (value instanceof CallableStatement) {
+            return CallableStatement.class;
+        } else if (value instanceof PreparedStatement) {
+            return PreparedStatement.class;
+        } else if (value instanceof Statement) {
+            return Statement.class;
+        } else if (value instanceof ResultSet) {
+            return ResultSet.class;
+        }
+        return null;
+    }
+
+    private Object invoke(Object target, Method method, Object[] args, AtomicBoolean broken) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                broken.set(true);
+                fatalErrorSeen.set(true);
+            }
+            throw cause;
+        }
+    }
+
+    private boolean isFatal(SQLException exception) {
+        for (SQLException e = exception; e != null; e = e.getNextException()) {
+            String sqlState = e.getSQLState();
+            if (sqlState == null) {
+                continue;
+            }
+            for (String fatalSqlState : fatalSqlStates) {
+                if (sqlState.startsWith(fatalSqlState)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void stopIdleValidation() {
+        if (idleValidator != null) {
+            idleValidator.shutdown();
+        }
+    }
+
+    @Override
+    public String getPeerAddress() {
+        return pooledDatasource.getPeerAddress();
+    }
+
+    @Override
+    public String getDatabaseName() {
+        return pooledDatasource.getDatabaseName();
+    }
+
+    @Override
+    public String getDatabaseProductName() {
+        return pooledDatasource.getDatabaseProductName();
+    }
+
+    @Override
+    public String getConnectorId() {
+        return pooledDatasource.getConnectorId();
+    }
+
+    @Override
+    public boolean isXAConnection() {
+        return pooledDatasource.isXAConnection();
+    }
+
+    @Override
+    public XADataSource getXADataSource() {
+        return pooledDatasource.getXADataSource();
+    }
+
+    @Override
+    public void closeConnectionPool() {
+        stopIdleValidation();
+        pooledDatasource.closeConnectionPool();
+    }
+
+    @Override
+    public void incrementClientCounter() {
+        pooledDatasource.incrementClientCounter();
+    }
+
+    @Override
+    public void decrementClientCounterAndAttemptPoolShutdown() {
+        stopIdleValidation();
+        pooledDatasource.decrementClientCounterAndAttemptPoolShutdown();
+    }
+}
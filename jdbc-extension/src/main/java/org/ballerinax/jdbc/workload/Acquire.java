@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.workload;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.model.NativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+/**
+ * Waits, without blocking a worker thread, until a call is admitted by a priority gate or the timeout elapses.
+ *
+ * @since 0.992.0
+ */
+
+@BallerinaFunction(
+        orgName = "ballerinax", packageName = "jdbc:0.0.0",
+        functionName = "acquire",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "PriorityGate",
+                structPackage = "ballerinax/jdbc"),
+        args = {@Argument(name = "priority", type = TypeKind.INT),
+                @Argument(name = "timeoutInMillis", type = TypeKind.INT)},
+        returnType = {@ReturnType(type = TypeKind.BOOLEAN)}
+)
+public class Acquire implements NativeCallableUnit {
+
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        BMap<String, BValue> gate = (BMap<String, BValue>) context.getRefArgument(0);
+        long priority = context.getIntArgument(0);
+        long timeoutInMillis = context.getIntArgument(1);
+        ((PriorityGate) gate.getNativeData(PriorityGate.NATIVE_DATA_KEY)).acquire(priority, timeoutInMillis)
+                .thenAccept(admitted -> {
+                    context.setReturnValues(new BBoolean(admitted));
+                    callback.notifySuccess();
+                });
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.ballerinax.jdbc.workload;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of concurrent calls on a connection pool and admits waiting calls by priority, so that
+ * interactive calls waiting for a connection are served before batch calls which have been waiting longer. Calls of
+ * the same priority are admitted in arrival order.
+ *
+ * @since 0.992.0
+ */
+public class PriorityGate {
+
+    static final String NATIVE_DATA_KEY = "PriorityGate";
+
+    private static final ScheduledExecutorService TIMEOUT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "jdbc-priority-gate-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private int availablePermits;
+    private long nextSequence = 0;
+
+    PriorityGate(int maxConcurrentCalls) {
+        this.availablePermits = Math.max(1, maxConcurrentCalls);
+    }
+
+    /**
+     * Requests a permit to run a call.
+     *
+     * @param priority        priority of the call. Higher priorities are admitted first
+     * @param timeoutInMillis maximum time to wait for a permit
+     * @return a future which completes with {@code true} once the call is admitted, or with {@code false} if the
+     * timeout elapses first
+     */
+    CompletableFuture<Boolean> acquire(long priority, long timeoutInMillis) {
+        Waiter waiter;
+        synchronized (this) {
+            if (availablePermits > 0 && waiters.isEmpty()) {
+                availablePermits--;
+                return CompletableFuture.completedFuture(true);
+            }
+            waiter = new Waiter(priority, nextSequence++);
+            waiters.add(waiter);
+        }
+        TIMEOUT_SCHEDULER.schedule(() -> {
+            synchronized (this) {
+                if (!waiters.remove(waiter)) {
+                    return;
+                }
+            }
+            waiter.admission.complete(false);
+        }, timeoutInMillis, TimeUnit.MILLISECONDS);
+        return waiter.admission;
+    }
+
+    /**
+     * Returns the permit of a completed call, admitting the waiting call with the highest priority if there is one.
+     */
+    void release() {
+        Waiter next;
+        synchronized (this) {
+            next = waiters.poll();
+            if (next == null) {
+                availablePermits++;
+                return;
+            }
+        }
+        next.admission.complete(true);
+    }
+
+    private static class Waiter implements Comparable<Waiter> {
+        private final long priority;
+        private final long sequence;
+        private final CompletableFuture<Boolean> admission = new CompletableFuture<>();
+
+        private Waiter(long priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            if (priority != other.priority) {
+                return Long.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}